@@ -24,6 +24,7 @@ CREATE TABLE `xxl_job_info` (
   `executor_block_strategy` varchar(50) DEFAULT NULL COMMENT '阻塞处理策略',
   `executor_timeout` int(11) NOT NULL DEFAULT '0' COMMENT '任务执行超时时间，单位秒',
   `executor_fail_retry_count` int(11) NOT NULL DEFAULT '0' COMMENT '失败重试次数',
+  `executor_parallelism` int(11) NOT NULL DEFAULT '1' COMMENT '任务并行度，阻塞处理策略为并行执行时生效',
   `glue_type` varchar(50) NOT NULL COMMENT 'GLUE类型',
   `glue_source` mediumtext COMMENT 'GLUE源代码',
   `glue_remark` varchar(128) DEFAULT NULL COMMENT 'GLUE备注',
@@ -46,14 +47,22 @@ CREATE TABLE `xxl_job_log` (
   `executor_fail_retry_count` int(11) NOT NULL DEFAULT '0' COMMENT '失败重试次数',
   `trigger_time` datetime DEFAULT NULL COMMENT '调度-时间',
   `trigger_code` int(11) NOT NULL COMMENT '调度-结果',
-  `trigger_msg` text COMMENT '调度-日志',
   `handle_time` datetime DEFAULT NULL COMMENT '执行-时间',
   `handle_code` int(11) NOT NULL COMMENT '执行-状态',
-  `handle_msg` text COMMENT '执行-日志',
   `alarm_status` tinyint(4) NOT NULL DEFAULT '0' COMMENT '告警状态：0-默认、1-无需告警、2-告警成功、3-告警失败',
   PRIMARY KEY (`id`),
   KEY `I_trigger_time` (`trigger_time`),
-  KEY `I_handle_code` (`handle_code`)
+  KEY `I_handle_code` (`handle_code`),
+  KEY `I_job_id_trigger_time` (`job_id`, `trigger_time`),
+  KEY `I_job_group_trigger_time` (`job_group`, `trigger_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `xxl_job_log_detail` (
+  `log_id` bigint(20) NOT NULL COMMENT '调度日志ID',
+  `trigger_time` datetime NOT NULL COMMENT '调度-时间，与调度日志一致',
+  `trigger_msg` text COMMENT '调度-日志',
+  `handle_msg` text COMMENT '执行-日志',
+  PRIMARY KEY (`log_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 CREATE TABLE `xxl_job_log_report` (
@@ -0,0 +1,14 @@
+#
+# XXL-JOB v2.3.0-SNAPSHOT
+# Copyright (c) 2015-present, xuxueli.
+#
+# 任务表升级脚本：阻塞处理策略新增 "并行执行"（CONCURRENT），xxl_job_info 新增任务并行度字段，
+# 已有任务默认并行度为1。全新安装无需执行（tables_xxl_job.sql 已包含）；升级调度中心前需先执行，否则任务读写失败。
+
+use `xxl_job`;
+
+ALTER TABLE `xxl_job_info`
+  ADD COLUMN `executor_parallelism` int(11) NOT NULL DEFAULT '1' COMMENT '任务并行度，阻塞处理策略为并行执行时生效'
+  AFTER `executor_fail_retry_count`;
+
+commit;
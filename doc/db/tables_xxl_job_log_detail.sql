@@ -0,0 +1,34 @@
+#
+# XXL-JOB v2.3.0-SNAPSHOT
+# Copyright (c) 2015-present, xuxueli.
+#
+# 调度日志表拆分升级脚本：调度日志、执行日志大字段从 xxl_job_log 迁移至 xxl_job_log_detail，
+# xxl_job_log 仅保留调度、告警、统计等扫描所需的状态字段。全新安装无需执行（tables_xxl_job.sql 已包含）。
+# 日志量较大时，建议先清理过期日志，并在低峰期执行。
+
+use `xxl_job`;
+
+SET NAMES utf8mb4;
+
+CREATE TABLE `xxl_job_log_detail` (
+  `log_id` bigint(20) NOT NULL COMMENT '调度日志ID',
+  `trigger_time` datetime NOT NULL COMMENT '调度-时间，与调度日志一致',
+  `trigger_msg` text COMMENT '调度-日志',
+  `handle_msg` text COMMENT '执行-日志',
+  PRIMARY KEY (`log_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+# 日志详情按 (log_id, trigger_time) 关联，补齐缺失的调度时间
+UPDATE `xxl_job_log` SET `trigger_time` = '1970-01-01 00:00:00' WHERE `trigger_time` IS NULL;
+
+# 迁移大字段（日志量较大时可按 id 区间分批执行）
+INSERT INTO `xxl_job_log_detail` (`log_id`, `trigger_time`, `trigger_msg`, `handle_msg`)
+SELECT `id`, `trigger_time`, `trigger_msg`, `handle_msg`
+FROM `xxl_job_log`
+WHERE `trigger_msg` IS NOT NULL OR `handle_msg` IS NOT NULL;
+
+ALTER TABLE `xxl_job_log`
+  DROP COLUMN `trigger_msg`,
+  DROP COLUMN `handle_msg`;
+
+commit;
@@ -0,0 +1,14 @@
+#
+# XXL-JOB v2.3.0-SNAPSHOT
+# Copyright (c) 2015-present, xuxueli.
+#
+# 调度日志表索引升级脚本：调度日志列表按 "任务/执行器 + 调度时间" 过滤并按 (trigger_time, id) 倒序分页，
+# 新增对应的联合索引。全新安装无需执行（tables_xxl_job.sql 已包含）。
+
+use `xxl_job`;
+
+ALTER TABLE `xxl_job_log`
+  ADD KEY `I_job_id_trigger_time` (`job_id`, `trigger_time`),
+  ADD KEY `I_job_group_trigger_time` (`job_group`, `trigger_time`);
+
+commit;
@@ -0,0 +1,63 @@
+#
+# XXL-JOB v2.3.0-SNAPSHOT
+# Copyright (c) 2015-present, xuxueli.
+#
+# 调度日志表分区迁移脚本：xxl_job_log、xxl_job_log_detail 按 trigger_time 做 RANGE COLUMNS 分区，配合配置项 "xxl.job.logpartition=day/month" 使用；
+# 调度中心每小时预建后续分区（拆分兜底分区 p_max），日志过期时直接删除整个分区。
+# 分区表要求主键包含分区列，故主键调整为 (id, trigger_time)、(log_id, trigger_time)，trigger_time 调整为 NOT NULL；两张表的分区需保持一致。
+# 执行前请将 '2020-10-19 00:00:00' 替换为当天零点（按月分区时替换为当月一日零点），历史日志全部存放于分区 p_history，过期后整体删除。
+
+use `xxl_job`;
+
+SET NAMES utf8mb4;
+
+# 方式一：原表直接调整，执行期间锁表，适用于日志量较小或全新安装
+
+UPDATE `xxl_job_log` SET `trigger_time` = '1970-01-01 00:00:00' WHERE `trigger_time` IS NULL;
+
+ALTER TABLE `xxl_job_log`
+  MODIFY `trigger_time` datetime NOT NULL COMMENT '调度-时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `trigger_time`);
+
+ALTER TABLE `xxl_job_log`
+  PARTITION BY RANGE COLUMNS(`trigger_time`) (
+    PARTITION p_history VALUES LESS THAN ('2020-10-19 00:00:00'),
+    PARTITION p_max VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE `xxl_job_log_detail`
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`log_id`, `trigger_time`);
+
+ALTER TABLE `xxl_job_log_detail`
+  PARTITION BY RANGE COLUMNS(`trigger_time`) (
+    PARTITION p_history VALUES LESS THAN ('2020-10-19 00:00:00'),
+    PARTITION p_max VALUES LESS THAN (MAXVALUE)
+  );
+
+# 方式二：新建分区表后迁移数据并原子切换，适用于日志量较大的线上环境（替换方式一；xxl_job_log_detail 按相同步骤处理）
+#
+# CREATE TABLE `xxl_job_log_new` LIKE `xxl_job_log`;
+# ALTER TABLE `xxl_job_log_new`
+#   MODIFY `trigger_time` datetime NOT NULL COMMENT '调度-时间',
+#   DROP PRIMARY KEY,
+#   ADD PRIMARY KEY (`id`, `trigger_time`);
+# ALTER TABLE `xxl_job_log_new`
+#   PARTITION BY RANGE COLUMNS(`trigger_time`) (
+#     PARTITION p_history VALUES LESS THAN ('2020-10-19 00:00:00'),
+#     PARTITION p_max VALUES LESS THAN (MAXVALUE)
+#   );
+#
+# -- 分批迁移历史日志（按 id 区间重复执行，直至迁移完成），需保留的日志范围可结合 trigger_time 过滤
+# INSERT INTO `xxl_job_log_new` SELECT * FROM `xxl_job_log` WHERE `id` > 0 AND `id` <= 100000 AND `trigger_time` IS NOT NULL;
+#
+# -- 预留自增id，避免与迁移期间原表新增的日志冲突，然后原子切换
+# ALTER TABLE `xxl_job_log_new` AUTO_INCREMENT = <原表当前 AUTO_INCREMENT + 100000>;
+# RENAME TABLE `xxl_job_log` TO `xxl_job_log_old`, `xxl_job_log_new` TO `xxl_job_log`;
+#
+# -- 补齐迁移期间原表新增的日志，<最后迁移的id> 为分批迁移的最大id
+# INSERT INTO `xxl_job_log` SELECT * FROM `xxl_job_log_old` WHERE `id` > <最后迁移的id> AND `trigger_time` IS NOT NULL;
+# DROP TABLE `xxl_job_log_old`;
+
+commit;
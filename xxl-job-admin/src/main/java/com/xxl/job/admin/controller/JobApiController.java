@@ -3,18 +3,27 @@ package com.xxl.job.admin.controller;
 
 import com.xxl.job.admin.controller.annotation.PermissionLimit;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.thread.JobRegistryHelper;
 import com.xxl.job.core.biz.AdminBiz;
 import com.xxl.job.core.biz.AdminBizEnum;
 import com.xxl.job.core.biz.client.AdminBizClient;
+import com.xxl.job.core.biz.model.GlueParam;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.biz.model.RegistrySyncParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.util.GsonTool;
 import com.xxl.job.core.util.XxlJobRemotingUtil;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -38,16 +47,18 @@ public class JobApiController {
    * 远程api调用
    *
    * @param uri  请求类型
-   * @param data 请求数据
-   * @return
+   * @param body 请求数据，可能经过gzip压缩
+   * @return 调用结果；注册信息同步为长轮询，返回 DeferredResult，由变更通知或超时完成，不占用请求线程
    * @see AdminBizClient#callback(List)
    * @see AdminBizClient#registry(RegistryParam)
    * @see AdminBizClient#registryRemove(RegistryParam)
+   * @see AdminBizClient#registrySync(RegistrySyncParam)
+   * @see AdminBizClient#glueSource(GlueParam)
    */
   @PostMapping("/{uri}")
   @PermissionLimit(limit = false)
-  public ReturnT<String> api(HttpServletRequest request, @PathVariable("uri") String uri,
-      @RequestBody(required = false) String data) {
+  public Object api(HttpServletRequest request, @PathVariable("uri") String uri,
+      @RequestBody(required = false) byte[] body) {
 
     // 验证
     if (StringUtils.isBlank(uri)) {
@@ -58,6 +69,12 @@ public class JobApiController {
         .equals(request.getHeader(XxlJobRemotingUtil.XXL_JOB_ACCESS_TOKEN))) {
       return new ReturnT<>(ReturnT.FAIL_CODE, "The access token is wrong.");
     }
+    String data;
+    try {
+      data = decodeBody(body, request.getHeader(HttpHeaders.CONTENT_ENCODING));
+    } catch (IOException e) {
+      return new ReturnT<>(ReturnT.FAIL_CODE, "invalid request, body decode fail.");
+    }
 
     // 服务映射
     if (AdminBizEnum.CALLBACK.getType().equals(uri)) {
@@ -70,9 +87,35 @@ public class JobApiController {
     } else if (AdminBizEnum.REGISTRY_REMOVE.getType().equals(uri)) {
       RegistryParam registryParam = GsonTool.fromJson(data, RegistryParam.class);
       return adminBiz.registryRemove(registryParam);
+    } else if (AdminBizEnum.REGISTRY_SYNC.getType().equals(uri)) {
+      RegistrySyncParam registrySyncParam = GsonTool.fromJson(data, RegistrySyncParam.class);
+      return JobRegistryHelper.getInstance().registrySyncAsync(registrySyncParam);
+    } else if (AdminBizEnum.GLUE_SOURCE.getType().equals(uri)) {
+      GlueParam glueParam = GsonTool.fromJson(data, GlueParam.class);
+      return adminBiz.glueSource(glueParam);
     } else {
       return new ReturnT<>(ReturnT.FAIL_CODE,
           "invalid request, uri-mapping(" + uri + ") not found.");
     }
   }
+
+  /**
+   * 解码请求数据.
+   *
+   * @param body            请求数据
+   * @param contentEncoding 请求数据编码
+   * @return 请求数据字符串
+   * @throws IOException 解压失败
+   */
+  private static String decodeBody(byte[] body, String contentEncoding) throws IOException {
+    if (body == null) {
+      return null;
+    }
+    if (!XxlJobRemotingUtil.GZIP_ENCODING.equalsIgnoreCase(contentEncoding)) {
+      return new String(body, StandardCharsets.UTF_8);
+    }
+    try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+    }
+  }
 }
\ No newline at end of file
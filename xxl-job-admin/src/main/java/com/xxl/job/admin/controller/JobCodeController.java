@@ -2,6 +2,7 @@ package com.xxl.job.admin.controller;
 
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLogGlue;
+import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.dao.XxlJobInfoDao;
 import com.xxl.job.admin.dao.XxlJobLogGlueDao;
@@ -119,6 +120,9 @@ public class JobCodeController {
         //永远只保留30条最新记录，移除超过后的旧记录
         xxlJobLogGlueDao.removeOld(xxlJobLogGlue.getId(), 30);
 
+        // 通知执行器预编译
+        JobTriggerPoolHelper.glueCompile(existsJobInfo);
+
         return ReturnT.SUCCESS;
     }
 
@@ -2,10 +2,12 @@ package com.xxl.job.admin.controller;
 
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.core.thread.JobRegistryHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.dao.XxlJobGroupDao;
 import com.xxl.job.admin.dao.XxlJobInfoDao;
 import com.xxl.job.admin.dao.XxlJobRegistryDao;
+import com.xxl.job.core.biz.model.ExecutorStatus;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.enums.RegistryConfig;
 import org.apache.commons.lang.StringUtils;
@@ -67,6 +69,20 @@ public class JobGroupController {
         // 分页查询
         List<XxlJobGroup> list = xxlJobGroupDao.pageList(start, length, appname, title);
         int count = xxlJobGroupDao.pageListCount(start, length, appname, title);
+        // 在线地址的负载状态
+        for (XxlJobGroup group : list) {
+            if (group.getRegistryList() == null) {
+                continue;
+            }
+            Map<String, ExecutorStatus> executorStatus = new HashMap<>();
+            for (String address : group.getRegistryList()) {
+                ExecutorStatus status = JobRegistryHelper.getInstance().getExecutorStatus(address);
+                if (status != null) {
+                    executorStatus.put(address, status);
+                }
+            }
+            group.setExecutorStatus(executorStatus);
+        }
 
         // package result
         Map<String, Object> maps = new HashMap<>();
@@ -4,10 +4,15 @@ import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
 import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.thread.JobLogReportHelper;
+import com.xxl.job.admin.core.thread.JobLogStreamHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.core.util.LocalCacheUtil;
+import com.xxl.job.admin.core.util.LogPartitionUtil;
 import com.xxl.job.admin.dao.XxlJobGroupDao;
 import com.xxl.job.admin.dao.XxlJobInfoDao;
 import com.xxl.job.admin.dao.XxlJobLogDao;
+import com.xxl.job.admin.dao.XxlJobLogDetailDao;
 import com.xxl.job.admin.enums.LogClearType;
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.LogResult;
@@ -26,6 +31,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
@@ -44,12 +50,23 @@ public class JobLogController {
 
   private static Logger logger = LoggerFactory.getLogger(JobLogController.class);
 
+  /**
+   * 分页总数量的最大统计数量，超出后按该数量展示，可缩小调度时间范围查看更早的日志
+   */
+  private static final int PAGE_COUNT_MAX = 10000;
+  /**
+   * 分页总数量的缓存时间（毫秒）
+   */
+  private static final long PAGE_COUNT_CACHE_TIME = 30 * 1000L;
+
   @Resource
   private XxlJobGroupDao xxlJobGroupDao;
   @Resource
   public XxlJobInfoDao xxlJobInfoDao;
   @Resource
   public XxlJobLogDao xxlJobLogDao;
+  @Resource
+  private XxlJobLogDetailDao xxlJobLogDetailDao;
 
   /**
    * 根据任务id查询任务信息，将数据渲染至指定页面
@@ -108,13 +125,15 @@ public class JobLogController {
   /**
    * 调度日志分页
    *
-   * @param request    request请求体
-   * @param start      页码
-   * @param length     页面大小
-   * @param jobGroup   执行器id
-   * @param jobId      任务id
-   * @param logStatus  日志状态
-   * @param filterTime 调度时间（2020-08-30 00:00:00 - 2020-08-30 23:59:59）
+   * @param request           request请求体
+   * @param start             页码
+   * @param length            页面大小
+   * @param jobGroup          执行器id
+   * @param jobId             任务id
+   * @param logStatus         日志状态
+   * @param filterTime        调度时间（2020-08-30 00:00:00 - 2020-08-30 23:59:59）
+   * @param cursorTriggerTime 游标：上一页最后一条日志的调度时间（毫秒），翻至下一页时传入
+   * @param cursorId          游标：上一页最后一条日志的id
    * @return 封装好的数据
    */
   @PostMapping("/pageList")
@@ -122,7 +141,8 @@ public class JobLogController {
   public Map<String, Object> pageList(HttpServletRequest request,
       @RequestParam(required = false, defaultValue = "0") int start,
       @RequestParam(required = false, defaultValue = "10") int length, int jobGroup, int jobId,
-      int logStatus, String filterTime) {
+      int logStatus, String filterTime, @RequestParam(required = false) Long cursorTriggerTime,
+      @RequestParam(required = false, defaultValue = "0") long cursorId) {
     final int size = 2;
     // valid permission
     // 仅管理员支持查询全部；普通用户仅支持查询有权限的jobGroup
@@ -139,11 +159,22 @@ public class JobLogController {
       }
     }
 
-    // 分页查询
+    // 分页查询：存在游标时按游标续查
+    Date cursorTime = cursorTriggerTime != null ? new Date(cursorTriggerTime) : null;
     List<XxlJobLog> list = xxlJobLogDao
-        .pageList(start, length, jobGroup, jobId, triggerTimeStart, triggerTimeEnd, logStatus);
-    int listCount = xxlJobLogDao
-        .pageListCount(jobGroup, jobId, triggerTimeStart, triggerTimeEnd, logStatus);
+        .pageList(start, length, jobGroup, jobId, triggerTimeStart, triggerTimeEnd, logStatus,
+            cursorTime, cursorId);
+
+    // 分页总数量：限制最大统计数量，并短暂缓存，翻页时不重复统计
+    String countKey = "joblog_count_" + jobGroup + "_" + jobId + "_" + logStatus + "_"
+        + (triggerTimeStart != null ? triggerTimeStart.getTime() : "") + "_"
+        + (triggerTimeEnd != null ? triggerTimeEnd.getTime() : "");
+    Integer listCount = (Integer) LocalCacheUtil.get(countKey);
+    if (listCount == null) {
+      listCount = xxlJobLogDao.pageListCount(jobGroup, jobId, triggerTimeStart, triggerTimeEnd,
+          logStatus, PAGE_COUNT_MAX);
+      LocalCacheUtil.set(countKey, listCount, PAGE_COUNT_CACHE_TIME);
+    }
 
     // 包装结果
     Map<String, Object> maps = new HashMap<>();
@@ -167,7 +198,7 @@ public class JobLogController {
   public String logDetailPage(int id, Model model) {
 
     // base check
-    XxlJobLog jobLog = xxlJobLogDao.load(id);
+    XxlJobLog jobLog = xxlJobLogDao.load(id, null);
     if (jobLog == null) {
       throw new XxlJobException(I18nUtil.getString("joblog_logid_unvalid"));
     }
@@ -187,22 +218,23 @@ public class JobLogController {
    * @param triggerTime     调度时间
    * @param logId           日志id
    * @param fromLineNum     起始行号
+   * @param fromOffset      起始字节偏移（上次读取的 toOffset），小于0时按起始行号读取
    * @return 任务执行日志
    */
   @RequestMapping("/logDetailCat")
   @ResponseBody
   public ReturnT<LogResult> logDetailCat(String executorAddress, long triggerTime, long logId,
-      int fromLineNum) {
+      int fromLineNum, @RequestParam(required = false, defaultValue = "-1") long fromOffset) {
     try {
       ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(executorAddress);
       ReturnT<LogResult> logResult = Objects.requireNonNull(executorBiz)
-          .log(new LogParam(triggerTime, logId, fromLineNum));
+          .log(new LogParam(triggerTime, logId, fromLineNum, fromOffset));
 
       // 是否结束
       if (logResult.getContent() != null && logResult.getContent().getFromLineNum() > logResult
           .getContent().getToLineNum()) {
-        XxlJobLog jobLog = xxlJobLogDao.load(logId);
-        if (jobLog.getHandleCode() > 0) {
+        XxlJobLog jobLog = xxlJobLogDao.load(logId, new Date(triggerTime));
+        if (jobLog != null && jobLog.getHandleCode() > 0) {
           logResult.getContent().setEnd(true);
         }
       }
@@ -213,6 +245,22 @@ public class JobLogController {
     }
   }
 
+  /**
+   * 实时推送日志明细（执行日志 Console），同一执行日志的查看者共用一个执行器日志流
+   *
+   * @param executorAddress 执行地址
+   * @param triggerTime     调度时间
+   * @param logId           日志id
+   * @param fromOffset      起始字节偏移
+   * @return 推送连接，事件：log、end、fail
+   * @see JobLogStreamHelper#subscribe(String, long, long, long)
+   */
+  @RequestMapping("/logStream")
+  public SseEmitter logStream(String executorAddress, long triggerTime, long logId,
+      @RequestParam(required = false, defaultValue = "0") long fromOffset) {
+    return JobLogStreamHelper.getInstance().subscribe(executorAddress, triggerTime, logId, fromOffset);
+  }
+
   /**
    * 终止任务 （调度日志 - 终止任务）
    *
@@ -225,7 +273,7 @@ public class JobLogController {
   @ResponseBody
   public ReturnT<String> logKill(int id) {
     // base check
-    XxlJobLog log = xxlJobLogDao.load(id);
+    XxlJobLog log = xxlJobLogDao.load(id, null);
     XxlJobInfo jobInfo = xxlJobInfoDao.loadById(log.getJobId());
     if (jobInfo == null) {
       return new ReturnT<>(500, I18nUtil.getString("jobinfo_glue_jobid_unvalid"));
@@ -247,12 +295,17 @@ public class JobLogController {
 
     //如果kill成功了，更新任务的状态
     if (ReturnT.SUCCESS_CODE == runResult.getCode()) {
+      int oldHandleCode = log.getHandleCode();
       log.setHandleCode(ReturnT.FAIL_CODE);
       log.setHandleMsg(
           I18nUtil.getString("joblog_kill_log_byman") + ":" + (runResult.getMsg() != null
               ? runResult.getMsg() : ""));
       log.setHandleTime(LocalDate.now());
-      xxlJobLogDao.updateHandleInfo(log);
+      if (xxlJobLogDao.updateHandleInfo(log) > 0) {
+        xxlJobLogDetailDao.saveHandleMsg(log);
+        JobLogReportHelper.getInstance().countHandle(log.getTriggerTime(), log.getTriggerCode(),
+            oldHandleCode, log.getHandleCode());
+      }
       return new ReturnT<>(runResult.getMsg());
     } else {
       return new ReturnT<>(500, runResult.getMsg());
@@ -287,6 +340,11 @@ public class JobLogController {
       clearBeforeNum = clearType.getNumber();
     }
 
+    // 分区模式下按时间清理全部日志：先删除整个过期分区，剩余日志再分批删除
+    if (clearBeforeTime != null && jobGroup == 0 && jobId == 0 && LogPartitionUtil.isEnabled()) {
+      LogPartitionUtil.dropPartitions(clearBeforeTime);
+    }
+
     List<Long> logIds;
     do {
       logIds = xxlJobLogDao.findClearLogIds(jobGroup, jobId, clearBeforeTime, clearBeforeNum, 1000);
@@ -3,6 +3,7 @@ package com.xxl.job.admin.core.complete;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.thread.JobLogReportHelper;
 import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.enums.TriggerTypeEnum;
@@ -23,12 +24,18 @@ public class XxlJobCompleter {
   /**
    * 组件刷新处理入口 (仅限一次)
    *
-   * @param xxlJobLog 任务信息
+   * @param xxlJobLog 任务信息，需包含调度时间、调度结果用于累加日志统计
    * @return 更新影响的行数
    */
   public static int updateHandleInfoAndFinish(XxlJobLog xxlJobLog) {
 
-    // 结束任务
+    // 刷新处理信息：条件更新未完成的日志，多个调度中心并发回调同一调度（如对冲回调）时只有一个更新成功
+    int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateHandleInfo(xxlJobLog);
+    if (ret != 1) {
+      return ret;
+    }
+
+    // 结束任务，子任务只由更新成功的调度中心调度
     finishJob(xxlJobLog);
 
     // text最大64kb 避免长度过长
@@ -36,8 +43,12 @@ public class XxlJobCompleter {
       xxlJobLog.setHandleMsg(xxlJobLog.getHandleMsg().substring(0, 15000));
     }
 
-    // 刷新处理信息
-    return XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateHandleInfo(xxlJobLog);
+    // 刷新执行日志
+    XxlJobAdminConfig.getAdminConfig().getXxlJobLogDetailDao().saveHandleMsg(xxlJobLog);
+    // 累加执行统计：运行中 -> 成功/失败
+    JobLogReportHelper.getInstance().countHandle(xxlJobLog.getTriggerTime(),
+        xxlJobLog.getTriggerCode(), 0, xxlJobLog.getHandleCode());
+    return ret;
   }
 
 
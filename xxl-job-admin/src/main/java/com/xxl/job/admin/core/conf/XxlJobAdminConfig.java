@@ -5,9 +5,13 @@ import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
 import com.xxl.job.admin.dao.XxlJobGroupDao;
 import com.xxl.job.admin.dao.XxlJobInfoDao;
 import com.xxl.job.admin.dao.XxlJobLogDao;
+import com.xxl.job.admin.dao.XxlJobLogDetailDao;
 import com.xxl.job.admin.dao.XxlJobLogReportDao;
 import com.xxl.job.admin.dao.XxlJobRegistryDao;
+import com.xxl.job.admin.enums.LogPartitionType;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import javax.annotation.Resource;
 import javax.sql.DataSource;
 import lombok.Getter;
@@ -83,12 +87,25 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
    */
   @Value("${xxl.job.logretentiondays}")
   private int logRetentionDays;
+  /**
+   * 日志表分区类型：none（默认，不分区）、day（按天分区）、month（按月分区）
+   */
+  @Value("${xxl.job.logpartition:none}")
+  private String logPartition;
+  /**
+   * 其他调度中心地址（多地址逗号分隔），集群部署时用于同步注册信息，为空则不同步
+   */
+  @Value("${xxl.job.registry.peers:}")
+  private String registryPeers;
 
   @Getter
   @Resource
   private XxlJobLogDao xxlJobLogDao;
   @Getter
   @Resource
+  private XxlJobLogDetailDao xxlJobLogDetailDao;
+  @Getter
+  @Resource
   private XxlJobInfoDao xxlJobInfoDao;
   @Getter
   @Resource
@@ -145,4 +162,30 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
     // 限制大于或等于7，否则不开放
     return logRetentionDays < 7 ? -1 : logRetentionDays;
   }
+
+  /**
+   * 日志表分区类型
+   *
+   * @return 分区类型，未配置或配置错误时不分区
+   */
+  public LogPartitionType getLogPartitionType() {
+    return LogPartitionType.match(logPartition);
+  }
+
+  /**
+   * 其他调度中心地址
+   *
+   * @return 地址列表，未配置时为空
+   */
+  public List<String> getRegistryPeers() {
+    List<String> peers = new ArrayList<>();
+    if (registryPeers != null) {
+      for (String peer : registryPeers.split(",")) {
+        if (peer.trim().length() > 0) {
+          peers.add(peer.trim());
+        }
+      }
+    }
+    return peers;
+  }
 }
@@ -1,5 +1,6 @@
 package com.xxl.job.admin.core.model;
 
+import com.xxl.job.core.biz.model.ExecutorStatus;
 import java.util.Date;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,6 +9,7 @@ import org.apache.commons.lang.StringUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 执行器信息.
@@ -50,6 +52,11 @@ public class XxlJobGroup {
      * 执行器地址列表(系统注册)
      */
     private List<String> registryList;
+    /**
+     * 执行器负载状态<执行器地址, 最近一次心跳上报的负载状态>，仅用于页面展示
+     */
+    @Getter
+    private Map<String, ExecutorStatus> executorStatus;
 
     /**
      * 获取执行器地址列表.
@@ -77,6 +77,10 @@ public class XxlJobInfo {
    * 失败重试次数.
    */
   private Integer executorFailRetryCount;
+  /**
+   * 任务并行度，阻塞处理策略为并行执行时生效.
+   */
+  private Integer executorParallelism;
   /**
    * GLUE类型	#com.xxl.job.core.glue.GlueTypeEnum.
    */
@@ -0,0 +1,28 @@
+package com.xxl.job.admin.core.model.extend;
+
+import lombok.Data;
+
+/**
+ * 日志表分区信息（information_schema.PARTITIONS）.
+ *
+ * @author smilesnake
+ */
+@Data
+public class LogPartitionExt {
+    /**
+     * 分区名称.
+     */
+    private String partitionName;
+    /**
+     * 分区上界，如 '2020-10-20 00:00:00'、MAXVALUE.
+     */
+    private String partitionDescription;
+
+    public LogPartitionExt() {
+    }
+
+    public LogPartitionExt(String partitionName, String partitionDescription) {
+        this.partitionName = partitionName;
+        this.partitionDescription = partitionDescription;
+    }
+}
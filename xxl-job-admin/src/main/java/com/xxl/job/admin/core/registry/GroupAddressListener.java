@@ -0,0 +1,25 @@
+package com.xxl.job.admin.core.registry;
+
+import com.xxl.job.admin.core.model.XxlJobGroup;
+
+/**
+ * 执行器地址变更监听接口
+ * <p>
+ * 通过 JobRegistryHelper#addGroupAddressListener 订阅，自动注册的执行器在线地址变化时回调，代替定期读取 xxl_job_group.
+ * </p>
+ *
+ * @author smilesnake
+ */
+public interface GroupAddressListener {
+
+    /**
+     * 执行器地址变更.
+     *
+     * @param group          执行器信息，addressList 为变更后的在线地址（逗号分隔，无在线地址时为null）；
+     *                       执行器已删除或改为手动录入时只有 id，addressList 为null
+     * @param oldAddressList 变更前的在线地址，首次加载时为null
+     * @param version        变更后的地址视图版本号
+     */
+    void onChange(XxlJobGroup group, String oldAddressList, long version);
+
+}
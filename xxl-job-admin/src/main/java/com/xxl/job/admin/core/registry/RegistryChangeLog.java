@@ -0,0 +1,301 @@
+package com.xxl.job.admin.core.registry;
+
+import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.biz.model.RegistrySyncResult;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import lombok.Getter;
+
+/**
+ * 版本化的注册信息变更日志
+ * <p>
+ * 维护当前在线的注册信息，每次变更递增版本号并记录增量；同步方按 "纪元 + 版本号" 获取该版本之后的增量，
+ * 无变更时登记等待（不占用线程），下次变更时由变更线程回调；增量已被淘汰或纪元不一致（调度中心重启）时返回全量注册信息.
+ * </p>
+ *
+ * @author smilesnake
+ */
+public class RegistryChangeLog {
+
+    /**
+     * 纪元，创建时间，版本号仅在同一纪元内有效.
+     */
+    @Getter
+    private final long epoch = System.currentTimeMillis();
+    /**
+     * 保留的增量数量.
+     */
+    private final int capacity;
+    /**
+     * 在线的注册信息.
+     */
+    private final Set<RegistryParam> members = new HashSet<>();
+    /**
+     * 最近的增量，按版本号递增.
+     */
+    private final Deque<Change> changes = new ArrayDeque<>();
+    /**
+     * 变更回调<变更的注册信息, true-新增/false-移除>，在变更线程中持有锁按版本顺序执行，需轻量.
+     */
+    private final BiConsumer<RegistryParam, Boolean> changeListener;
+    /**
+     * 等待增量的同步方.
+     */
+    private final List<Watcher> watchers = new ArrayList<>();
+    /**
+     * 当前版本号.
+     */
+    private long version = 0;
+
+    /**
+     * 注册信息变更日志
+     *
+     * @param capacity       保留的增量数量
+     * @param changeListener 变更回调（参数为变更的注册信息、是否新增），可为null
+     */
+    public RegistryChangeLog(int capacity, BiConsumer<RegistryParam, Boolean> changeListener) {
+        this.capacity = capacity;
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * 新增注册信息，已存在时忽略.
+     *
+     * @param registryParam 注册信息
+     * @return true，新增，否则，已存在
+     */
+    public boolean add(RegistryParam registryParam) {
+        List<Runnable> notifyList;
+        synchronized (this) {
+            if (!members.add(registryParam)) {
+                return false;
+            }
+            notifyList = append(new Change(++version, registryParam, true));
+        }
+        notifyList.forEach(Runnable::run);
+        return true;
+    }
+
+    /**
+     * 移除注册信息，不存在时忽略.
+     *
+     * @param registryParam 注册信息
+     * @return true，移除，否则，不存在
+     */
+    public boolean remove(RegistryParam registryParam) {
+        List<Runnable> notifyList;
+        synchronized (this) {
+            if (!members.remove(registryParam)) {
+                return false;
+            }
+            notifyList = append(new Change(++version, registryParam, false));
+        }
+        notifyList.forEach(Runnable::run);
+        return true;
+    }
+
+    /**
+     * 以全量注册信息校准（如数据库中在线的注册信息），按差异生成增量.
+     *
+     * @param registryList 全量注册信息
+     */
+    public void reset(Collection<RegistryParam> registryList) {
+        Set<RegistryParam> target = new HashSet<>(registryList);
+        List<RegistryParam> removeList;
+        synchronized (this) {
+            removeList = new ArrayList<>();
+            for (RegistryParam member : members) {
+                if (!target.contains(member)) {
+                    removeList.add(member);
+                }
+            }
+        }
+        for (RegistryParam registryParam : removeList) {
+            remove(registryParam);
+        }
+        for (RegistryParam registryParam : target) {
+            add(registryParam);
+        }
+    }
+
+    /**
+     * 应用其他调度中心的同步结果.
+     * <p>
+     * 全量结果只合并新增，不移除本地独有的注册信息（可能是刚在本调度中心注册的），过期的注册信息由 {@link #reset(Collection)} 按数据库校准.
+     * </p>
+     *
+     * @param result 同步结果
+     */
+    public void apply(RegistrySyncResult result) {
+        if (!result.isFull() && result.getRemoveList() != null) {
+            for (RegistryParam registryParam : result.getRemoveList()) {
+                remove(registryParam);
+            }
+        }
+        if (result.getAddList() != null) {
+            for (RegistryParam registryParam : result.getAddList()) {
+                add(registryParam);
+            }
+        }
+    }
+
+    /**
+     * 异步获取指定版本之后的增量：有增量时在当前线程立即回调，否则登记等待，下次变更时在变更线程中回调（仅一次）.
+     *
+     * @param epoch        已同步的纪元
+     * @param sinceVersion 已同步的版本号
+     * @param callback     回调，参数为同步结果
+     */
+    public void watch(long epoch, long sinceVersion, Consumer<RegistrySyncResult> callback) {
+        RegistrySyncResult result;
+        synchronized (this) {
+            if (epoch == this.epoch && sinceVersion == version) {
+                watchers.add(new Watcher(sinceVersion, callback));
+                return;
+            }
+            result = poll(epoch, sinceVersion);
+        }
+        callback.accept(result);
+    }
+
+    /**
+     * 取消等待（如等待超时、请求断开），已回调时忽略.
+     *
+     * @param callback 登记等待时的回调
+     */
+    public synchronized void unwatch(Consumer<RegistrySyncResult> callback) {
+        watchers.removeIf(watcher -> watcher.callback == callback);
+    }
+
+    /**
+     * 获取指定版本之后的增量，无变更时最多等待 timeoutMillis，等待期间占用当前线程.
+     *
+     * @param epoch         已同步的纪元
+     * @param sinceVersion  已同步的版本号
+     * @param timeoutMillis 最长等待时间（毫秒）
+     * @return 同步结果
+     * @throws InterruptedException 等待被中断
+     */
+    public synchronized RegistrySyncResult sync(long epoch, long sinceVersion, long timeoutMillis)
+            throws InterruptedException {
+        boolean sameEpoch = epoch == this.epoch && sinceVersion <= version;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (sameEpoch && sinceVersion == version) {
+            long waitMillis = deadline - System.currentTimeMillis();
+            if (waitMillis <= 0) {
+                break;
+            }
+            wait(waitMillis);
+        }
+        return poll(epoch, sinceVersion);
+    }
+
+    /**
+     * 获取指定版本之后的增量，不等待.
+     *
+     * @param epoch        已同步的纪元
+     * @param sinceVersion 已同步的版本号
+     * @return 同步结果，无变更时增量为空
+     */
+    public synchronized RegistrySyncResult poll(long epoch, long sinceVersion) {
+        boolean sameEpoch = epoch == this.epoch && sinceVersion <= version;
+        RegistrySyncResult result = new RegistrySyncResult();
+        result.setEpoch(this.epoch);
+        result.setVersion(version);
+        result.setAddList(new ArrayList<>());
+        result.setRemoveList(new ArrayList<>());
+
+        // 增量已淘汰或纪元不一致，返回全量
+        Change oldest = changes.peekFirst();
+        if (!sameEpoch || (sinceVersion < version && (oldest == null || oldest.version > sinceVersion + 1))) {
+            result.setFull(true);
+            result.getAddList().addAll(members);
+            return result;
+        }
+
+        for (Change change : changes) {
+            if (change.version > sinceVersion) {
+                (change.add ? result.getAddList() : result.getRemoveList()).add(change.registryParam);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 当前版本号
+     *
+     * @return 版本号
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * 当前在线的注册信息
+     *
+     * @return 注册信息副本
+     */
+    public synchronized List<RegistryParam> getMembers() {
+        return new ArrayList<>(members);
+    }
+
+    /**
+     * 记录增量，执行变更回调并唤醒等待的同步方，调用方需持有锁.
+     *
+     * @param change 增量
+     * @return 异步等待的同步方回调，由调用方释放锁后执行
+     */
+    private List<Runnable> append(Change change) {
+        changes.addLast(change);
+        while (changes.size() > capacity) {
+            changes.pollFirst();
+        }
+        if (changeListener != null) {
+            changeListener.accept(change.registryParam, change.add);
+        }
+        notifyAll();
+
+        List<Runnable> notifyList = new ArrayList<>(watchers.size());
+        for (Watcher watcher : watchers) {
+            RegistrySyncResult result = poll(epoch, watcher.sinceVersion);
+            notifyList.add(() -> watcher.callback.accept(result));
+        }
+        watchers.clear();
+        return notifyList;
+    }
+
+    /**
+     * 单条增量.
+     */
+    private static class Change {
+        private final long version;
+        private final RegistryParam registryParam;
+        private final boolean add;
+
+        Change(long version, RegistryParam registryParam, boolean add) {
+            this.version = version;
+            this.registryParam = registryParam;
+            this.add = add;
+        }
+    }
+
+    /**
+     * 等待增量的同步方.
+     */
+    private static class Watcher {
+        private final long sinceVersion;
+        private final Consumer<RegistrySyncResult> callback;
+
+        Watcher(long sinceVersion, Consumer<RegistrySyncResult> callback) {
+            this.sinceVersion = sinceVersion;
+            this.callback = callback;
+        }
+    }
+}
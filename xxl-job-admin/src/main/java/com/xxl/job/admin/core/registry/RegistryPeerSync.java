@@ -0,0 +1,106 @@
+package com.xxl.job.admin.core.registry;
+
+import com.xxl.job.core.biz.AdminBiz;
+import com.xxl.job.core.biz.model.RegistrySyncParam;
+import com.xxl.job.core.biz.model.RegistrySyncResult;
+import com.xxl.job.core.biz.model.ReturnT;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 调度中心之间的注册信息同步
+ * <p>
+ * 长轮询其他调度中心的注册信息增量并应用到本地变更日志；新增、移除已存在或不存在的注册信息时不会产生新版本，
+ * 多个调度中心互相同步时不会循环传播.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class RegistryPeerSync implements Runnable {
+
+    /**
+     * 长轮询等待时间（秒）.
+     */
+    public static final int SYNC_TIMEOUT = 30;
+    /**
+     * 同步失败后的重试间隔（秒）.
+     */
+    private static final int RETRY_INTERVAL = 3;
+
+    /**
+     * 其他调度中心.
+     */
+    private final AdminBiz peer;
+    /**
+     * 本地注册信息变更日志.
+     */
+    private final RegistryChangeLog changeLog;
+    /**
+     * 已同步的纪元，0表示未同步.
+     */
+    private long epoch = 0;
+    /**
+     * 已同步的版本号.
+     */
+    private long version = 0;
+    /**
+     * 尝试停止
+     */
+    private volatile boolean toStop = false;
+
+    /**
+     * 注册信息同步
+     *
+     * @param peer      其他调度中心
+     * @param changeLog 本地注册信息变更日志
+     */
+    public RegistryPeerSync(AdminBiz peer, RegistryChangeLog changeLog) {
+        this.peer = peer;
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public void run() {
+        while (!toStop) {
+            try {
+                syncOnce(SYNC_TIMEOUT);
+            } catch (Exception e) {
+                if (!toStop) {
+                    log.error(">>>>>>>>>>> xxl-job, registry peer sync error:{}", e);
+                    try {
+                        TimeUnit.SECONDS.sleep(RETRY_INTERVAL);
+                    } catch (InterruptedException ie) {
+                        if (!toStop) {
+                            log.error(ie.getMessage(), ie);
+                        }
+                    }
+                }
+            }
+        }
+        log.info(">>>>>>>>>>> xxl-job, registry peer sync stop");
+    }
+
+    /**
+     * 同步一次：获取已同步版本之后的增量并应用
+     *
+     * @param timeout 长轮询等待时间（秒）
+     */
+    public void syncOnce(int timeout) {
+        ReturnT<RegistrySyncResult> syncResult = peer.registrySync(new RegistrySyncParam(epoch, version, timeout));
+        if (syncResult == null || syncResult.getCode() != ReturnT.SUCCESS_CODE || syncResult.getContent() == null) {
+            throw new IllegalStateException("registry sync fail, result:" + syncResult);
+        }
+        RegistrySyncResult result = syncResult.getContent();
+        changeLog.apply(result);
+        epoch = result.getEpoch();
+        version = result.getVersion();
+    }
+
+    /**
+     * 停止
+     */
+    public void toStop() {
+        toStop = true;
+    }
+}
@@ -49,6 +49,10 @@ public enum ExecutorRouteStrategyEnum {
      * （忙碌转移）：按照顺序依次进行空闲检测，第一个空闲检测成功的机器选定为目标执行器并发起调度.
      */
     BUSYOVER(I18nUtil.getString("jobconf_route_busyover"), new ExecutorRouteBusyover()),
+    /**
+     * （最小负载）：按执行器心跳上报的负载状态，选择负载最小的机器.
+     */
+    LEAST_LOAD(I18nUtil.getString("jobconf_route_leastload"), new ExecutorRouteLeastLoad()),
     /**
      * (分片广播)：广播触发对应集群中所有机器执行一次任务，同时系统自动传递分片参数；可根据分片参数开发分片任务.
      */
@@ -0,0 +1,91 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import com.xxl.job.admin.core.route.ExecutorRouter;
+import com.xxl.job.admin.core.thread.JobRegistryHelper;
+import com.xxl.job.core.biz.model.ExecutorStatus;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * （最小负载）：随机选择两台机器，按执行器心跳上报的负载状态加上本调度中心此后已分发的调度数，
+ * 选择相对工作线程数负载较低的机器；任一机器未上报负载状态（负载未知）时随机选择其一.
+ * <p>
+ * 心跳间隔内负载状态不变，只比较上报值会使同一间隔内的调度集中到同一台机器，故累加心跳后本地分发的调度数.
+ * </p>
+ *
+ * @author smilesnake
+ */
+public class ExecutorRouteLeastLoad extends ExecutorRouter {
+
+  /**
+   * 最近一次心跳后本调度中心分发的调度数<执行器地址, 分发计数>，收到新的心跳后重新计数.
+   */
+  private final ConcurrentMap<String, DispatchCount> dispatchCountMap = new ConcurrentHashMap<>();
+
+  @Override
+  public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int index = random.nextInt(addressList.size());
+    String address = addressList.get(index);
+    if (addressList.size() > 1) {
+      int otherIndex = random.nextInt(addressList.size() - 1);
+      String other = addressList.get(otherIndex < index ? otherIndex : otherIndex + 1);
+      double load = load(address);
+      double otherLoad = load(other);
+      if (load >= 0 && otherLoad >= 0 && otherLoad < load) {
+        address = other;
+      }
+    }
+
+    DispatchCount dispatchCount = dispatchCountMap.get(address);
+    if (dispatchCount != null) {
+      dispatchCount.count.incrementAndGet();
+    }
+    return new ReturnT<>(address);
+  }
+
+  /**
+   * 估算负载：上报的正在执行与排队中的调度数，加上心跳后本地分发的调度数，相对工作线程数.
+   *
+   * @param address 执行器地址
+   * @return 负载，未上报负载状态时为-1
+   */
+  private double load(String address) {
+    ExecutorStatus status = JobRegistryHelper.getInstance().getExecutorStatus(address);
+    if (status == null) {
+      dispatchCountMap.remove(address);
+      return -1;
+    }
+    DispatchCount dispatchCount = dispatchCountMap.get(address);
+    if (dispatchCount == null || dispatchCount.beatTime != status.getBeatTime()) {
+      dispatchCount = new DispatchCount(status.getBeatTime());
+      dispatchCountMap.put(address, dispatchCount);
+    }
+    return (double) (status.load() + dispatchCount.count.get()) / Math.max(1, status.getWorkerCount());
+  }
+
+  /**
+   * 心跳后的分发计数.
+   */
+  private static class DispatchCount {
+
+    /**
+     * 计数起始的心跳时间
+     */
+    private final long beatTime;
+    /**
+     * 分发的调度数
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    DispatchCount(long beatTime) {
+      this.beatTime = beatTime;
+    }
+  }
+
+}
@@ -52,12 +52,18 @@ public class XxlJobScheduler {
         // 启动定时任务调度器（执行任务，缓存任务）
         JobScheduleHelper.getInstance().start();
 
+        // 执行日志实时推送中继
+        JobLogStreamHelper.getInstance().start();
+
         logger.info(">>>>>>>>> init xxl-job admin success.");
     }
 
 
     public void destroy() {
 
+        // 停止执行日志实时推送中继
+        JobLogStreamHelper.getInstance().toStop();
+
         // stop-schedule
         // 停止监听执行器在线状态
         JobScheduleHelper.getInstance().toStop();
@@ -8,6 +8,7 @@ import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -79,8 +80,11 @@ public class JobCompleteHelper {
           if (!CollectionUtils.isEmpty(losedJobIds)) {
             for (Long logId : losedJobIds) {
 
-              XxlJobLog jobLog = new XxlJobLog();
-              jobLog.setId(logId);
+              // 加载完整日志，调度时间用于累加日志统计
+              XxlJobLog jobLog = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().load(logId, null);
+              if (jobLog == null) {
+                continue;
+              }
 
               jobLog.setHandleTime(LocalDate.now());
               jobLog.setHandleCode(ReturnT.FAIL_CODE);
@@ -163,9 +167,13 @@ public class JobCompleteHelper {
    * @return 回调成功，ReturnT.SUCCESS，否则ReturnT.FAIL_CODE
    */
   private ReturnT<String> callback(HandleCallbackParam handleCallbackParam) {
-    // 验证任务日志项
+    // 验证任务日志项，按调度时间只查询对应分区；未命中时（如升级前的调度，调度时间含毫秒）按id加载
     XxlJobLog log = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
-        .load(handleCallbackParam.getLogId());
+        .load(handleCallbackParam.getLogId(), new Date(handleCallbackParam.getLogDateTim()));
+    if (log == null) {
+      log = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+          .load(handleCallbackParam.getLogId(), null);
+    }
     if (log == null) {
       return new ReturnT<>(ReturnT.FAIL_CODE, "log item not found.");
     }
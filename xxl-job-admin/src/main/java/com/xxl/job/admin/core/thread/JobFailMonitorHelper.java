@@ -54,7 +54,7 @@ public class JobFailMonitorHelper {
                             if (lockRet < 1) {
                                 continue;
                             }
-                            XxlJobLog log = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().load(failLogId);
+                            XxlJobLog log = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().load(failLogId, null);
                             XxlJobInfo info = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(log.getJobId());
 
                             // 1、失败重新监听
@@ -63,7 +63,7 @@ public class JobFailMonitorHelper {
                                 String retryMsg = "<br><br><span style=\"color:#F39C12;\" > >>>>>>>>>>>" + I18nUtil.getString("jobconf_trigger_type_retry") + "<<<<<<<<<<< </span><br>";
                                 log.setTriggerMsg(log.getTriggerMsg() + retryMsg);
                                 // 更新任务调度日志信息
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(log);
+                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDetailDao().saveTriggerMsg(log);
                             }
 
                             // 2、报警失败监听
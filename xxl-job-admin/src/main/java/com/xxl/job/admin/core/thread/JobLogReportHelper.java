@@ -3,16 +3,34 @@ package com.xxl.job.admin.core.thread;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobLogReport;
 import com.xxl.job.admin.core.model.extend.LogReportExt;
+import com.xxl.job.admin.core.util.LogPartitionUtil;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.context.XxlJobContext;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.CollectionUtils;
 
 /**
  * 任务日志统计帮助类
+ * <p>
+ * 调度、执行完成时累加内存中的按天增量计数，由统计线程每分钟以 "suc_count = suc_count + ?" 的方式刷新至 xxl_job_log_report；
+ * 并定期按日志表全量校准近几天的统计信息，修正宕机丢失或并发导致的计数偏差.
+ * </p>
+ * <p>
+ * 其他调度中心可能持有尚未刷新、但已体现在日志表中的增量，校准时覆盖统计信息会导致其刷新后重复累加；
+ * 故仅校准已稳定的日期：与上次校准时（间隔远大于刷新间隔）的全量统计一致，即期间没有调度、执行完成，不存在未刷新的增量.
+ * </p>
  *
  * @author xuxueli 2019-11-22
  */
@@ -28,6 +46,20 @@ public class JobLogReportHelper {
     return instance;
   }
 
+  /**
+   * 全量校准的间隔时间（毫秒）.
+   */
+  private static final long RECONCILE_INTERVAL = TimeUnit.HOURS.toMillis(1L);
+  /**
+   * 全量校准的天数（含今天）.
+   */
+  private static final int RECONCILE_DAYS = 3;
+
+  /**
+   * 上次校准时的全量统计<调度日期, [运行中, 成功, 失败]>，仅统计线程访问.
+   */
+  private final Map<LocalDate, int[]> reconcileSnapshotMap = new HashMap<>();
+
   /**
    * 统计日志线程.
    */
@@ -42,55 +74,75 @@ public class JobLogReportHelper {
 
       // 最后清理日志的时间
       long lastCleanLogTime = 0;
+      // 最后全量校准统计信息的时间，启动时先统计一次，稳定的日期在下次校准时弥补重启前未刷新的增量
+      long lastReconcileTime = 0;
+      // 最后预建日志分区的时间
+      long lastCreatePartitionTime = 0;
 
       while (!toStop) {
 
-        // 1、日志统计信息刷新：3天内刷新日志统计信息
+        // 1、日志统计信息刷新：累加内存中的增量计数
         try {
-          for (int i = 0; i < 3; i++) {
-            // today
-            LocalDateTime todayFrom = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-            LocalDateTime todayTo = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
-
-            // 每分钟刷新日志统计信息
-            XxlJobLogReport xxlJobLogReport = new XxlJobLogReport();
-            xxlJobLogReport.setTriggerDay(todayFrom);
-            LogReportExt logReportExt = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
-                .findLogReport(todayFrom, todayTo);
-            xxlJobLogReport.setRunningCount(logReportExt.getTriggerDayCountRunning());
-            xxlJobLogReport.setSucCount(logReportExt.getTriggerDayCountSuc());
-            xxlJobLogReport.setFailCount(logReportExt.getTriggerDayCountFail());
-
-            // 刷新统计信息
-            int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
-                .update(xxlJobLogReport);
-            if (ret < 1) {
-              XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao().save(xxlJobLogReport);
-            }
-          }
-
+          flushReportCounter();
         } catch (Exception e) {
           if (!toStop) {
             log.error(">>>>>>>>>>> xxl-job, job log report thread error:{}", e);
           }
         }
 
-        // 2、日志清理：开关打开（logRetentionDays > 0 ) 并且 每天一次
+        // 2、日志统计信息校准：每小时按日志表全量统计近3天的信息
+        if (System.currentTimeMillis() - lastReconcileTime > RECONCILE_INTERVAL) {
+          try {
+            reconcileLogReport();
+          } catch (Exception e) {
+            if (!toStop) {
+              log.error(">>>>>>>>>>> xxl-job, job log report thread error:{}", e);
+            }
+          }
+          lastReconcileTime = System.currentTimeMillis();
+        }
+
+        // 3、日志分区维护：分区模式下每小时预建分区
+        if (LogPartitionUtil.isEnabled()
+            && System.currentTimeMillis() - lastCreatePartitionTime > TimeUnit.HOURS.toMillis(1L)) {
+          try {
+            LogPartitionUtil.createPartitions();
+          } catch (Exception e) {
+            // 多个调度中心同时建分区时可能冲突，下次重试
+            if (!toStop) {
+              log.error(">>>>>>>>>>> xxl-job, job log partition create error:{}", e);
+            }
+          }
+          lastCreatePartitionTime = System.currentTimeMillis();
+        }
+
+        // 4、日志清理：开关打开（logRetentionDays > 0 ) 并且 每天一次
         if (XxlJobAdminConfig.getAdminConfig().getLogRetentionDays() > 0
             && System.currentTimeMillis() - lastCleanLogTime > TimeUnit.DAYS.toMillis(1L)) {
           // 过期时间
           LocalDateTime clearBeforeTime = LocalDateTime.now()
               .plusMonths(-1L * XxlJobAdminConfig.getAdminConfig().getLogRetentionDays());
 
-          // 清理过期日志
-          List<Long> logIds;
-          do {
-            logIds = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
-                .findClearLogIds(0, 0, clearBeforeTime, 0, 1000);
-            if (!CollectionUtils.isEmpty(logIds)) {
-              XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().clearLog(logIds);
+          if (LogPartitionUtil.isEnabled()) {
+            // 分区模式：删除整个过期分区，未满一个分区的过期日志保留至下个分区过期
+            try {
+              LogPartitionUtil.dropPartitions(clearBeforeTime);
+            } catch (Exception e) {
+              if (!toStop) {
+                log.error(">>>>>>>>>>> xxl-job, job log partition drop error:{}", e);
+              }
             }
-          } while (!CollectionUtils.isEmpty(logIds));
+          } else {
+            // 清理过期日志
+            List<Long> logIds;
+            do {
+              logIds = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+                  .findClearLogIds(0, 0, clearBeforeTime, 0, 1000);
+              if (!CollectionUtils.isEmpty(logIds)) {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().clearLog(logIds);
+              }
+            } while (!CollectionUtils.isEmpty(logIds));
+          }
 
           // 更新清理时间
           lastCleanLogTime = System.currentTimeMillis();
@@ -106,6 +158,13 @@ public class JobLogReportHelper {
 
       }
 
+      // 停止前刷新剩余的增量计数
+      try {
+        flushReportCounter();
+      } catch (Exception e) {
+        log.error(e.getMessage(), e);
+      }
+
       log.info(">>>>>>>>>>> xxl-job, job log report thread stop");
 
     });
@@ -128,4 +187,210 @@ public class JobLogReportHelper {
       Thread.currentThread().interrupt();
     }
   }
+
+  // ---------------------- report counter ----------------------
+
+  /**
+   * 日志统计增量计数<调度日期, 增量计数>.
+   */
+  private final ConcurrentMap<LocalDate, ReportCounter> reportCounterMap = new ConcurrentHashMap<>();
+
+  /**
+   * 记录一次调度.
+   *
+   * @param triggerTime 调度时间
+   * @param triggerCode 调度结果
+   */
+  public void countTrigger(Date triggerTime, int triggerCode) {
+    if (triggerTime == null) {
+      return;
+    }
+    ReportCounter delta = new ReportCounter();
+    delta.add(status(triggerCode, 0), 1);
+    count(toLocalDate(triggerTime), delta);
+  }
+
+  /**
+   * 记录一次执行结果变更.
+   *
+   * @param triggerTime   调度时间
+   * @param triggerCode   调度结果
+   * @param oldHandleCode 变更前的执行状态
+   * @param newHandleCode 变更后的执行状态
+   */
+  public void countHandle(Date triggerTime, int triggerCode, int oldHandleCode,
+      int newHandleCode) {
+    if (triggerTime == null) {
+      return;
+    }
+    ReportCounter delta = new ReportCounter();
+    delta.add(status(triggerCode, oldHandleCode), -1);
+    delta.add(status(triggerCode, newHandleCode), 1);
+    count(toLocalDate(triggerTime), delta);
+  }
+
+  /**
+   * 调度时间转调度日期.
+   *
+   * @param triggerTime 调度时间
+   * @return 调度日期
+   */
+  private static LocalDate toLocalDate(Date triggerTime) {
+    return triggerTime.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+  }
+
+  /**
+   * 累加增量计数.
+   *
+   * @param triggerDay 调度日期
+   * @param delta      增量
+   */
+  private void count(LocalDate triggerDay, ReportCounter delta) {
+    reportCounterMap.compute(triggerDay, (day, counter) -> {
+      if (counter == null) {
+        counter = new ReportCounter();
+      }
+      counter.merge(delta);
+      return counter;
+    });
+  }
+
+  /**
+   * 日志状态，与 XxlJobLogDao#findLogReport 的统计口径保持一致.
+   *
+   * @param triggerCode 调度结果
+   * @param handleCode  执行状态
+   * @return 0-运行中、1-成功、2-失败
+   */
+  private static int status(int triggerCode, int handleCode) {
+    if (handleCode == XxlJobContext.HANDLE_COCE_SUCCESS) {
+      return ReportCounter.SUC;
+    }
+    if ((triggerCode == 0 || triggerCode == ReturnT.SUCCESS_CODE) && handleCode == 0) {
+      return ReportCounter.RUNNING;
+    }
+    return ReportCounter.FAIL;
+  }
+
+  /**
+   * 刷新增量计数至 xxl_job_log_report.
+   */
+  private void flushReportCounter() {
+    for (LocalDate triggerDay : reportCounterMap.keySet()) {
+      // 取出并移除，刷新期间新增的计数写入新的计数对象
+      ReportCounter counter = reportCounterMap.remove(triggerDay);
+      if (counter == null || counter.isEmpty()) {
+        continue;
+      }
+
+      LocalDateTime triggerDayFrom = LocalDateTime.of(triggerDay, LocalTime.MIN);
+      try {
+        int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
+            .increment(triggerDayFrom, counter.running, counter.suc, counter.fail);
+        if (ret < 1) {
+          XxlJobLogReport xxlJobLogReport = new XxlJobLogReport();
+          xxlJobLogReport.setTriggerDay(triggerDayFrom);
+          xxlJobLogReport.setRunningCount(counter.running);
+          xxlJobLogReport.setSucCount(counter.suc);
+          xxlJobLogReport.setFailCount(counter.fail);
+          try {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao().save(xxlJobLogReport);
+          } catch (Exception e) {
+            // 其他调度中心已插入当天记录(唯一索引 i_trigger_day)，重新累加
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
+                .increment(triggerDayFrom, counter.running, counter.suc, counter.fail);
+          }
+        }
+      } catch (Exception e) {
+        // 刷新失败，计数放回，等待下次刷新
+        count(triggerDay, counter);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * 按日志表全量校准近几天的统计信息，仅覆盖与上次校准时全量统计一致（已稳定）的日期.
+   */
+  private void reconcileLogReport() {
+    // 先刷新增量，避免覆盖后重复累加
+    flushReportCounter();
+
+    Map<LocalDate, int[]> snapshotMap = new HashMap<>();
+    for (int i = 0; i < RECONCILE_DAYS; i++) {
+      LocalDate triggerDay = LocalDate.now().minusDays(i);
+      LocalDateTime todayFrom = LocalDateTime.of(triggerDay, LocalTime.MIN);
+      LocalDateTime todayTo = LocalDateTime.of(triggerDay, LocalTime.MAX);
+
+      XxlJobLogReport xxlJobLogReport = new XxlJobLogReport();
+      xxlJobLogReport.setTriggerDay(todayFrom);
+      LogReportExt logReportExt = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+          .findLogReport(todayFrom, todayTo);
+      if (logReportExt != null) {
+        xxlJobLogReport.setRunningCount(logReportExt.getTriggerDayCountRunning());
+        xxlJobLogReport.setSucCount(logReportExt.getTriggerDayCountSuc());
+        xxlJobLogReport.setFailCount(logReportExt.getTriggerDayCountFail());
+      }
+
+      // 与上次校准时不一致，期间有调度或执行完成，其他调度中心可能有未刷新的增量，下次再校准
+      int[] snapshot = {xxlJobLogReport.getRunningCount(), xxlJobLogReport.getSucCount(),
+          xxlJobLogReport.getFailCount()};
+      snapshotMap.put(triggerDay, snapshot);
+      if (!Arrays.equals(snapshot, reconcileSnapshotMap.get(triggerDay))) {
+        continue;
+      }
+
+      // 覆盖统计信息
+      int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
+          .update(xxlJobLogReport);
+      if (ret < 1) {
+        XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao().save(xxlJobLogReport);
+      }
+    }
+    reconcileSnapshotMap.clear();
+    reconcileSnapshotMap.putAll(snapshotMap);
+  }
+
+  /**
+   * 单日的增量计数，仅在 ConcurrentMap#compute 内修改.
+   */
+  private static class ReportCounter {
+
+    static final int RUNNING = 0;
+    static final int SUC = 1;
+    static final int FAIL = 2;
+
+    /**
+     * 运行中 - 日志数量增量.
+     */
+    private int running;
+    /**
+     * 执行成功 - 日志数量增量.
+     */
+    private int suc;
+    /**
+     * 执行失败 - 日志数量增量.
+     */
+    private int fail;
+
+    void add(int status, int num) {
+      if (status == RUNNING) {
+        running += num;
+      } else if (status == SUC) {
+        suc += num;
+      } else {
+        fail += num;
+      }
+    }
+
+    void merge(ReportCounter other) {
+      running += other.running;
+      suc += other.suc;
+      fail += other.fail;
+    }
+
+    boolean isEmpty() {
+      return running == 0 && suc == 0 && fail == 0;
+    }
+  }
 }
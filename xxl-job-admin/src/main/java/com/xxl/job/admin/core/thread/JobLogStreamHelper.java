@@ -0,0 +1,470 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.LogParam;
+import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.enums.BizUriEnum;
+import com.xxl.job.core.util.GsonTool;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 执行日志实时推送中继
+ * <p>
+ * 同一执行器上同一调度日志的所有查看者共用一个到执行器的日志流（SSE），执行日志推送给每个查看者；
+ * 每个查看者有界缓冲，读取慢的查看者被断开（页面回退为轮询），不阻塞日志流和其他查看者；
+ * 中途加入的查看者先按字节偏移拉取缺失的日志，再接收推送.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class JobLogStreamHelper {
+
+  private static JobLogStreamHelper instance = new JobLogStreamHelper();
+
+  public static JobLogStreamHelper getInstance() {
+    return instance;
+  }
+
+  /**
+   * 同时中继的日志流数上限.
+   */
+  private static final int MAX_RELAYS = 50;
+  /**
+   * 每个查看者缓冲的事件数上限，超出时断开该查看者.
+   */
+  private static final int SUBSCRIBER_QUEUE_SIZE = 64;
+  /**
+   * 查看者连接超时时间（毫秒）.
+   */
+  private static final long EMITTER_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+  /**
+   * 日志流读取超时时间（秒），大于执行器心跳间隔.
+   */
+  private static final int UPSTREAM_READ_TIMEOUT = 60;
+
+  /**
+   * 中继中的日志流<执行器地址#日志id, 中继>.
+   */
+  private final ConcurrentMap<String, LogRelay> relayMap = new ConcurrentHashMap<>();
+  /**
+   * 日志流读取线程池，每个日志流一个线程.
+   */
+  private ThreadPoolExecutor relayThreadPool;
+  /**
+   * 推送线程池.
+   */
+  private ThreadPoolExecutor sendThreadPool;
+  /**
+   * 是否停止
+   */
+  private volatile boolean toStop = false;
+
+  public void start() {
+    toStop = false;
+    relayThreadPool = new ThreadPoolExecutor(0, MAX_RELAYS, 60L, TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        r -> new Thread(r, "xxl-job, admin JobLogStreamHelper-relayThreadPool-" + r.hashCode()));
+    sendThreadPool = new ThreadPoolExecutor(10, 10, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        r -> new Thread(r, "xxl-job, admin JobLogStreamHelper-sendThreadPool-" + r.hashCode()));
+    sendThreadPool.allowCoreThreadTimeOut(true);
+  }
+
+  public void toStop() {
+    toStop = true;
+    for (LogRelay relay : relayMap.values()) {
+      relay.close();
+    }
+    if (relayThreadPool != null) {
+      relayThreadPool.shutdownNow();
+    }
+    if (sendThreadPool != null) {
+      sendThreadPool.shutdownNow();
+    }
+    log.info(">>>>>>>>>>> xxl-job, JobLogStreamHelper stop");
+  }
+
+  /**
+   * 订阅执行日志.
+   * <p>
+   * 推送事件：log，data 为 {@link LogResult}；end，日志已结束；fail，推送失败，data 为原因，页面需回退为轮询.
+   * </p>
+   *
+   * @param executorAddress 执行地址
+   * @param triggerTime     调度时间
+   * @param logId           日志id
+   * @param fromOffset      起始字节偏移
+   * @return 推送连接
+   */
+  public SseEmitter subscribe(String executorAddress, long triggerTime, long logId, long fromOffset) {
+    SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT);
+    Subscriber subscriber = new Subscriber(emitter, executorAddress, triggerTime, logId,
+        Math.max(fromOffset, 0));
+    if (toStop || relayThreadPool == null) {
+      subscriber.fail("log stream stopped.");
+      return emitter;
+    }
+
+    String key = executorAddress + "#" + logId;
+    while (true) {
+      LogRelay relay = relayMap.get(key);
+      if (relay == null) {
+        if (relayMap.size() >= MAX_RELAYS) {
+          subscriber.fail("log stream count exceeds limit(" + MAX_RELAYS + ").");
+          return emitter;
+        }
+        LogRelay newRelay = new LogRelay(key, executorAddress, triggerTime, logId, subscriber.offset);
+        relay = relayMap.putIfAbsent(key, newRelay);
+        if (relay == null) {
+          relay = newRelay;
+          relay.addSubscriber(subscriber);
+          try {
+            relayThreadPool.execute(relay);
+          } catch (RejectedExecutionException e) {
+            relay.broadcast(StreamEvent.ofFail("log stream count exceeds limit(" + MAX_RELAYS + ")."));
+            relay.close();
+          }
+          break;
+        }
+      }
+      if (relay.addSubscriber(subscriber)) {
+        break;
+      }
+      // 中继正在关闭
+      relayMap.remove(key, relay);
+    }
+    return emitter;
+  }
+
+  // ---------------------- relay ----------------------
+
+  /**
+   * 日志流中继：读取执行器的日志流，推送给所有查看者.
+   */
+  private class LogRelay implements Runnable {
+    private final String key;
+    private final String executorAddress;
+    private final long triggerTime;
+    private final long logId;
+    private final long fromOffset;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    /**
+     * 执行器日志流连接，由 this 保护.
+     */
+    private HttpURLConnection connection;
+    /**
+     * 是否已关闭，由 this 保护.
+     */
+    private boolean closed;
+
+    LogRelay(String key, String executorAddress, long triggerTime, long logId, long fromOffset) {
+      this.key = key;
+      this.executorAddress = executorAddress.endsWith("/") ? executorAddress : executorAddress + "/";
+      this.triggerTime = triggerTime;
+      this.logId = logId;
+      this.fromOffset = fromOffset;
+    }
+
+    synchronized boolean addSubscriber(Subscriber subscriber) {
+      if (closed) {
+        return false;
+      }
+      subscribers.add(subscriber);
+      subscriber.relay = this;
+      return true;
+    }
+
+    synchronized void removeSubscriber(Subscriber subscriber) {
+      subscribers.remove(subscriber);
+      if (subscribers.isEmpty()) {
+        close();
+      }
+    }
+
+    /**
+     * 关闭：断开执行器日志流，读取线程随之结束.
+     */
+    synchronized void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      relayMap.remove(key, this);
+      if (connection != null) {
+        connection.disconnect();
+      }
+    }
+
+    private synchronized boolean setConnection(HttpURLConnection connection) {
+      if (closed) {
+        connection.disconnect();
+        return false;
+      }
+      this.connection = connection;
+      return true;
+    }
+
+    void broadcast(StreamEvent event) {
+      for (Subscriber subscriber : subscribers) {
+        subscriber.offer(event);
+      }
+    }
+
+    @Override
+    public void run() {
+      boolean ended = false;
+      try {
+        HttpURLConnection upstream = XxlJobRemotingUtil.postStream(
+            executorAddress + BizUriEnum.LOG_STREAM.getUri(),
+            XxlJobAdminConfig.getAdminConfig().getAccessToken(), UPSTREAM_READ_TIMEOUT,
+            new LogParam(triggerTime, logId, 1, fromOffset));
+        if (!setConnection(upstream)) {
+          return;
+        }
+
+        // 解析事件流：event/data 行，空行结束一个事件，":" 开头为心跳
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(upstream.getInputStream(), StandardCharsets.UTF_8))) {
+          String eventName = null;
+          StringBuilder data = new StringBuilder();
+          String line;
+          while (!ended && (line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+              if ("log".equals(eventName)) {
+                broadcast(StreamEvent.ofLog(GsonTool.fromJson(data.toString(), LogResult.class)));
+              } else if ("end".equals(eventName)) {
+                broadcast(StreamEvent.ofEnd(Long.parseLong(data.toString().trim())));
+                ended = true;
+              }
+              eventName = null;
+              data.setLength(0);
+            } else if (line.startsWith(":")) {
+              broadcast(StreamEvent.PING);
+            } else if (line.startsWith("event:")) {
+              eventName = line.substring("event:".length()).trim();
+            } else if (line.startsWith("data:")) {
+              data.append(line.substring("data:".length()).trim());
+            }
+          }
+        }
+        if (!ended) {
+          broadcast(StreamEvent.ofFail("log stream closed by executor."));
+        }
+      } catch (IOException | RuntimeException e) {
+        synchronized (this) {
+          if (closed) {
+            return;
+          }
+        }
+        log.warn(">>>>>>>>>>> xxl-job, log stream fail, executorAddress:{}, logId:{}, error:{}",
+            executorAddress, logId, e.getMessage());
+        broadcast(StreamEvent.ofFail(e.getMessage()));
+      } finally {
+        close();
+      }
+    }
+  }
+
+  // ---------------------- subscriber ----------------------
+
+  /**
+   * 查看者：有界缓冲事件，由推送线程池逐个推送，同一查看者同一时刻只有一个推送任务.
+   */
+  private class Subscriber implements Runnable {
+    private final SseEmitter emitter;
+    private final String executorAddress;
+    private final long triggerTime;
+    private final long logId;
+    private final ArrayBlockingQueue<StreamEvent> eventQueue =
+        new ArrayBlockingQueue<>(SUBSCRIBER_QUEUE_SIZE);
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    /**
+     * 已推送到的字节偏移，仅由推送任务访问.
+     */
+    private long offset;
+    private volatile LogRelay relay;
+    private volatile boolean closed;
+
+    Subscriber(SseEmitter emitter, String executorAddress, long triggerTime, long logId,
+        long offset) {
+      this.emitter = emitter;
+      this.executorAddress = executorAddress;
+      this.triggerTime = triggerTime;
+      this.logId = logId;
+      this.offset = offset;
+      emitter.onCompletion(this::close);
+      emitter.onTimeout(this::close);
+      emitter.onError(e -> close());
+    }
+
+    void offer(StreamEvent event) {
+      if (closed) {
+        return;
+      }
+      if (!eventQueue.offer(event)) {
+        // 读取慢，断开，页面回退为轮询
+        log.info(">>>>>>>>>>> xxl-job, log stream subscriber too slow, logId:{}", logId);
+        close();
+        emitter.complete();
+        return;
+      }
+      if (scheduled.compareAndSet(false, true)) {
+        try {
+          sendThreadPool.execute(this);
+        } catch (RejectedExecutionException e) {
+          close();
+        }
+      }
+    }
+
+    /**
+     * 直接推送失败原因并结束，用于未加入中继时.
+     */
+    void fail(String msg) {
+      try {
+        emitter.send(SseEmitter.event().name("fail").data(msg));
+        emitter.complete();
+      } catch (IOException | IllegalStateException e) {
+        emitter.completeWithError(e);
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        StreamEvent event;
+        while (!closed && (event = eventQueue.poll()) != null) {
+          deliver(event);
+        }
+      } catch (IOException | IllegalStateException e) {
+        // 页面已断开
+        close();
+      } finally {
+        scheduled.set(false);
+      }
+      if (!closed && !eventQueue.isEmpty() && scheduled.compareAndSet(false, true)) {
+        try {
+          sendThreadPool.execute(this);
+        } catch (RejectedExecutionException e) {
+          close();
+        }
+      }
+    }
+
+    private void deliver(StreamEvent event) throws IOException {
+      switch (event.type) {
+        case LOG:
+          LogResult logResult = event.logResult;
+          if (logResult.getToOffset() <= offset) {
+            // 已推送
+            return;
+          }
+          if (logResult.getFromOffset() != offset) {
+            // 中途加入，先拉取缺失的日志
+            catchUp(logResult.getToOffset());
+            return;
+          }
+          sendLog(logResult);
+          return;
+        case END:
+          catchUp(event.endOffset);
+          emitter.send(SseEmitter.event().name("end").data(offset));
+          close();
+          emitter.complete();
+          return;
+        case FAIL:
+          emitter.send(SseEmitter.event().name("fail").data(event.msg));
+          close();
+          emitter.complete();
+          return;
+        default:
+          emitter.send(SseEmitter.event().comment("ping"));
+      }
+    }
+
+    /**
+     * 按字节偏移拉取日志直到目标偏移.
+     */
+    private void catchUp(long toOffset) throws IOException {
+      ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(executorAddress);
+      while (!closed && offset < toOffset && executorBiz != null) {
+        ReturnT<LogResult> logResult = executorBiz.log(new LogParam(triggerTime, logId, 1, offset));
+        if (logResult.getCode() != ReturnT.SUCCESS_CODE || logResult.getContent() == null
+            || logResult.getContent().getToOffset() <= offset) {
+          return;
+        }
+        sendLog(logResult.getContent());
+      }
+    }
+
+    private void sendLog(LogResult logResult) throws IOException {
+      emitter.send(SseEmitter.event().id(String.valueOf(logResult.getToOffset())).name("log")
+          .data(logResult, MediaType.APPLICATION_JSON));
+      offset = logResult.getToOffset();
+    }
+
+    private void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      eventQueue.clear();
+      LogRelay currentRelay = relay;
+      if (currentRelay != null) {
+        currentRelay.removeSubscriber(this);
+      }
+    }
+  }
+
+  /**
+   * 推送事件.
+   */
+  @AllArgsConstructor
+  private static class StreamEvent {
+    private static final StreamEvent PING = new StreamEvent(EventType.PING, null, 0, null);
+
+    private final EventType type;
+    private final LogResult logResult;
+    private final long endOffset;
+    private final String msg;
+
+    static StreamEvent ofLog(LogResult logResult) {
+      return new StreamEvent(EventType.LOG, logResult, 0, null);
+    }
+
+    static StreamEvent ofEnd(long endOffset) {
+      return new StreamEvent(EventType.END, null, endOffset, null);
+    }
+
+    static StreamEvent ofFail(String msg) {
+      return new StreamEvent(EventType.FAIL, null, 0, msg);
+    }
+  }
+
+  private enum EventType {
+    LOG, END, FAIL, PING
+  }
+}
@@ -3,19 +3,37 @@ package com.xxl.job.admin.core.thread;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.core.registry.GroupAddressListener;
+import com.xxl.job.admin.core.registry.RegistryChangeLog;
+import com.xxl.job.admin.core.registry.RegistryPeerSync;
+import com.xxl.job.core.biz.client.AdminBizClient;
+import com.xxl.job.core.biz.model.ExecutorStatus;
 import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.biz.model.RegistrySyncParam;
+import com.xxl.job.core.biz.model.RegistrySyncResult;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.enums.RegistryConfig;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.async.DeferredResult;
 
 /**
  * 任务注册监听器帮助类实例
@@ -39,11 +57,74 @@ public class JobRegistryHelper {
    * 删除线程.
    */
   private Thread registryMonitorThread;
+  /**
+   * 心跳刷新线程.
+   */
+  private Thread registryBeatThread;
   /**
    * 尝试停止
    */
   private volatile boolean toStop = false;
 
+  /**
+   * 自动注册执行器的地址视图<执行器id, 在线地址>，与 xxl_job_group.address_list 一致.
+   */
+  private final ConcurrentMap<Integer, String> groupAddressView = new ConcurrentHashMap<>();
+  /**
+   * 地址视图版本号，每次地址变更递增.
+   */
+  private final AtomicLong groupAddressVersion = new AtomicLong();
+  /**
+   * 执行器地址变更订阅者.
+   */
+  private final List<GroupAddressListener> groupAddressListeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * 心跳刷新间隔（秒）：心跳先合并在内存中，定期批量刷新 update_time，
+   * 刷新延迟 + 心跳间隔仍小于 DEAD_TIMEOUT，各调度中心对在线状态的判断保持一致.
+   */
+  private static final int BEAT_FLUSH_INTERVAL = RegistryConfig.BEAT_TIMEOUT / 3;
+  /**
+   * 批量刷新心跳的每批数量.
+   */
+  private static final int BEAT_FLUSH_BATCH_SIZE = 500;
+
+  /**
+   * 已写入的注册信息<注册信息, 最近一次心跳时间>，仅包含 registryGroup、registryKey、registryValue.
+   */
+  private final ConcurrentMap<XxlJobRegistry, Long> knownRegistryMap = new ConcurrentHashMap<>();
+  /**
+   * 待刷新的心跳<注册信息, 最近一次心跳时间>.
+   */
+  private final ConcurrentMap<XxlJobRegistry, Long> pendingBeatMap = new ConcurrentHashMap<>();
+
+  /**
+   * 执行器最近一次心跳上报的负载状态<执行器地址, 负载状态>，仅保存在接收心跳的调度中心.
+   */
+  private final ConcurrentMap<String, ExecutorStatus> executorStatusMap = new ConcurrentHashMap<>();
+
+  /**
+   * 保留的注册信息增量数量，同步方落后更多时返回全量.
+   */
+  private static final int REGISTRY_CHANGE_CAPACITY = 10000;
+  /**
+   * 注册信息变更日志：注册、移除、数据库校准时生成增量，供其他调度中心长轮询同步.
+   */
+  private final RegistryChangeLog registryChangeLog = new RegistryChangeLog(REGISTRY_CHANGE_CAPACITY,
+      this::onRegistryChange);
+  /**
+   * 自动注册的执行器<appname, 执行器列表>，每轮地址刷新时更新，用于增量变更时定位执行器.
+   */
+  private volatile Map<String, List<XxlJobGroup>> appnameGroupMap = Collections.emptyMap();
+  /**
+   * 与其他调度中心的注册信息同步.
+   */
+  private final List<RegistryPeerSync> registryPeerSyncList = new ArrayList<>();
+  /**
+   * 注册信息同步线程.
+   */
+  private final List<Thread> registryPeerSyncThreads = new ArrayList<>();
+
   /**
    * start，任务启动，帮助刷新注册上来的服务信息，即appname、address等
    */
@@ -75,47 +156,73 @@ public class JobRegistryHelper {
             if (ids != null && ids.size() > 0) {
               XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().removeDead(ids);
             }
+            long statusDeadTime = System.currentTimeMillis()
+                - TimeUnit.SECONDS.toMillis(RegistryConfig.DEAD_TIMEOUT);
+            executorStatusMap.values().removeIf(status -> status.getBeatTime() < statusDeadTime);
+
+            Map<String, List<XxlJobGroup>> newAppnameGroupMap = new HashMap<>();
+            for (XxlJobGroup group : groupList) {
+              newAppnameGroupMap.computeIfAbsent(group.getAppname(), k -> new ArrayList<>())
+                  .add(group);
+            }
+            appnameGroupMap = newAppnameGroupMap;
 
             // fresh online address (admin/executor)
-            // 刷新在线的地址（系统执行器）
-            HashMap<String, List<String>> appAddressMap = new HashMap<String, List<String>>();
+            // 刷新在线的地址（系统执行器）：数据库中在线的注册信息，加上本调度中心已写入、仍有心跳的注册信息（可能尚未刷新）
+            List<RegistryParam> liveList = new ArrayList<>();
             List<XxlJobRegistry> list = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
                 .findAll(RegistryConfig.DEAD_TIMEOUT, new Date());
             if (list != null) {
               for (XxlJobRegistry item : list) {
-                if (RegistryConfig.RegistryType.EXECUTOR.name().equals(item.getRegistryGroup())) {
-                  String appname = item.getRegistryKey();
-                  List<String> registryList = appAddressMap.get(appname);
-                  if (registryList == null) {
-                    registryList = new ArrayList<String>();
-                  }
-                  //	不存在注册的服务器url地址直接添加
-                  if (!registryList.contains(item.getRegistryValue())) {
-                    registryList.add(item.getRegistryValue());
-                  }
-                  appAddressMap.put(appname, registryList);
+                liveList.add(new RegistryParam(item.getRegistryGroup(), item.getRegistryKey(),
+                    item.getRegistryValue()));
+              }
+            }
+            for (XxlJobRegistry item : knownRegistryMap.keySet()) {
+              liveList.add(new RegistryParam(item.getRegistryGroup(), item.getRegistryKey(),
+                  item.getRegistryValue()));
+            }
+            registryChangeLog.reset(liveList);
+
+            HashMap<String, List<String>> appAddressMap = new HashMap<String, List<String>>();
+            for (RegistryParam item : registryChangeLog.getMembers()) {
+              if (RegistryConfig.RegistryType.EXECUTOR.name().equals(item.getRegistryGroup())) {
+                String appname = item.getRegistryKey();
+                List<String> registryList = appAddressMap.get(appname);
+                if (registryList == null) {
+                  registryList = new ArrayList<String>();
                 }
+                //	不存在注册的服务器url地址直接添加
+                if (!registryList.contains(item.getRegistryValue())) {
+                  registryList.add(item.getRegistryValue());
+                }
+                appAddressMap.put(appname, registryList);
               }
             }
 
             // fresh group address
-            // 刷新执行器地址信息
+            // 刷新执行器地址信息：仅地址变化时写入，并通知订阅者
+            Set<Integer> groupIds = new HashSet<>();
             for (XxlJobGroup group : groupList) {
-              List<String> registryList = appAddressMap.get(group.getAppname());
-              String addressListStr = null;
-              if (registryList != null && !registryList.isEmpty()) {
-                Collections.sort(registryList);
-                StringBuilder addressListSB = new StringBuilder();
-                for (String item : registryList) {
-                  addressListSB.append(item).append(",");
-                }
-                addressListStr = addressListSB.toString();
-                addressListStr = addressListStr.substring(0, addressListStr.length() - 1);
+              groupIds.add(group.getId());
+              String addressListStr = toAddressList(appAddressMap.get(group.getAppname()));
+
+              // 与已持久化的地址一致时不再写入（其他调度中心可能已写入）
+              if (!Objects.equals(addressListStr, group.getAddressList())) {
+                group.setAddressList(addressListStr);
+                group.setUpdateTime(new Date());
+                XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().update(group);
               }
-              group.setAddressList(addressListStr);
-              group.setUpdateTime(new Date());
 
-              XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().update(group);
+              // 与内存地址视图不一致时，更新视图版本号并通知订阅者
+              freshGroupAddressView(group);
+            }
+
+            // 已删除或改为手动录入的执行器移出地址视图，并通知订阅者
+            for (Integer groupId : new ArrayList<>(groupAddressView.keySet())) {
+              if (!groupIds.contains(groupId)) {
+                removeGroupAddressView(groupId);
+              }
             }
           }
         } catch (Exception e) {
@@ -136,6 +243,44 @@ public class JobRegistryHelper {
     registryMonitorThread.setDaemon(true);
     registryMonitorThread.setName("xxl-job, admin JobRegistryMonitorHelper-registryMonitorThread");
     registryMonitorThread.start();
+
+    // for beat flush
+    registryBeatThread = new Thread(() -> {
+      while (!toStop) {
+        try {
+          TimeUnit.SECONDS.sleep(BEAT_FLUSH_INTERVAL);
+        } catch (InterruptedException e) {
+          if (!toStop) {
+            log.error(">>>>>>>>>>> xxl-job, job registry beat thread error:{}", e);
+          }
+        }
+        try {
+          flushBeat();
+        } catch (Exception e) {
+          if (!toStop) {
+            log.error(">>>>>>>>>>> xxl-job, job registry beat thread error:{}", e);
+          }
+        }
+      }
+      log.info(">>>>>>>>>>> xxl-job, job registry beat thread stop");
+    });
+    registryBeatThread.setDaemon(true);
+    registryBeatThread.setName("xxl-job, admin JobRegistryMonitorHelper-registryBeatThread");
+    registryBeatThread.start();
+
+    // for peer sync
+    String accessToken = XxlJobAdminConfig.getAdminConfig().getAccessToken();
+    for (String peerAddress : XxlJobAdminConfig.getAdminConfig().getRegistryPeers()) {
+      RegistryPeerSync peerSync = new RegistryPeerSync(
+          new AdminBizClient(peerAddress, accessToken), registryChangeLog);
+      Thread peerSyncThread = new Thread(peerSync);
+      peerSyncThread.setDaemon(true);
+      peerSyncThread.setName("xxl-job, admin JobRegistryMonitorHelper-registryPeerSyncThread-"
+          + peerAddress);
+      peerSyncThread.start();
+      registryPeerSyncList.add(peerSync);
+      registryPeerSyncThreads.add(peerSyncThread);
+    }
   }
 
   /**
@@ -144,6 +289,22 @@ public class JobRegistryHelper {
   public void toStop() {
     toStop = true;
 
+    // stop peer sync (interrupt, long-poll request will time out)
+    for (RegistryPeerSync peerSync : registryPeerSyncList) {
+      peerSync.toStop();
+    }
+    for (Thread peerSyncThread : registryPeerSyncThreads) {
+      peerSyncThread.interrupt();
+    }
+
+    // stop beat flush (interrupt and wait, flush remaining beats)
+    registryBeatThread.interrupt();
+    try {
+      registryBeatThread.join();
+    } catch (InterruptedException e) {
+      log.error(e.getMessage(), e);
+    }
+
     // stop registryOrRemoveThreadPool
     registryOrRemoveThreadPool.shutdownNow();
 
@@ -173,19 +334,26 @@ public class JobRegistryHelper {
       return new ReturnT<>(ReturnT.FAIL_CODE, "Illegal Argument.");
     }
 
-    // 异步执行, 更新时间，不存在则添加，然后刷新注册信息
+    // 在线注册信息，已存在时忽略
+    registryChangeLog.add(new RegistryParam(registryParam.getRegistryGroup(),
+        registryParam.getRegistryKey(), registryParam.getRegistryValue()));
+
+    // 已写入的注册信息，合并心跳，等待批量刷新
+    XxlJobRegistry registry = toRegistry(registryParam);
+    long beatTime = System.currentTimeMillis();
+    if (registryParam.getStatus() != null) {
+      registryParam.getStatus().setBeatTime(beatTime);
+      executorStatusMap.put(registryParam.getRegistryValue(), registryParam.getStatus());
+    }
+    if (knownRegistryMap.replace(registry, beatTime) != null) {
+      pendingBeatMap.put(registry, beatTime);
+      return ReturnT.SUCCESS;
+    }
+
+    // 新注册信息，异步执行, 更新时间，不存在则添加，然后刷新注册信息
     registryOrRemoveThreadPool.execute(() -> {
-      int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
-          .registryUpdate(registryParam.getRegistryGroup(), registryParam.getRegistryKey(),
-              registryParam.getRegistryValue(), new Date());
-      if (ret < 1) {
-        XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
-            .registrySave(registryParam.getRegistryGroup(), registryParam.getRegistryKey(),
-                registryParam.getRegistryValue(), new Date());
-
-        // 刷新注册信息
-        freshGroupRegistryInfo(registryParam);
-      }
+      registryUpdateOrSave(registry, new Date());
+      knownRegistryMap.put(registry, beatTime);
     });
 
     return ReturnT.SUCCESS;
@@ -206,7 +374,13 @@ public class JobRegistryHelper {
       return new ReturnT<String>(ReturnT.FAIL_CODE, "Illegal Argument.");
     }
 
-    // 删除注册信息
+    // 删除注册信息，并丢弃未刷新的心跳
+    XxlJobRegistry registry = toRegistry(registryParam);
+    knownRegistryMap.remove(registry);
+    pendingBeatMap.remove(registry);
+    executorStatusMap.remove(registryParam.getRegistryValue());
+    registryChangeLog.remove(new RegistryParam(registryParam.getRegistryGroup(),
+        registryParam.getRegistryKey(), registryParam.getRegistryValue()));
     registryOrRemoveThreadPool.execute(new Runnable() {
       @Override
       public void run() {
@@ -223,6 +397,299 @@ public class JobRegistryHelper {
     return ReturnT.SUCCESS;
   }
 
+  /**
+   * 更新注册信息的时间，不存在则添加，然后刷新注册信息
+   *
+   * @param registry   注册信息
+   * @param updateTime 更新时间
+   */
+  private void registryUpdateOrSave(XxlJobRegistry registry, Date updateTime) {
+    int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
+        .registryUpdate(registry.getRegistryGroup(), registry.getRegistryKey(),
+            registry.getRegistryValue(), updateTime);
+    if (ret < 1) {
+      XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
+          .registrySave(registry.getRegistryGroup(), registry.getRegistryKey(),
+              registry.getRegistryValue(), updateTime);
+
+      // 刷新注册信息
+      RegistryParam registryParam = new RegistryParam(registry.getRegistryGroup(),
+          registry.getRegistryKey(), registry.getRegistryValue());
+      freshGroupRegistryInfo(registryParam);
+    }
+  }
+
+  /**
+   * 批量刷新合并的心跳
+   * <p>
+   * 每批的更新时间取该批最早的心跳时间，不会延长注册信息的在线时间；
+   * 更新行数不足时（注册信息已被其他调度中心判定死亡并移除），该批逐条更新，不存在则重新添加.
+   * </p>
+   */
+  private void flushBeat() {
+    // 取出待刷新的心跳
+    List<XxlJobRegistry> batch = new ArrayList<>();
+    long batchBeatTime = Long.MAX_VALUE;
+    for (XxlJobRegistry registry : pendingBeatMap.keySet()) {
+      Long beatTime = pendingBeatMap.remove(registry);
+      if (beatTime == null) {
+        continue;
+      }
+      batch.add(registry);
+      batchBeatTime = Math.min(batchBeatTime, beatTime);
+
+      if (batch.size() >= BEAT_FLUSH_BATCH_SIZE) {
+        flushBeatBatch(batch, new Date(batchBeatTime));
+        batch = new ArrayList<>();
+        batchBeatTime = Long.MAX_VALUE;
+      }
+    }
+    if (!batch.isEmpty()) {
+      flushBeatBatch(batch, new Date(batchBeatTime));
+    }
+
+    // 清理长时间无心跳的注册信息，重新上线时按新注册信息处理
+    long deadTime = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(RegistryConfig.DEAD_TIMEOUT);
+    knownRegistryMap.entrySet().removeIf(entry -> entry.getValue() < deadTime);
+  }
+
+  /**
+   * 批量刷新一批心跳
+   *
+   * @param batch      注册信息
+   * @param updateTime 更新时间
+   */
+  private void flushBeatBatch(List<XxlJobRegistry> batch, Date updateTime) {
+    int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
+        .registryUpdateBatch(batch, updateTime);
+    if (ret < batch.size()) {
+      for (XxlJobRegistry registry : batch) {
+        // 刷新期间已移除的注册信息不再添加
+        if (knownRegistryMap.containsKey(registry)) {
+          registryUpdateOrSave(registry, updateTime);
+        }
+      }
+    }
+  }
+
+  /**
+   * 注册参数转换为注册信息（作为心跳合并的key）
+   *
+   * @param registryParam 注册参数
+   * @return 注册信息
+   */
+  private static XxlJobRegistry toRegistry(RegistryParam registryParam) {
+    XxlJobRegistry registry = new XxlJobRegistry();
+    registry.setRegistryGroup(registryParam.getRegistryGroup());
+    registry.setRegistryKey(registryParam.getRegistryKey());
+    registry.setRegistryValue(registryParam.getRegistryValue());
+    return registry;
+  }
+
+  /**
+   * 同步注册信息：返回指定版本之后的增量，无变更时阻塞等待；远程api请求使用 {@link #registrySyncAsync}
+   *
+   * @param registrySyncParam 同步参数
+   * @return 同步结果
+   */
+  public ReturnT<RegistrySyncResult> registrySync(RegistrySyncParam registrySyncParam) {
+    int timeout = Math.max(0, Math.min(registrySyncParam.getTimeout(), RegistryPeerSync.SYNC_TIMEOUT));
+    try {
+      return new ReturnT<>(registryChangeLog.sync(registrySyncParam.getEpoch(),
+          registrySyncParam.getVersion(), TimeUnit.SECONDS.toMillis(timeout)));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new ReturnT<>(ReturnT.FAIL_CODE, "registry sync interrupted.");
+    }
+  }
+
+  /**
+   * 异步同步注册信息：返回指定版本之后的增量，无变更时登记等待，不占用请求线程
+   *
+   * @param registrySyncParam 同步参数
+   * @return 同步结果，有变更或等待超时时完成
+   */
+  public DeferredResult<ReturnT<RegistrySyncResult>> registrySyncAsync(
+      RegistrySyncParam registrySyncParam) {
+    int timeout = Math.max(0, Math.min(registrySyncParam.getTimeout(), RegistryPeerSync.SYNC_TIMEOUT));
+    long epoch = registrySyncParam.getEpoch();
+    long version = registrySyncParam.getVersion();
+    if (timeout == 0) {
+      DeferredResult<ReturnT<RegistrySyncResult>> deferredResult = new DeferredResult<>();
+      deferredResult.setResult(new ReturnT<>(registryChangeLog.poll(epoch, version)));
+      return deferredResult;
+    }
+
+    DeferredResult<ReturnT<RegistrySyncResult>> deferredResult = new DeferredResult<>(
+        TimeUnit.SECONDS.toMillis(timeout));
+    Consumer<RegistrySyncResult> callback = result -> deferredResult.setResult(new ReturnT<>(result));
+    deferredResult.onTimeout(() -> {
+      registryChangeLog.unwatch(callback);
+      deferredResult.setResult(new ReturnT<>(registryChangeLog.poll(epoch, version)));
+    });
+    deferredResult.onCompletion(() -> registryChangeLog.unwatch(callback));
+    registryChangeLog.watch(epoch, version, callback);
+    return deferredResult;
+  }
+
+  /**
+   * 注册信息变更（本地注册、移除或其他调度中心同步）时，将增量应用到对应执行器的内存地址视图
+   * <p>
+   * 在变更日志的锁内按版本顺序执行；地址视图尚未加载的执行器由下一轮地址刷新加载.
+   * </p>
+   *
+   * @param registryParam 变更的注册信息
+   * @param add           true，新增，否则，移除
+   */
+  private void onRegistryChange(RegistryParam registryParam, boolean add) {
+    if (!RegistryConfig.RegistryType.EXECUTOR.name().equals(registryParam.getRegistryGroup())) {
+      return;
+    }
+    List<XxlJobGroup> groups = appnameGroupMap.get(registryParam.getRegistryKey());
+    if (groups == null) {
+      return;
+    }
+
+    String address = registryParam.getRegistryValue();
+    for (XxlJobGroup group : groups) {
+      String addressList = groupAddressView.get(group.getId());
+      if (addressList == null) {
+        continue;
+      }
+      List<String> registryList = StringUtils.hasText(addressList)
+          ? new ArrayList<>(Arrays.asList(addressList.split(","))) : new ArrayList<>();
+      boolean changed = add ? !registryList.contains(address) && registryList.add(address)
+          : registryList.remove(address);
+      if (!changed) {
+        continue;
+      }
+
+      XxlJobGroup viewGroup = new XxlJobGroup();
+      viewGroup.setId(group.getId());
+      viewGroup.setAppname(group.getAppname());
+      viewGroup.setTitle(group.getTitle());
+      viewGroup.setAddressType(group.getAddressType());
+      viewGroup.setAddressList(toAddressList(registryList));
+      viewGroup.setUpdateTime(group.getUpdateTime());
+      freshGroupAddressView(viewGroup);
+    }
+  }
+
+  /**
+   * 在线地址排序后拼接
+   *
+   * @param registryList 在线地址
+   * @return 逗号分隔的地址，无在线地址时为null
+   */
+  private static String toAddressList(List<String> registryList) {
+    if (registryList == null || registryList.isEmpty()) {
+      return null;
+    }
+    Collections.sort(registryList);
+    return String.join(",", registryList);
+  }
+
+  /**
+   * 刷新执行器的内存地址视图，地址变化时递增版本号并通知订阅者
+   *
+   * @param group 执行器信息，addressList 为最新在线地址
+   */
+  private void freshGroupAddressView(XxlJobGroup group) {
+    String newAddressList = group.getAddressList() != null ? group.getAddressList() : "";
+    String oldAddressList = groupAddressView.put(group.getId(), newAddressList);
+    if (newAddressList.equals(oldAddressList)) {
+      return;
+    }
+
+    notifyGroupAddressListeners(group, oldAddressList);
+  }
+
+  /**
+   * 执行器移出内存地址视图，递增版本号并通知订阅者
+   *
+   * @param groupId 已删除或改为手动录入的执行器id
+   */
+  private void removeGroupAddressView(int groupId) {
+    String oldAddressList = groupAddressView.remove(groupId);
+    if (oldAddressList == null) {
+      return;
+    }
+    XxlJobGroup group = new XxlJobGroup();
+    group.setId(groupId);
+    notifyGroupAddressListeners(group, oldAddressList);
+  }
+
+  /**
+   * 递增地址视图版本号并通知订阅者
+   *
+   * @param group          执行器信息，addressList 为最新在线地址
+   * @param oldAddressList 变更前的在线地址
+   */
+  private void notifyGroupAddressListeners(XxlJobGroup group, String oldAddressList) {
+    long version = groupAddressVersion.incrementAndGet();
+    for (GroupAddressListener listener : groupAddressListeners) {
+      try {
+        listener.onChange(group, StringUtils.hasText(oldAddressList) ? oldAddressList : null,
+            version);
+      } catch (Exception e) {
+        log.error(">>>>>>>>>>> xxl-job, group address listener error:{}", e);
+      }
+    }
+  }
+
+  /**
+   * 订阅执行器地址变更
+   *
+   * @param listener 订阅者
+   */
+  public void addGroupAddressListener(GroupAddressListener listener) {
+    groupAddressListeners.add(listener);
+  }
+
+  /**
+   * 取消订阅执行器地址变更
+   *
+   * @param listener 订阅者
+   */
+  public void removeGroupAddressListener(GroupAddressListener listener) {
+    groupAddressListeners.remove(listener);
+  }
+
+  /**
+   * 地址视图版本号
+   *
+   * @return 版本号，地址未加载时为0
+   */
+  public long getGroupAddressVersion() {
+    return groupAddressVersion.get();
+  }
+
+  /**
+   * 自动注册执行器的在线地址
+   *
+   * @param groupId 执行器id
+   * @return 在线地址（逗号分隔），无在线地址或不在地址视图中时为null
+   */
+  public String getGroupAddressList(int groupId) {
+    String addressList = groupAddressView.get(groupId);
+    return StringUtils.hasText(addressList) ? addressList : null;
+  }
+
+  /**
+   * 执行器最近一次上报的负载状态
+   *
+   * @param address 执行器地址
+   * @return 负载状态，未上报或已超过 DEAD_TIMEOUT 未上报时为null
+   */
+  public ExecutorStatus getExecutorStatus(String address) {
+    ExecutorStatus status = executorStatusMap.get(address);
+    if (status == null || status.getBeatTime()
+        < System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(RegistryConfig.DEAD_TIMEOUT)) {
+      return null;
+    }
+    return status;
+  }
+
   /**
    * 刷新注册信息
    *
@@ -1,9 +1,16 @@
 package com.xxl.job.admin.core.thread;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobGroup;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
 import com.xxl.job.admin.enums.TriggerTypeEnum;
 import com.xxl.job.admin.core.trigger.XxlJobTrigger;
+import com.xxl.job.core.biz.model.GlueParam;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.glue.GlueTypeEnum;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.CollectionUtils;
 
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -127,6 +134,41 @@ public class JobTriggerPoolHelper {
         });
     }
 
+    /**
+     * 通知执行器预编译GLUE源码，执行器后台编译，源码更新后的首次调度无需等待编译.
+     *
+     * @param jobInfo 任务信息
+     */
+    public void addGlueCompile(final XxlJobInfo jobInfo) {
+        if (GlueTypeEnum.GLUE_GROOVY != GlueTypeEnum.match(jobInfo.getGlueType())) {
+            return;
+        }
+        GlueParam glueParam = new GlueParam(jobInfo.getId(), jobInfo.getGlueType(), jobInfo.getGlueSource(),
+                jobInfo.getGlueUpdatetime().getTime());
+        try {
+            fastTriggerPool.execute(() -> {
+                XxlJobGroup group = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(jobInfo.getJobGroup());
+                if (group == null || CollectionUtils.isEmpty(group.getRegistryList())) {
+                    return;
+                }
+                for (String address : group.getRegistryList()) {
+                    try {
+                        ReturnT<String> compileResult = XxlJobScheduler.getExecutorBiz(address).glueCompile(glueParam);
+                        if (compileResult.getCode() != ReturnT.SUCCESS_CODE) {
+                            log.warn(">>>>>>>>>>> xxl-job glue compile fail, jobId:{}, address:{}, msg:{}",
+                                    jobInfo.getId(), address, compileResult.getMsg());
+                        }
+                    } catch (Exception e) {
+                        log.warn(">>>>>>>>>>> xxl-job glue compile fail, jobId:{}, address:{}", jobInfo.getId(), address, e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 未通知时在调度时编译
+            log.warn(">>>>>>>>>>> xxl-job glue compile rejected, jobId:{}", jobInfo.getId());
+        }
+    }
+
 
     // ---------------------- helper ----------------------
     private static JobTriggerPoolHelper helper = new JobTriggerPoolHelper();
@@ -159,4 +201,13 @@ public class JobTriggerPoolHelper {
         helper.addTrigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList);
     }
 
+    /**
+     * 通知执行器预编译GLUE源码.
+     *
+     * @param jobInfo 任务信息
+     */
+    public static void glueCompile(XxlJobInfo jobInfo) {
+        helper.addGlueCompile(jobInfo);
+    }
+
 }
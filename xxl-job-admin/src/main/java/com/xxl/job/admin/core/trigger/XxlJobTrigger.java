@@ -6,12 +6,16 @@ import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
 import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
 import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.thread.JobLogReportHelper;
+import com.xxl.job.admin.core.thread.JobRegistryHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.enums.TriggerTypeEnum;
 import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.ExecutorStatus;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.remote.TriggerParam;
 import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+import com.xxl.job.core.util.DigestUtil;
 import com.xxl.job.core.util.IpUtil;
 import com.xxl.job.core.util.ThrowableUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -60,6 +64,12 @@ public class XxlJobTrigger {
     if (addressList != null && addressList.trim().length() > 0) {
       group.setAddressType(1);
       group.setAddressList(addressList.trim());
+    } else if (group.getAddressType() == 0) {
+      // 自动注册：优先使用内存地址视图（含其他调度中心同步的增量），避免等待下一轮地址刷新
+      String viewAddressList = JobRegistryHelper.getInstance().getGroupAddressList(group.getId());
+      if (viewAddressList != null) {
+        group.setAddressList(viewAddressList);
+      }
     }
 
     // sharding param
@@ -131,7 +141,8 @@ public class XxlJobTrigger {
     XxlJobLog jobLog = new XxlJobLog();
     jobLog.setJobGroup(jobInfo.getJobGroup());
     jobLog.setJobId(jobInfo.getId());
-    jobLog.setTriggerTime(new Date());
+    // 调度时间为日志主键之一，取整到秒，与datetime列保存的值一致
+    jobLog.setTriggerTime(new Date(System.currentTimeMillis() / 1000 * 1000));
     XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().save(jobLog);
     log.debug(">>>>>>>>>>> xxl-job trigger start, jobId:{}", jobLog.getId());
 
@@ -142,10 +153,15 @@ public class XxlJobTrigger {
     triggerParam.setExecutorParams(jobInfo.getExecutorParam());
     triggerParam.setExecutorBlockStrategy(jobInfo.getExecutorBlockStrategy());
     triggerParam.setExecutorTimeout(jobInfo.getExecutorTimeout());
+    triggerParam.setExecutorParallelism(
+        jobInfo.getExecutorParallelism() != null ? jobInfo.getExecutorParallelism() : 1);
     triggerParam.setLogId(jobLog.getId());
     triggerParam.setLogDateTime(jobLog.getTriggerTime().getTime());
     triggerParam.setGlueType(jobInfo.getGlueType());
     triggerParam.setGlueSource(jobInfo.getGlueSource());
+    if (jobInfo.getGlueSource() != null && !jobInfo.getGlueSource().isEmpty()) {
+      triggerParam.setGlueHash(DigestUtil.md5Hex(jobInfo.getGlueSource()));
+    }
     triggerParam.setGlueUpdatetime(jobInfo.getGlueUpdatetime().getTime());
     triggerParam.setBroadcastIndex(index);
     triggerParam.setBroadcastTotal(total);
@@ -176,6 +192,13 @@ public class XxlJobTrigger {
     // 4、调度远程执行器
     ReturnT<String> triggerResult = null;
     if (address != null) {
+      // 执行器支持时GLUE源码只传MD5，本地缓存未命中时再通过 api/glueSource 加载；否则（如旧版本执行器）仍携带源码
+      if (triggerParam.getGlueHash() != null) {
+        ExecutorStatus executorStatus = JobRegistryHelper.getInstance().getExecutorStatus(address);
+        if (executorStatus != null && executorStatus.isGlueHash()) {
+          triggerParam.setGlueSource(null);
+        }
+      }
       triggerResult = runExecutor(triggerParam, address);
     } else {
       triggerResult = new ReturnT<>(ReturnT.FAIL_CODE, null);
@@ -200,6 +223,10 @@ public class XxlJobTrigger {
     }
     triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorBlockStrategy"))
         .append("：").append(blockStrategy.getTitle());
+    if (ExecutorBlockStrategyEnum.CONCURRENT == blockStrategy) {
+      triggerMsgSb.append("(").append(I18nUtil.getString("jobinfo_field_executorParallelism"))
+          .append("：").append(triggerParam.getExecutorParallelism()).append(")");
+    }
     triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_timeout")).append("：")
         .append(jobInfo.getExecutorTimeout());
     triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorFailRetryCount"))
@@ -220,6 +247,9 @@ public class XxlJobTrigger {
     jobLog.setTriggerCode(triggerResult.getCode());
     jobLog.setTriggerMsg(triggerMsgSb.toString());
     XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(jobLog);
+    XxlJobAdminConfig.getAdminConfig().getXxlJobLogDetailDao().saveTriggerMsg(jobLog);
+    // 累加调度统计
+    JobLogReportHelper.getInstance().countTrigger(jobLog.getTriggerTime(), jobLog.getTriggerCode());
 
     log.debug(">>>>>>>>>>> xxl-job trigger end, jobId:{}", jobLog.getId());
   }
@@ -246,6 +276,10 @@ public class XxlJobTrigger {
     runResultSB.append("<br>address：").append(address);
     runResultSB.append("<br>code：").append(runResult.getCode());
     runResultSB.append("<br>msg：").append(runResult.getMsg());
+    // 执行器背压，记录原因，按调度失败重试
+    if (runResult.getCode() == ReturnT.BACK_PRESSURE_CODE) {
+      runResultSB.append("<br>").append(I18nUtil.getString("jobconf_trigger_back_pressure"));
+    }
 
     runResult.setMsg(runResultSB.toString());
     return runResult;
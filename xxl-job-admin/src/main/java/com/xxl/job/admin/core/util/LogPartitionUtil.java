@@ -0,0 +1,169 @@
+package com.xxl.job.admin.core.util;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.extend.LogPartitionExt;
+import com.xxl.job.admin.enums.LogPartitionType;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * 日志表分区维护工具类.
+ * <p>
+ * 分区模式下 xxl_job_log、xxl_job_log_detail 按 trigger_time 做 RANGE COLUMNS 分区（迁移脚本见 doc/db/tables_xxl_job_log_partition.sql），
+ * 按配置的分区粒度预建分区，过期日志直接删除整个分区，代替按日志id分批删除.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class LogPartitionUtil {
+    private LogPartitionUtil() {
+    }
+
+    /**
+     * 分区的日志表，分区保持一致.
+     */
+    private static final String[] LOG_TABLES = {"xxl_job_log", "xxl_job_log_detail"};
+    /**
+     * 兜底分区的上界.
+     */
+    private static final String MAXVALUE = "MAXVALUE";
+    /**
+     * 分区上界格式，与 information_schema.PARTITIONS.PARTITION_DESCRIPTION 一致.
+     */
+    private static final DateTimeFormatter BOUND_FORMATTER = DateTimeFormatter
+            .ofPattern("''yyyy-MM-dd HH:mm:ss''");
+
+    /**
+     * 是否开启分区模式.
+     *
+     * @return true，开启，否则，未开启
+     */
+    public static boolean isEnabled() {
+        return XxlJobAdminConfig.getAdminConfig().getLogPartitionType() != LogPartitionType.NONE;
+    }
+
+    /**
+     * 预建分区：从已有分区的最大上界开始，补齐至当前时间之后 aheadNum 个分区.
+     */
+    public static void createPartitions() {
+        for (String tableName : LOG_TABLES) {
+            createPartitions(tableName);
+        }
+    }
+
+    /**
+     * 删除上界不晚于指定时间的分区，分区内日志全部早于该时间.
+     *
+     * @param clearBeforeTime 清理之前时间
+     * @return 删除的分区数量
+     */
+    public static int dropPartitions(LocalDateTime clearBeforeTime) {
+        int dropNum = 0;
+        for (String tableName : LOG_TABLES) {
+            dropNum += dropPartitions(tableName, clearBeforeTime);
+        }
+        return dropNum;
+    }
+
+    /**
+     * 预建指定日志表的分区.
+     *
+     * @param tableName 日志表名称
+     */
+    private static void createPartitions(String tableName) {
+        LogPartitionType partitionType = XxlJobAdminConfig.getAdminConfig().getLogPartitionType();
+        List<LogPartitionExt> partitions = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+                .findPartitions(tableName);
+        if (CollectionUtils.isEmpty(partitions)) {
+            log.warn(">>>>>>>>>>> xxl-job, table {} is not partitioned, please run the migration script first.", tableName);
+            return;
+        }
+
+        // 已有分区的最大上界、兜底分区
+        LocalDateTime maxBound = null;
+        String maxValuePartitionName = null;
+        for (LogPartitionExt partition : partitions) {
+            LocalDateTime bound = parseBound(partition.getPartitionDescription());
+            if (bound == null) {
+                maxValuePartitionName = partition.getPartitionName();
+            } else if (maxBound == null || bound.isAfter(maxBound)) {
+                maxBound = bound;
+            }
+        }
+
+        // 待新建的分区
+        LocalDateTime periodStart = partitionType.periodStart(maxBound != null ? maxBound : LocalDateTime.now());
+        LocalDateTime aheadBound = partitionType.periodStart(LocalDateTime.now());
+        for (int i = 0; i < partitionType.getAheadNum(); i++) {
+            aheadBound = partitionType.nextPeriod(aheadBound);
+        }
+        List<LogPartitionExt> newPartitions = new ArrayList<>();
+        while (periodStart.isBefore(aheadBound)) {
+            LocalDateTime periodEnd = partitionType.nextPeriod(periodStart);
+            newPartitions.add(new LogPartitionExt(partitionType.partitionName(periodStart),
+                    BOUND_FORMATTER.format(periodEnd)));
+            periodStart = periodEnd;
+        }
+        if (newPartitions.isEmpty()) {
+            return;
+        }
+
+        // 存在兜底分区时只能拆分兜底分区
+        if (maxValuePartitionName != null) {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+                    .reorganizeMaxPartition(tableName, maxValuePartitionName, newPartitions);
+        } else {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().addPartitions(tableName, newPartitions);
+        }
+        log.info(">>>>>>>>>>> xxl-job, {} partitions created:{}", tableName, newPartitions);
+    }
+
+    /**
+     * 删除指定日志表的过期分区.
+     *
+     * @param tableName       日志表名称
+     * @param clearBeforeTime 清理之前时间
+     * @return 删除的分区数量
+     */
+    private static int dropPartitions(String tableName, LocalDateTime clearBeforeTime) {
+        List<LogPartitionExt> partitions = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+                .findPartitions(tableName);
+        if (CollectionUtils.isEmpty(partitions)) {
+            return 0;
+        }
+
+        List<String> dropPartitionNames = new ArrayList<>();
+        for (LogPartitionExt partition : partitions) {
+            LocalDateTime bound = parseBound(partition.getPartitionDescription());
+            if (bound != null && !bound.isAfter(clearBeforeTime)) {
+                dropPartitionNames.add(partition.getPartitionName());
+            }
+        }
+        // 分区表至少保留一个分区
+        if (dropPartitionNames.isEmpty() || dropPartitionNames.size() == partitions.size()) {
+            return 0;
+        }
+
+        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().dropPartitions(tableName, dropPartitionNames);
+        log.info(">>>>>>>>>>> xxl-job, {} partitions dropped:{}", tableName, dropPartitionNames);
+        return dropPartitionNames.size();
+    }
+
+    /**
+     * 解析分区上界.
+     *
+     * @param partitionDescription 分区上界，如 '2020-10-20 00:00:00'
+     * @return 分区上界，MAXVALUE 返回null
+     */
+    private static LocalDateTime parseBound(String partitionDescription) {
+        if (partitionDescription == null || MAXVALUE.equalsIgnoreCase(partitionDescription.trim())) {
+            return null;
+        }
+        return LocalDateTime.parse(partitionDescription.trim(), BOUND_FORMATTER);
+    }
+}
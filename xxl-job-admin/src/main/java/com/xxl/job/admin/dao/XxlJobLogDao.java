@@ -1,6 +1,7 @@
 package com.xxl.job.admin.dao;
 
 import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.model.extend.LogPartitionExt;
 import com.xxl.job.admin.core.model.extend.LogReportExt;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -20,43 +21,52 @@ public interface XxlJobLogDao {
   // exist jobId not use jobGroup, not exist use jobGroup
 
   /**
-   * 分页
+   * 分页，按 (trigger_time, id) 倒序
+   * <p>
+   * 指定游标（上一页最后一条日志的调度时间、id）时按游标续查（keyset），忽略 offset，避免深分页扫描.
+   * </p>
    *
-   * @param offset           页码
-   * @param pageSize         页面大小
-   * @param jobGroup         任务执行器
-   * @param jobId            任务id
-   * @param triggerTimeStart 调度开始时间
-   * @param triggerTimeEnd   调度结束时间
-   * @param logStatus        日志状态
+   * @param offset            页码
+   * @param pageSize          页面大小
+   * @param jobGroup          任务执行器
+   * @param jobId             任务id
+   * @param triggerTimeStart  调度开始时间
+   * @param triggerTimeEnd    调度结束时间
+   * @param logStatus         日志状态
+   * @param cursorTriggerTime 游标：上一页最后一条日志的调度时间，为空时按 offset 分页
+   * @param cursorId          游标：上一页最后一条日志的id
    * @return 任务日志分页信息
    */
   List<XxlJobLog> pageList(@Param("offset") int offset, @Param("pageSize") int pageSize,
       @Param("jobGroup") int jobGroup, @Param("jobId") int jobId,
       @Param("triggerTimeStart") Date triggerTimeStart,
-      @Param("triggerTimeEnd") Date triggerTimeEnd, @Param("logStatus") int logStatus);
+      @Param("triggerTimeEnd") Date triggerTimeEnd, @Param("logStatus") int logStatus,
+      @Param("cursorTriggerTime") Date cursorTriggerTime, @Param("cursorId") long cursorId);
 
   /**
-   * 分页总数量
+   * 分页总数量，最多统计 maxCount 条
    *
    * @param jobGroup         任务执行器
    * @param jobId            任务id
    * @param triggerTimeStart 调度开始时间
    * @param triggerTimeEnd   调度结束时间
    * @param logStatus        日志状态
-   * @return 分页总数量
+   * @param maxCount         最大统计数量
+   * @return 分页总数量，超过 maxCount 时返回 maxCount
    */
   int pageListCount(@Param("jobGroup") int jobGroup, @Param("jobId") int jobId,
       @Param("triggerTimeStart") Date triggerTimeStart,
-      @Param("triggerTimeEnd") Date triggerTimeEnd, @Param("logStatus") int logStatus);
+      @Param("triggerTimeEnd") Date triggerTimeEnd, @Param("logStatus") int logStatus,
+      @Param("maxCount") int maxCount);
 
   /**
    * 根据任务id加载任务日志.
    *
-   * @param id 任务id
+   * @param id          任务id
+   * @param triggerTime 调度时间，不为空时一并过滤，日志表分区时只查询对应分区
    * @return 任务日志
    */
-  XxlJobLog load(@Param("id") long id);
+  XxlJobLog load(@Param("id") long id, @Param("triggerTime") Date triggerTime);
 
   /**
    * 保存.
@@ -67,7 +77,7 @@ public interface XxlJobLogDao {
   long save(XxlJobLog xxlJobLog);
 
   /**
-   * 更新调度任务的日志信息
+   * 更新调度任务的日志信息，按主键（id、调度时间）更新，调度时间不变
    *
    * @param xxlJobLog 任务日志信息
    * @return 影响的行数
@@ -75,15 +85,15 @@ public interface XxlJobLogDao {
   int updateTriggerInfo(XxlJobLog xxlJobLog);
 
   /**
-   * 更新处理信息
+   * 更新处理信息，按主键（id、调度时间）更新，仅更新未完成（handle_code = 0）的日志，保证同一调度只被结束一次
    *
    * @param xxlJobLog 任务日志
-   * @return 影响行数
+   * @return 影响行数，日志已完成时为0
    */
   int updateHandleInfo(XxlJobLog xxlJobLog);
 
   /**
-   * 通过任务id删除任务日志
+   * 通过任务id删除任务日志（含日志详情）
    *
    * @param jobId 任务id
    * @return 影响的行数
@@ -115,7 +125,7 @@ public interface XxlJobLogDao {
       @Param("clearBeforeNum") int clearBeforeNum, @Param("pageSize") int pageSize);
 
   /**
-   * 清理日志（批量删除）
+   * 清理日志（批量删除，含日志详情）
    *
    * @param logIds 日志id列表
    * @return 影响的行数
@@ -149,4 +159,44 @@ public interface XxlJobLogDao {
    */
   List<Long> findLostJobIds(@Param("losedTime") LocalDateTime losedTime);
 
+  /**
+   * 查询日志表的分区（按分区顺序）
+   *
+   * @param tableName 日志表名称：xxl_job_log、xxl_job_log_detail
+   * @return 分区信息，未分区时为空
+   */
+  List<LogPartitionExt> findPartitions(@Param("tableName") String tableName);
+
+  /**
+   * 新增分区（日志表不存在兜底分区时）
+   *
+   * @param tableName  日志表名称
+   * @param partitions 分区信息
+   * @return 影响的行数
+   */
+  int addPartitions(@Param("tableName") String tableName,
+      @Param("partitions") List<LogPartitionExt> partitions);
+
+  /**
+   * 拆分兜底分区（VALUES LESS THAN MAXVALUE）为新分区和兜底分区
+   *
+   * @param tableName        日志表名称
+   * @param maxPartitionName 兜底分区名称
+   * @param partitions       新分区信息
+   * @return 影响的行数
+   */
+  int reorganizeMaxPartition(@Param("tableName") String tableName,
+      @Param("maxPartitionName") String maxPartitionName,
+      @Param("partitions") List<LogPartitionExt> partitions);
+
+  /**
+   * 删除分区（连同分区内的日志）
+   *
+   * @param tableName      日志表名称
+   * @param partitionNames 分区名称
+   * @return 影响的行数
+   */
+  int dropPartitions(@Param("tableName") String tableName,
+      @Param("partitionNames") List<String> partitionNames);
+
 }
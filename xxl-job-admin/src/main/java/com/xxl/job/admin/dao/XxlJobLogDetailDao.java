@@ -0,0 +1,34 @@
+package com.xxl.job.admin.dao;
+
+import com.xxl.job.admin.core.model.XxlJobLog;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 任务日志详情（调度日志、执行日志等大字段） mapper层
+ * <p>
+ * 与 xxl_job_log 按日志id一对一，调度、告警等状态扫描只访问 xxl_job_log；
+ * 日志的删除随 xxl_job_log 一并进行，见 XxlJobLogDao#delete、XxlJobLogDao#clearLog.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Mapper
+public interface XxlJobLogDetailDao {
+
+  /**
+   * 保存调度日志（不存在时新增）
+   *
+   * @param xxlJobLog 任务日志，需包含日志id、调度时间、调度日志
+   * @return 影响的行数
+   */
+  int saveTriggerMsg(XxlJobLog xxlJobLog);
+
+  /**
+   * 保存执行日志（不存在时新增）
+   *
+   * @param xxlJobLog 任务日志，需包含日志id、调度时间、执行日志
+   * @return 影响的行数
+   */
+  int saveHandleMsg(XxlJobLog xxlJobLog);
+
+}
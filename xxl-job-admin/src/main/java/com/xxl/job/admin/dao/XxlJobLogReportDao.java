@@ -4,6 +4,7 @@ import com.xxl.job.admin.core.model.XxlJobLogReport;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 
@@ -31,6 +32,19 @@ public interface XxlJobLogReportDao {
    */
   int update(XxlJobLogReport xxlJobLogReport);
 
+  /**
+   * 累加日志报告的数量.
+   *
+   * @param triggerDay   调度日期
+   * @param runningCount 运行中-日志数量增量
+   * @param sucCount     执行成功-日志数量增量
+   * @param failCount    执行失败-日志数量增量
+   * @return 影响的行数
+   */
+  int increment(@Param("triggerDay") LocalDateTime triggerDay,
+      @Param("runningCount") int runningCount, @Param("sucCount") int sucCount,
+      @Param("failCount") int failCount);
+
   /**
    * 查询指定时间内的调用日志.
    *
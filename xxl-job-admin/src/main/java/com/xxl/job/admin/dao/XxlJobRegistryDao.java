@@ -56,6 +56,16 @@ public interface XxlJobRegistryDao {
       @Param("registryKey") String registryKey, @Param("registryValue") String registryValue,
       @Param("updateTime") Date updateTime);
 
+  /**
+   * 批量更新注册信息的时间（合并的心跳）.
+   *
+   * @param registryList 注册信息，仅使用 registryGroup、registryKey、registryValue
+   * @param updateTime   更新的时间
+   * @return 影响的行数
+   */
+  int registryUpdateBatch(@Param("registryList") List<XxlJobRegistry> registryList,
+      @Param("updateTime") Date updateTime);
+
   /**
    * 保存注册信息.
    *
@@ -0,0 +1,83 @@
+package com.xxl.job.admin.enums;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 日志分区类型（xxl_job_log 按 trigger_time 范围分区）
+ *
+ * @author smilesnake
+ */
+@Getter
+@AllArgsConstructor
+public enum LogPartitionType {
+
+    /**
+     * 不分区，按日志id分批删除过期日志
+     */
+    NONE("none", null, 0),
+    /**
+     * 按天分区，预建7天
+     */
+    DAY("day", DateTimeFormatter.ofPattern("'p'yyyyMMdd"), 7),
+    /**
+     * 按月分区，预建2个月
+     */
+    MONTH("month", DateTimeFormatter.ofPattern("'p'yyyyMM"), 2);
+
+    /**
+     * 配置值
+     */
+    private String key;
+    /**
+     * 分区名称格式，以分区起始时间命名
+     */
+    private DateTimeFormatter nameFormatter;
+    /**
+     * 预建的分区数量
+     */
+    private int aheadNum;
+
+    /**
+     * 分区起始时间
+     *
+     * @param time 时间
+     * @return 所在分区的起始时间
+     */
+    public LocalDateTime periodStart(LocalDateTime time) {
+        LocalDateTime dayStart = LocalDateTime.of(time.toLocalDate(), LocalTime.MIN);
+        return this == MONTH ? dayStart.withDayOfMonth(1) : dayStart;
+    }
+
+    /**
+     * 下一个分区的起始时间
+     *
+     * @param periodStart 分区起始时间
+     * @return 下一个分区的起始时间
+     */
+    public LocalDateTime nextPeriod(LocalDateTime periodStart) {
+        return this == MONTH ? periodStart.plusMonths(1) : periodStart.plusDays(1);
+    }
+
+    /**
+     * 分区名称
+     *
+     * @param periodStart 分区起始时间
+     * @return 分区名称，如 p20201019、p202010
+     */
+    public String partitionName(LocalDateTime periodStart) {
+        return nameFormatter.format(periodStart);
+    }
+
+    public static LogPartitionType match(String key) {
+        for (LogPartitionType item : LogPartitionType.values()) {
+            if (item.key.equalsIgnoreCase(key)) {
+                return item;
+            }
+        }
+        return NONE;
+    }
+}
@@ -1,12 +1,18 @@
 package com.xxl.job.admin.service.impl;
 
+import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.thread.JobCompleteHelper;
 import com.xxl.job.admin.core.thread.JobRegistryHelper;
+import com.xxl.job.admin.dao.XxlJobInfoDao;
 import com.xxl.job.core.biz.AdminBiz;
+import com.xxl.job.core.biz.model.GlueParam;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.biz.model.RegistrySyncParam;
+import com.xxl.job.core.biz.model.RegistrySyncResult;
 import com.xxl.job.core.biz.model.ReturnT;
 import java.util.List;
+import javax.annotation.Resource;
 import org.springframework.stereotype.Service;
 
 /**
@@ -17,6 +23,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class AdminBizImpl implements AdminBiz {
 
+  @Resource
+  private XxlJobInfoDao xxlJobInfoDao;
 
   @Override
   public ReturnT<String> callback(List<HandleCallbackParam> callbackParamList) {
@@ -32,4 +40,19 @@ public class AdminBizImpl implements AdminBiz {
   public ReturnT<String> registryRemove(RegistryParam registryParam) {
     return JobRegistryHelper.getInstance().registryRemove(registryParam);
   }
+
+  @Override
+  public ReturnT<RegistrySyncResult> registrySync(RegistrySyncParam registrySyncParam) {
+    return JobRegistryHelper.getInstance().registrySync(registrySyncParam);
+  }
+
+  @Override
+  public ReturnT<GlueParam> glueSource(GlueParam glueParam) {
+    XxlJobInfo jobInfo = xxlJobInfoDao.loadById(glueParam.getJobId());
+    if (jobInfo == null) {
+      return new ReturnT<>(ReturnT.FAIL_CODE, "job [" + glueParam.getJobId() + "] not found.");
+    }
+    return new ReturnT<>(new GlueParam(jobInfo.getId(), jobInfo.getGlueType(), jobInfo.getGlueSource(),
+        jobInfo.getGlueUpdatetime().getTime()));
+  }
 }
@@ -156,6 +156,9 @@ public class XxlJobServiceImpl implements XxlJobService {
           (I18nUtil.getString("jobinfo_field_executorBlockStrategy") + I18nUtil
               .getString("system_unvalid")));
     }
+    if (jobInfo.getExecutorParallelism() == null || jobInfo.getExecutorParallelism() < 1) {
+      jobInfo.setExecutorParallelism(1);
+    }
 
     // ChildJobId valid
     // 子任务id验证
@@ -274,6 +277,9 @@ public class XxlJobServiceImpl implements XxlJobService {
           (I18nUtil.getString("jobinfo_field_executorBlockStrategy") + I18nUtil
               .getString("system_unvalid")));
     }
+    if (jobInfo.getExecutorParallelism() == null || jobInfo.getExecutorParallelism() < 1) {
+      jobInfo.setExecutorParallelism(1);
+    }
 
     //子任务验证
     if (jobInfo.getChildJobId() != null && jobInfo.getChildJobId().trim().length() > 0) {
@@ -355,6 +361,7 @@ public class XxlJobServiceImpl implements XxlJobService {
     existsJobInfo.setExecutorBlockStrategy(jobInfo.getExecutorBlockStrategy());
     existsJobInfo.setExecutorTimeout(jobInfo.getExecutorTimeout());
     existsJobInfo.setExecutorFailRetryCount(jobInfo.getExecutorFailRetryCount());
+    existsJobInfo.setExecutorParallelism(jobInfo.getExecutorParallelism());
     existsJobInfo.setChildJobId(jobInfo.getChildJobId());
     existsJobInfo.setTriggerNextTime(nextTriggerTime);
 
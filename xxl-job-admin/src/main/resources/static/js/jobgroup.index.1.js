@@ -126,7 +126,20 @@ $(function() {
 		var html = '<div>';
 		if (row.registryList) {
 			for (var index in row.registryList) {
-				html += (parseInt(index)+1) + '. <span class="badge bg-green" >' + row.registryList[index] + '</span><br>';
+				var address = row.registryList[index];
+				html += (parseInt(index)+1) + '. <span class="badge bg-green" >' + address + '</span><br>';
+
+				// executor status, reported with registry beat
+				var status = row.executorStatus ? row.executorStatus[address] : null;
+				if (status) {
+					html += '<small style="color:#777;" >'
+						+ I18n.jobgroup_status_running + ' ' + status.runningCount + '/' + status.workerCount
+						+ ' , ' + I18n.jobgroup_status_queued + ' ' + status.queuedCount
+						+ ' , ' + I18n.jobgroup_status_callback + ' ' + status.callbackQueueSize
+						+ ' , ' + I18n.jobgroup_status_heap + ' ' + Math.round(status.heapUsed/1048576) + '/' + Math.round(status.heapMax/1048576) + 'MB'
+						+ (status.systemLoad >= 0 ? ' , ' + I18n.jobgroup_status_load + ' ' + status.systemLoad.toFixed(2) + '/' + status.processors : '')
+						+ '</small><br>';
+				}
 			}
 		}
 		html += '</div>';
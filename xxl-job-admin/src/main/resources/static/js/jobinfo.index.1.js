@@ -443,6 +443,11 @@ $(function() {
                 executorFailRetryCount = 0;
             }
             $("#addModal .form input[name='executorFailRetryCount']").val(executorFailRetryCount);
+            var executorParallelism = $("#addModal .form input[name='executorParallelism']").val();
+            if(!/^\d+$/.test(executorParallelism) || executorParallelism < 1) {
+                executorParallelism = 1;
+            }
+            $("#addModal .form input[name='executorParallelism']").val(executorParallelism);
 
             // process schedule_conf
 			var scheduleType = $("#addModal .form select[name='scheduleType']").val();
@@ -576,6 +581,7 @@ $(function() {
 		$('#updateModal .form select[name=executorBlockStrategy] option[value='+ row.executorBlockStrategy +']').prop('selected', true);
 		$("#updateModal .form input[name='executorTimeout']").val( row.executorTimeout );
         $("#updateModal .form input[name='executorFailRetryCount']").val( row.executorFailRetryCount );
+        $("#updateModal .form input[name='executorParallelism']").val( row.executorParallelism );
 
 		// show
 		$('#updateModal').modal({backdrop: false, keyboard: false}).modal('show');
@@ -625,6 +631,11 @@ $(function() {
                 executorFailRetryCount = 0;
             }
             $("#updateModal .form input[name='executorFailRetryCount']").val(executorFailRetryCount);
+            var executorParallelism = $("#updateModal .form input[name='executorParallelism']").val();
+            if(!/^\d+$/.test(executorParallelism) || executorParallelism < 1) {
+                executorParallelism = 1;
+            }
+            $("#updateModal .form input[name='executorParallelism']").val(executorParallelism);
 
 
 			// process schedule_conf
@@ -731,6 +742,7 @@ $(function() {
 		$('#addModal .form select[name=executorBlockStrategy] option[value='+ row.executorBlockStrategy +']').prop('selected', true);
 		$("#addModal .form input[name='executorTimeout']").val( row.executorTimeout );
 		$("#addModal .form input[name='executorFailRetryCount']").val( row.executorFailRetryCount );
+		$("#addModal .form input[name='executorParallelism']").val( row.executorParallelism );
 
 		// show
 		$('#addModal').modal({backdrop: false, keyboard: false}).modal('show');
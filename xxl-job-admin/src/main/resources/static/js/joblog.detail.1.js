@@ -9,16 +9,20 @@ $(function() {
 
     // pull log
     var fromLineNum = 1;    // [from, to], start as 1
+    var fromOffset = -1;    // byte offset cursor, -1 means by fromLineNum
     var pullFailCount = 0;
+    var maxPullPage = 10;   // max pages pulled in a round
     function pullLog() {
         // pullFailCount, max=20
         if (pullFailCount++ > 20) {
             logRunStop('<span style="color: red;">'+ I18n.joblog_rolling_log_failoften +'</span>');
-            return;
+            return false;
         }
 
         // load
-        console.log("pullLog, fromLineNum:" + fromLineNum);
+        console.log("pullLog, fromLineNum:" + fromLineNum + ", fromOffset:" + fromOffset);
+
+        var hasMore = false;
 
         $.ajax({
             type : 'POST',
@@ -28,7 +32,8 @@ $(function() {
                 "executorAddress":executorAddress,
                 "triggerTime":triggerTime,
                 "logId":logId,
-                "fromLineNum":fromLineNum
+                "fromLineNum":fromLineNum,
+                "fromOffset":fromOffset
             },
             dataType : "json",
             success : function(data){
@@ -38,11 +43,11 @@ $(function() {
                         console.log('pullLog fail');
                         return;
                     }
-                    if (fromLineNum != data.content.fromLineNum) {
+                    if (fromOffset < 0 && fromLineNum != data.content.fromLineNum) {
                         console.log('pullLog fromLineNum not match');
                         return;
                     }
-                    if (fromLineNum > data.content.toLineNum ) {
+                    if (data.content.fromLineNum > data.content.toLineNum ) {
                         console.log('pullLog already line-end');
 
                         // valid end
@@ -56,6 +61,10 @@ $(function() {
 
                     // append content
                     fromLineNum = data.content.toLineNum + 1;
+                    if (data.content.toOffset > 0) {
+                        fromOffset = data.content.toOffset;
+                    }
+                    hasMore = data.content.hasMore;
                     $('#logConsole').append(data.content.logContent);
                     pullFailCount = 0;
 
@@ -67,10 +76,21 @@ $(function() {
                 }
             }
         });
+        return hasMore;
     }
 
-    // pull first page
-    pullLog();
+    // pull pages, until no more or max page
+    function pullLogPages() {
+        for (var i = 0; i < maxPullPage; i++) {
+            if (!pullLog()) {
+                return;
+            }
+        }
+    }
+
+    // pull first page, all pages
+    while (pullLog()) {
+    }
 
     // handler already callback, end
     if (handleCode > 0) {
@@ -78,12 +98,66 @@ $(function() {
         return;
     }
 
-    // round until end
-    var logRun = setInterval(function () {
-        pullLog()
-    }, 3000);
+    // round until end: push by log stream if supported, otherwise pull
+    var logRun;
+    var logStream;
+    if (window.EventSource) {
+        streamLog();
+    } else {
+        pollLog();
+    }
+    function pollLog() {
+        logRun = setInterval(function () {
+            pullLogPages()
+        }, 3000);
+    }
+    function streamLog() {
+        logStream = new EventSource(base_url + '/joblog/logStream?' + $.param({
+            "executorAddress":executorAddress,
+            "triggerTime":triggerTime,
+            "logId":logId,
+            "fromOffset":Math.max(fromOffset, 0)
+        }));
+        logStream.addEventListener('log', function (e) {
+            var content = JSON.parse(e.data);
+            if (content.toOffset <= fromOffset) {
+                return;
+            }
+
+            // append content
+            fromLineNum = content.toLineNum + 1;
+            fromOffset = content.toOffset;
+            $('#logConsole').append(content.logContent);
+
+            // scroll to bottom
+            scrollTo(0, document.body.scrollHeight);
+        });
+        // executor log end, pull until callback finish (log appended after callback)
+        logStream.addEventListener('end', function () {
+            logStreamClose();
+            pollLog();
+        });
+        // stream not available, such as old executor, fallback to pull
+        logStream.addEventListener('fail', function (e) {
+            console.log('streamLog fail:' + e.data);
+            logStreamClose();
+            pollLog();
+        });
+        logStream.onerror = function () {
+            console.log('streamLog error');
+            logStreamClose();
+            pollLog();
+        };
+    }
+    function logStreamClose() {
+        if (logStream) {
+            logStream.close();
+            logStream = null;
+        }
+    }
     function logRunStop(content){
         $('#logConsoleRunning').hide();
+        logStreamClose();
         logRun = window.clearInterval(logRun);
         $('#logConsole').append(content);
     }
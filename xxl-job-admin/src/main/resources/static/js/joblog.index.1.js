@@ -69,6 +69,9 @@ $(function() {
         endDate: rangesConf[I18n.daterangepicker_ranges_today][1]
 	});
 
+	// page cursor, the next page continues from the last row of current page (keyset pagination)
+	var pageCursor = {};
+
 	// init date tables
 	var logTable = $("#joblog_list").dataTable({
 		"deferRender": true,
@@ -85,8 +88,21 @@ $(function() {
 				obj.filterTime = $('#filterTime').val();
 	        	obj.start = d.start;
 	        	obj.length = d.length;
+
+				var filter = [obj.jobGroup, obj.jobId, obj.logStatus, obj.filterTime, obj.length].join('|');
+				if (pageCursor.lastRow && pageCursor.filter == filter && pageCursor.start + pageCursor.length == obj.start) {
+					obj.cursorTriggerTime = moment(pageCursor.lastRow.triggerTime).valueOf();
+					obj.cursorId = pageCursor.lastRow.id;
+				}
+				pageCursor.pending = { filter: filter, start: obj.start, length: obj.length };
                 return obj;
-            }
+            },
+			dataSrc : function ( json ) {
+				var data = json.data || [];
+				pageCursor = pageCursor.pending || {};
+				pageCursor.lastRow = data.length > 0 ? data[data.length - 1] : null;
+				return data;
+			}
 	    },
 	    "searching": false,
 	    "ordering": false,
@@ -128,6 +144,8 @@ $(function() {
 								html = '<span style="color: green">'+ I18n.system_success +'</span>';
 							} else if (data == 500) {
 								html = '<span style="color: red">'+ I18n.system_fail +'</span>';
+							} else if (data == 429) {
+								html = '<span style="color: orange">'+ I18n.joblog_status_back_pressure +'</span>';
 							} else if (data == 0) {
                                 html = '';
 							}
@@ -0,0 +1,202 @@
+package com.xxl.job.admin.core.registry;
+
+import com.xxl.job.core.biz.AdminBiz;
+import com.xxl.job.core.biz.model.GlueParam;
+import com.xxl.job.core.biz.model.HandleCallbackParam;
+import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.biz.model.RegistrySyncParam;
+import com.xxl.job.core.biz.model.RegistrySyncResult;
+import com.xxl.job.core.biz.model.ReturnT;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 多调度中心注册信息同步：进程内多个节点互相长轮询，验证增量传播与收敛
+ */
+public class RegistrySyncTest {
+
+    private static final int NODE_NUM = 3;
+    private static final long PROPAGATION_MAX_MILLIS = 1000;
+
+    private final List<RegistryChangeLog> nodes = new ArrayList<>();
+    private final List<RegistryPeerSync> peerSyncList = new ArrayList<>();
+    private final List<Thread> peerSyncThreads = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < NODE_NUM; i++) {
+            nodes.add(new RegistryChangeLog(100, null));
+        }
+        // 每个节点同步其他所有节点
+        for (RegistryChangeLog node : nodes) {
+            for (RegistryChangeLog peer : nodes) {
+                if (peer != node) {
+                    RegistryPeerSync peerSync = new RegistryPeerSync(new LocalAdminBiz(peer), node);
+                    Thread thread = new Thread(peerSync);
+                    thread.setDaemon(true);
+                    thread.start();
+                    peerSyncList.add(peerSync);
+                    peerSyncThreads.add(thread);
+                }
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (RegistryPeerSync peerSync : peerSyncList) {
+            peerSync.toStop();
+        }
+        for (Thread thread : peerSyncThreads) {
+            thread.interrupt();
+        }
+    }
+
+    @Test
+    public void shouldPropagateAddAndRemove() throws InterruptedException {
+        RegistryParam registryParam = new RegistryParam("EXECUTOR", "xxl-job-executor-sample", "127.0.0.1:9999");
+
+        long start = System.currentTimeMillis();
+        nodes.get(0).add(registryParam);
+        assertConverged(Collections.singletonList(registryParam));
+        assertTrue(System.currentTimeMillis() - start < PROPAGATION_MAX_MILLIS);
+        // 等待新增的回传（无新版本）同步完成
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        start = System.currentTimeMillis();
+        nodes.get(NODE_NUM - 1).remove(registryParam);
+        assertConverged(Collections.emptyList());
+        assertTrue(System.currentTimeMillis() - start < PROPAGATION_MAX_MILLIS);
+
+        // 收敛后不再产生新版本
+        long[] versions = new long[NODE_NUM];
+        for (int i = 0; i < NODE_NUM; i++) {
+            versions[i] = nodes.get(i).getVersion();
+        }
+        TimeUnit.MILLISECONDS.sleep(200);
+        for (int i = 0; i < NODE_NUM; i++) {
+            assertEquals(versions[i], nodes.get(i).getVersion());
+        }
+    }
+
+    @Test
+    public void shouldReturnFullWhenEpochMismatch() throws InterruptedException {
+        RegistryChangeLog changeLog = new RegistryChangeLog(2, null);
+        for (int i = 0; i < 5; i++) {
+            changeLog.add(new RegistryParam("EXECUTOR", "app", "127.0.0.1:" + i));
+        }
+
+        // 纪元不一致
+        RegistrySyncResult result = changeLog.sync(0, 0, 0);
+        assertTrue(result.isFull());
+        assertEquals(5, result.getAddList().size());
+
+        // 增量已淘汰
+        result = changeLog.sync(changeLog.getEpoch(), 1, 0);
+        assertTrue(result.isFull());
+
+        // 增量
+        result = changeLog.sync(changeLog.getEpoch(), 4, 0);
+        assertFalse(result.isFull());
+        assertEquals(1, result.getAddList().size());
+        assertEquals(5, result.getVersion());
+    }
+
+    @Test
+    public void shouldNotifyWatcherOnChange() {
+        RegistryChangeLog changeLog = new RegistryChangeLog(10, null);
+        AtomicReference<RegistrySyncResult> resultRef = new AtomicReference<>();
+        Consumer<RegistrySyncResult> callback = resultRef::set;
+
+        // 无变更时登记等待，不立即回调
+        changeLog.watch(changeLog.getEpoch(), changeLog.getVersion(), callback);
+        assertEquals(null, resultRef.get());
+
+        // 变更时回调增量
+        RegistryParam registryParam = new RegistryParam("EXECUTOR", "app", "127.0.0.1:9999");
+        changeLog.add(registryParam);
+        assertFalse(resultRef.get().isFull());
+        assertEquals(Collections.singletonList(registryParam), resultRef.get().getAddList());
+
+        // 取消等待后不再回调
+        resultRef.set(null);
+        changeLog.watch(changeLog.getEpoch(), changeLog.getVersion(), callback);
+        changeLog.unwatch(callback);
+        changeLog.remove(registryParam);
+        assertEquals(null, resultRef.get());
+
+        // 有增量时立即回调
+        changeLog.watch(changeLog.getEpoch(), 1, callback);
+        assertEquals(Collections.singletonList(registryParam), resultRef.get().getRemoveList());
+    }
+
+    private void assertConverged(List<RegistryParam> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + PROPAGATION_MAX_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            boolean converged = true;
+            for (RegistryChangeLog node : nodes) {
+                converged &= node.getMembers().equals(expected);
+            }
+            if (converged) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        for (RegistryChangeLog node : nodes) {
+            assertEquals(expected, node.getMembers());
+        }
+    }
+
+    /**
+     * 进程内调度中心，直接访问对方的变更日志
+     */
+    private static class LocalAdminBiz implements AdminBiz {
+        private final RegistryChangeLog changeLog;
+
+        LocalAdminBiz(RegistryChangeLog changeLog) {
+            this.changeLog = changeLog;
+        }
+
+        @Override
+        public ReturnT<String> callback(List<HandleCallbackParam> callbackParamList) {
+            return ReturnT.SUCCESS;
+        }
+
+        @Override
+        public ReturnT<String> registry(RegistryParam registryParam) {
+            return ReturnT.SUCCESS;
+        }
+
+        @Override
+        public ReturnT<String> registryRemove(RegistryParam registryParam) {
+            return ReturnT.SUCCESS;
+        }
+
+        @Override
+        public ReturnT<RegistrySyncResult> registrySync(RegistrySyncParam registrySyncParam) {
+            try {
+                return new ReturnT<>(changeLog.sync(registrySyncParam.getEpoch(), registrySyncParam.getVersion(),
+                        TimeUnit.SECONDS.toMillis(registrySyncParam.getTimeout())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new ReturnT<>(ReturnT.FAIL_CODE, "interrupted");
+            }
+        }
+
+        @Override
+        public ReturnT<GlueParam> glueSource(GlueParam glueParam) {
+            return new ReturnT<>(ReturnT.FAIL_CODE, null);
+        }
+    }
+}
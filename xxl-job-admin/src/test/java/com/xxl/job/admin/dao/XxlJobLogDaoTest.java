@@ -16,34 +16,38 @@ public class XxlJobLogDaoTest {
 
     @Resource
     private XxlJobLogDao xxlJobLogDao;
+    @Resource
+    private XxlJobLogDetailDao xxlJobLogDetailDao;
 
     @Test
     public void test(){
-        List<XxlJobLog> list = xxlJobLogDao.pageList(0, 10, 1, 1, null, null, 1);
-        int list_count = xxlJobLogDao.pageListCount(0, 10, 1, 1, null, null, 1);
+        List<XxlJobLog> list = xxlJobLogDao.pageList(0, 10, 1, 1, null, null, 1, null, 0);
+        int list_count = xxlJobLogDao.pageListCount(1, 1, null, null, 1, 10000);
 
         XxlJobLog log = new XxlJobLog();
         log.setJobGroup(1);
         log.setJobId(1);
+        log.setTriggerTime(new Date(System.currentTimeMillis() / 1000 * 1000));
 
         long ret1 = xxlJobLogDao.save(log);
-        XxlJobLog dto = xxlJobLogDao.load(log.getId());
+        XxlJobLog dto = xxlJobLogDao.load(log.getId(), null);
 
-        log.setTriggerTime(new Date());
         log.setTriggerCode(1);
         log.setTriggerMsg("1");
         log.setExecutorAddress("1");
         log.setExecutorHandler("1");
         log.setExecutorParam("1");
         ret1 = xxlJobLogDao.updateTriggerInfo(log);
-        dto = xxlJobLogDao.load(log.getId());
+        ret1 = xxlJobLogDetailDao.saveTriggerMsg(log);
+        dto = xxlJobLogDao.load(log.getId(), log.getTriggerTime());
 
 
         log.setHandleTime(new Date());
         log.setHandleCode(2);
         log.setHandleMsg("2");
         ret1 = xxlJobLogDao.updateHandleInfo(log);
-        dto = xxlJobLogDao.load(log.getId());
+        ret1 = xxlJobLogDetailDao.saveHandleMsg(log);
+        dto = xxlJobLogDao.load(log.getId(), log.getTriggerTime());
 
 
         List<Long> ret4 = xxlJobLogDao.findClearLogIds(1, 1, new Date(), 100, 100);
@@ -25,6 +25,12 @@ public class XxlJobRegistryDaoTest {
             ret = xxlJobRegistryDao.registrySave("g1", "k1", "v1", new Date());
         }
 
+        XxlJobRegistry registry = new XxlJobRegistry();
+        registry.setRegistryGroup("g1");
+        registry.setRegistryKey("k1");
+        registry.setRegistryValue("v1");
+        int ret1 = xxlJobRegistryDao.registryUpdateBatch(Arrays.asList(registry), new Date());
+
         List<XxlJobRegistry> list = xxlJobRegistryDao.findAll(1, new Date());
 
         int ret2 = xxlJobRegistryDao.removeDead(Arrays.asList(1));
@@ -2,6 +2,7 @@ package com.xxl.job.adminbiz;
 
 import com.xxl.job.core.biz.AdminBiz;
 import com.xxl.job.core.biz.client.AdminBizClient;
+import com.xxl.job.core.biz.model.GlueParam;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.RegistryParam;
 import com.xxl.job.core.biz.model.ReturnT;
@@ -71,4 +72,21 @@ public class AdminBizTest {
 
     }
 
+    /**
+     * load glue source
+     *
+     * @throws Exception
+     */
+    @Test
+    public void glueSource() throws Exception {
+        AdminBiz adminBiz = new AdminBizClient(addressUrl, accessToken);
+
+        GlueParam glueParam = new GlueParam();
+        glueParam.setJobId(1);
+        ReturnT<GlueParam> returnT = adminBiz.glueSource(glueParam);
+
+        Assert.assertTrue(returnT.getCode() == ReturnT.SUCCESS_CODE);
+        Assert.assertEquals(1, returnT.getContent().getJobId());
+    }
+
 }
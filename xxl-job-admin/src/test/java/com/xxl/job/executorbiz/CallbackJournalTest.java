@@ -0,0 +1,199 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.model.HandleCallbackParam;
+import com.xxl.job.core.log.CallbackJournal;
+import com.xxl.job.core.util.FileUtil;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * callback journal test：重启截断不完整的记录、检查点跨分段、跳过损坏的记录、截断超长的 handleMsg
+ */
+public class CallbackJournalTest {
+
+    /**
+     * 记录字节数：记录头(8) + 定长部分(24) + handleMsg，handleMsg 为 "msg-N"（N为一位数）
+     */
+    private static final int RECORD_SIZE = 8 + 24 + 5;
+    /**
+     * 分段文件最大字节数，每个分段 3 条记录
+     */
+    private static final long SEGMENT_MAX_SIZE = 100;
+
+    private File journalPath;
+
+    @Before
+    public void init() {
+        journalPath = new File(System.getProperty("java.io.tmpdir"), "xxl-job-callback-journal-" + System.nanoTime());
+    }
+
+    @After
+    public void destroy() {
+        FileUtil.deleteRecursively(journalPath);
+    }
+
+    private static HandleCallbackParam callbackParam(long logId) {
+        return new HandleCallbackParam(logId, 1000L * logId, 200, "msg-" + logId);
+    }
+
+    private static List<Long> logIds(CallbackJournal.Batch batch) {
+        List<Long> logIds = new ArrayList<>();
+        for (HandleCallbackParam callbackParam : batch.getCallbackParamList()) {
+            logIds.add(callbackParam.getLogId());
+        }
+        return logIds;
+    }
+
+    private static List<Long> range(long from, long to) {
+        List<Long> logIds = new ArrayList<>();
+        for (long logId = from; logId <= to; logId++) {
+            logIds.add(logId);
+        }
+        return logIds;
+    }
+
+    private File segmentFile(long segmentId) {
+        return new File(journalPath, String.format("callback-%020d.wal", segmentId));
+    }
+
+    /**
+     * 逐条追加，按分段大小滚动：分段1为 1~3，分段2为 4~6，分段3为 7.
+     */
+    private CallbackJournal appendSegments() throws IOException {
+        CallbackJournal journal = new CallbackJournal(journalPath, SEGMENT_MAX_SIZE);
+        for (long logId = 1; logId <= 7; logId++) {
+            journal.append(Collections.singletonList(callbackParam(logId)));
+        }
+        Assert.assertEquals(3 * RECORD_SIZE, segmentFile(1).length());
+        Assert.assertEquals(3 * RECORD_SIZE, segmentFile(2).length());
+        Assert.assertEquals(RECORD_SIZE, segmentFile(3).length());
+        return journal;
+    }
+
+    @Test
+    public void appendAndCommit() throws IOException {
+        CallbackJournal journal = new CallbackJournal(journalPath);
+        Assert.assertTrue(journal.isEmpty());
+        List<HandleCallbackParam> callbackParamList = new ArrayList<>();
+        for (long logId = 1; logId <= 5; logId++) {
+            callbackParamList.add(callbackParam(logId));
+        }
+        journal.append(callbackParamList);
+        Assert.assertFalse(journal.isEmpty());
+
+        CallbackJournal.Batch batch = journal.read(10);
+        Assert.assertEquals(callbackParamList, batch.getCallbackParamList());
+        journal.commit(batch);
+        Assert.assertTrue(journal.isEmpty());
+        Assert.assertTrue(journal.read(10).getCallbackParamList().isEmpty());
+        journal.close();
+    }
+
+    @Test
+    public void restartAfterPartialWrite() throws IOException {
+        CallbackJournal journal = new CallbackJournal(journalPath);
+        journal.append(Arrays.asList(callbackParam(1), callbackParam(2)));
+        journal.close();
+
+        // 写入中断：记录头完整，内容只写入一部分
+        ByteBuffer partial = ByteBuffer.allocate(8 + 10).putInt(RECORD_SIZE - 8).putInt(0);
+        Files.write(segmentFile(1).toPath(), partial.array(), StandardOpenOption.APPEND);
+
+        journal = new CallbackJournal(journalPath);
+        Assert.assertEquals(2 * RECORD_SIZE, segmentFile(1).length());
+        Assert.assertEquals(range(1, 2), logIds(journal.read(10)));
+
+        // 截断后追加的记录紧接完整记录，可正常读取
+        journal.append(Collections.singletonList(callbackParam(3)));
+        Assert.assertEquals(range(1, 3), logIds(journal.read(10)));
+        journal.close();
+    }
+
+    @Test
+    public void checkpointSpansSegments() throws IOException {
+        CallbackJournal journal = appendSegments();
+
+        // 批次跨越分段1、2，检查点推进到分段2内，删除分段1
+        CallbackJournal.Batch batch = journal.read(4);
+        Assert.assertEquals(range(1, 4), logIds(batch));
+        Assert.assertEquals(2, batch.getSegmentId());
+        Assert.assertEquals(RECORD_SIZE, batch.getOffset());
+        journal.commit(batch);
+        Assert.assertFalse(segmentFile(1).exists());
+        Assert.assertTrue(segmentFile(2).exists());
+        Assert.assertTrue(new File(journalPath, "checkpoint").exists());
+        Assert.assertFalse(new File(journalPath, "checkpoint.tmp").exists());
+
+        // 已确认的批次重复提交无影响
+        journal.commit(batch);
+        journal.close();
+
+        // 重启后从检查点继续读取
+        journal = new CallbackJournal(journalPath, SEGMENT_MAX_SIZE);
+        batch = journal.read(10);
+        Assert.assertEquals(range(5, 7), logIds(batch));
+        journal.commit(batch);
+        Assert.assertTrue(journal.isEmpty());
+        Assert.assertFalse(segmentFile(2).exists());
+        Assert.assertTrue(segmentFile(3).exists());
+        journal.close();
+    }
+
+    @Test
+    public void skipCorruptRecord() throws IOException {
+        appendSegments().close();
+
+        // 损坏分段1中第2条记录的内容
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(1), "rw")) {
+            long position = RECORD_SIZE + 8 + 2;
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0xFF);
+        }
+
+        // 跳过分段1的剩余部分，从分段2继续读取
+        CallbackJournal journal = new CallbackJournal(journalPath, SEGMENT_MAX_SIZE);
+        List<Long> expected = new ArrayList<>(range(4, 7));
+        expected.add(0, 1L);
+        Assert.assertEquals(expected, logIds(journal.read(10)));
+        journal.close();
+    }
+
+    @Test
+    public void truncateOversizedHandleMsg() throws IOException {
+        // 每个字符2字节，超出记录最大字节数（16MB）
+        StringBuilder handleMsg = new StringBuilder();
+        for (int i = 0; i < 9 * 1024 * 1024; i++) {
+            handleMsg.append('\u00e9');
+        }
+        CallbackJournal journal = new CallbackJournal(journalPath);
+        journal.append(Collections.singletonList(new HandleCallbackParam(1, 1000, 500, handleMsg.toString())));
+        journal.append(Collections.singletonList(callbackParam(2)));
+        journal.close();
+
+        // 重启后记录完整，不被截断或跳过
+        journal = new CallbackJournal(journalPath);
+        List<HandleCallbackParam> callbackParamList = journal.read(10).getCallbackParamList();
+        Assert.assertEquals(2, callbackParamList.size());
+        String truncated = callbackParamList.get(0).getHandleMsg();
+        Assert.assertTrue(truncated.getBytes(StandardCharsets.UTF_8).length <= 16 * 1024 * 1024 - 24);
+        Assert.assertTrue(truncated.length() > 0);
+        Assert.assertTrue(handleMsg.toString().startsWith(truncated));
+        Assert.assertEquals(callbackParam(2), callbackParamList.get(1));
+        journal.close();
+    }
+}
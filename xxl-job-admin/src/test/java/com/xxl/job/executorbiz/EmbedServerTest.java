@@ -0,0 +1,79 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.ExecutorBizClient;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+import com.xxl.job.core.glue.GlueTypeEnum;
+import com.xxl.job.core.server.EmbedServer;
+import io.netty.channel.epoll.Epoll;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * executor embed server test：进程内启动执行器内嵌服务，通过 ExecutorBizClient 请求 /beat、/run
+ */
+public class EmbedServerTest {
+
+    private static final int PORT = 19998;
+    private static final String ADDRESS_URL = "http://127.0.0.1:" + PORT + "/";
+
+    private static EmbedServer embedServer;
+
+    @BeforeClass
+    public static void startServer() throws InterruptedException {
+        embedServer = new EmbedServer();
+        // appName 为空时不注册
+        embedServer.start(ADDRESS_URL, PORT, null, null);
+
+        ExecutorBiz executorBiz = new ExecutorBizClient(ADDRESS_URL, null);
+        for (int i = 0; i < 50; i++) {
+            ReturnT<String> ret = executorBiz.beat();
+            if (ret != null && ret.getCode() == ReturnT.SUCCESS_CODE) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        Assert.fail("embed server start fail.");
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        embedServer.stop();
+    }
+
+    /**
+     * netty-all 自带 Linux native epoll 库，Linux 下内嵌服务使用 epoll 传输.
+     */
+    @Test
+    public void epollAvailableOnLinux() {
+        Assume.assumeTrue(System.getProperty("os.name").toLowerCase().contains("linux"));
+        Assert.assertTrue(String.valueOf(Epoll.unavailabilityCause()), Epoll.isAvailable());
+    }
+
+    @Test
+    public void beat() {
+        ReturnT<String> ret = new ExecutorBizClient(ADDRESS_URL, null).beat();
+        Assert.assertEquals(ReturnT.SUCCESS_CODE, ret.getCode());
+    }
+
+    @Test
+    public void runUnknownHandler() {
+        TriggerParam triggerParam = new TriggerParam();
+        triggerParam.setJobId(1);
+        triggerParam.setExecutorHandler("unknownJobHandler");
+        triggerParam.setExecutorBlockStrategy(ExecutorBlockStrategyEnum.SERIAL_EXECUTION.name());
+        triggerParam.setGlueType(GlueTypeEnum.BEAN.name());
+        triggerParam.setLogId(1);
+        triggerParam.setLogDateTime(System.currentTimeMillis());
+
+        ReturnT<String> ret = new ExecutorBizClient(ADDRESS_URL, null).run(triggerParam);
+        Assert.assertEquals(ReturnT.FAIL_CODE, ret.getCode());
+        Assert.assertTrue(ret.getMsg().contains("unknownJobHandler"));
+    }
+}
@@ -102,4 +102,22 @@ public class ExecutorBizTest {
         Assert.assertNotNull(retval);
     }
 
+    @Test
+    public void glueCompile(){
+        ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, accessToken);
+
+        final String glueSource = "import com.xxl.job.core.handler.IJobHandler\n"
+                + "class DemoGlueJobHandler extends IJobHandler {\n"
+                + "    void execute() {}\n"
+                + "}";
+
+        // Act
+        final ReturnT<String> retval = executorBiz.glueCompile(new GlueParam(1, GlueTypeEnum.GLUE_GROOVY.name(),
+                glueSource, System.currentTimeMillis()));
+
+        // Assert result
+        Assert.assertNotNull(retval);
+        Assert.assertEquals(200, retval.getCode());
+    }
+
 }
@@ -0,0 +1,77 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.glue.GlueFactory;
+import com.xxl.job.core.handler.IJobHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * glue factory test：同一源码复用编译结果，不同源码使用独立的类加载器，淘汰不影响已创建的实例
+ */
+public class GlueFactoryTest {
+
+    private static String glueSource(String message) {
+        return "import com.xxl.job.core.handler.IJobHandler\n"
+                + "class DemoGlueJobHandler extends IJobHandler {\n"
+                + "    void execute() { println '" + message + "' }\n"
+                + "}";
+    }
+
+    @Test
+    public void cacheByCodeSource() throws Exception {
+        GlueFactory glueFactory = new GlueFactory();
+
+        IJobHandler first = glueFactory.loadNewInstance(glueSource("v1"));
+        IJobHandler second = glueFactory.loadNewInstance(glueSource("v1"));
+        IJobHandler updated = glueFactory.loadNewInstance(glueSource("v2"));
+
+        // 同一源码只编译一次，每次加载为新实例
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(first.getClass(), second.getClass());
+        // 源码更新后使用新的类加载器，同名类不冲突
+        Assert.assertNotSame(first.getClass(), updated.getClass());
+        Assert.assertNotSame(first.getClass().getClassLoader(), updated.getClass().getClassLoader());
+    }
+
+    @Test
+    public void precompile() throws Exception {
+        GlueFactory glueFactory = new GlueFactory();
+
+        String glueSource = glueSource("precompile");
+        glueFactory.precompile(glueSource);
+        glueFactory.precompile(glueSource);
+
+        IJobHandler jobHandler = glueFactory.loadNewInstance(glueSource);
+        Assert.assertNotNull(jobHandler);
+        Assert.assertSame(jobHandler.getClass(), glueFactory.loadNewInstance(glueSource).getClass());
+    }
+
+    @Test
+    public void evictKeepsLiveInstance() throws Exception {
+        GlueFactory glueFactory = new GlueFactory();
+
+        // 动态调用与闭包依赖Groovy元类信息
+        String glueSource = "import com.xxl.job.core.handler.IJobHandler\n"
+                + "class EvictGlueJobHandler extends IJobHandler {\n"
+                + "    int total\n"
+                + "    void execute() { total = [1, 2, 3].collect { it * 2 }.sum() + new Helper().value() }\n"
+                + "}\n"
+                + "class Helper { int value() { 1 } }";
+        IJobHandler jobHandler = glueFactory.loadNewInstance(glueSource);
+
+        // 超出类缓存上限（128），淘汰最久未使用的类
+        for (int i = 0; i < 130; i++) {
+            glueFactory.loadNewInstance(glueSource("evict-" + i));
+        }
+        Assert.assertNotSame(jobHandler.getClass(), glueFactory.loadNewInstance(glueSource).getClass());
+
+        // 淘汰前创建的实例仍可执行
+        jobHandler.execute();
+        Assert.assertEquals(13, ((Number) jobHandler.getClass().getMethod("getTotal").invoke(jobHandler)).intValue());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void compileError() throws Exception {
+        new GlueFactory().loadNewInstance("class Broken {");
+    }
+}
@@ -0,0 +1,87 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.impl.ExecutorBizImpl;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+import com.xxl.job.core.executor.XxlJobExecutor;
+import com.xxl.job.core.glue.GlueTypeEnum;
+import com.xxl.job.core.handler.IJobHandler;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.thread.JobThreadPool;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * executor job thread test：任务的调度队列复用共享工作线程池，每个任务都被调度，线程数不随任务数增长
+ */
+public class JobThreadTest {
+
+    /**
+     * 任务数，大于工作线程池的扩容上限
+     */
+    private static final int JOB_NUM = JobThreadPool.DEFAULT_MAX_POOL_SIZE + 1000;
+    private static final String HANDLER_NAME = "jobThreadTestJobHandler";
+
+    @ClassRule
+    public static final TemporaryFolder logPath = new TemporaryFolder();
+    private static final Set<Long> executedJobIds = ConcurrentHashMap.newKeySet();
+    private static volatile CountDownLatch latch;
+
+    @BeforeClass
+    public static void init() {
+        XxlJobFileAppender.initLogPath(logPath.getRoot().getPath());
+        JobThreadPool.getInstance().start(0, 0, 0);
+
+        XxlJobExecutor.registJobHandler(HANDLER_NAME, new IJobHandler() {
+            @Override
+            public void execute() {
+                executedJobIds.add(XxlJobHelper.getJobId());
+                latch.countDown();
+            }
+        });
+    }
+
+    @AfterClass
+    public static void destroy() {
+        for (int jobId = 1; jobId <= JOB_NUM; jobId++) {
+            XxlJobExecutor.removeJobThread(jobId, "test finish.");
+        }
+        JobThreadPool.getInstance().toStop();
+    }
+
+    @Test
+    public void triggerEveryJob() throws InterruptedException {
+        ExecutorBiz executorBiz = new ExecutorBizImpl();
+        int threadsBefore = Thread.activeCount();
+
+        latch = new CountDownLatch(JOB_NUM);
+        for (int jobId = 1; jobId <= JOB_NUM; jobId++) {
+            TriggerParam triggerParam = new TriggerParam();
+            triggerParam.setJobId(jobId);
+            triggerParam.setExecutorHandler(HANDLER_NAME);
+            triggerParam.setExecutorBlockStrategy(ExecutorBlockStrategyEnum.SERIAL_EXECUTION.name());
+            triggerParam.setGlueType(GlueTypeEnum.BEAN.name());
+            triggerParam.setLogId(jobId);
+            triggerParam.setLogDateTime(System.currentTimeMillis());
+
+            ReturnT<String> ret = executorBiz.run(triggerParam);
+            Assert.assertEquals(ReturnT.SUCCESS_CODE, ret.getCode());
+        }
+        Assert.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        Assert.assertEquals(JOB_NUM, executedJobIds.size());
+
+        // 线程数受工作线程池上限约束，不随任务数增长
+        Assert.assertTrue(Thread.activeCount() - threadsBefore <= JobThreadPool.DEFAULT_MAX_POOL_SIZE + 10);
+    }
+}
@@ -0,0 +1,57 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.handler.impl.MethodJobHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * MethodJobHandler test：绑定后的调用器可调用公共方法与私有方法，任务方法的异常包装为 InvocationTargetException
+ */
+public class MethodJobHandlerTest {
+
+    public static class SampleJob {
+
+        private long count;
+
+        public void publicJob() {
+            count++;
+        }
+
+        private void privateJob() {
+            count++;
+        }
+
+        public void failJob() {
+            throw new IllegalStateException("fail");
+        }
+    }
+
+    @Test
+    public void execute() throws Exception {
+        for (String methodName : new String[]{"publicJob", "privateJob"}) {
+            SampleJob job = new SampleJob();
+            Method method = SampleJob.class.getDeclaredMethod(methodName);
+            method.setAccessible(true);
+            MethodJobHandler handler = new MethodJobHandler(job, method, null, null);
+
+            handler.execute();
+            handler.execute();
+            Assert.assertEquals(2L, job.count);
+        }
+    }
+
+    @Test
+    public void exception() throws Exception {
+        Method method = SampleJob.class.getMethod("failJob");
+        method.setAccessible(true);
+        MethodJobHandler handler = new MethodJobHandler(new SampleJob(), method, null, null);
+        try {
+            handler.execute();
+            Assert.fail();
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(e.getTargetException() instanceof IllegalStateException);
+        }
+    }
+}
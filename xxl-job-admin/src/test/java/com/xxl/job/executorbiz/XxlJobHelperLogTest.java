@@ -0,0 +1,72 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.context.XxlJobContext;
+import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.log.JobLogWriter;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import java.io.File;
+import java.time.LocalDate;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * XxlJobHelper.log test：开启时日志记录调用方的类名与方法名，关闭时不记录；任务线程被中断时日志仍按顺序写入
+ */
+public class XxlJobHelperLogTest {
+
+    @ClassRule
+    public static final TemporaryFolder logPath = new TemporaryFolder();
+
+    private static String logFileName;
+
+    @BeforeClass
+    public static void init() {
+        XxlJobFileAppender.initLogPath(logPath.getRoot().getPath());
+        JobLogWriter.getInstance().start();
+        logFileName = XxlJobFileAppender.makeLogFileName(LocalDate.now(), 1);
+        XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFileName, 0, 1));
+    }
+
+    @AfterClass
+    public static void destroy() {
+        XxlJobContext.setXxlJobContext(null);
+        XxlJobHelper.setLogCallerInfo(true);
+        JobLogWriter.getInstance().toStop();
+    }
+
+    @Test
+    public void callerInfo() {
+        XxlJobHelper.setLogCallerInfo(true);
+        XxlJobHelper.log("caller info on");
+        XxlJobHelper.setLogCallerInfo(false);
+        XxlJobHelper.log("caller info off");
+        JobLogWriter.getInstance().flush(logFileName);
+
+        String[] lines = XxlJobFileAppender.readLines(new File(logFileName)).split("\n");
+        Assert.assertTrue(lines[lines.length - 2].contains("[" + getClass().getName() + "#callerInfo]"));
+        Assert.assertTrue(lines[lines.length - 2].endsWith("caller info on"));
+        Assert.assertFalse(lines[lines.length - 1].contains("#callerInfo"));
+        Assert.assertTrue(lines[lines.length - 1].endsWith("caller info off"));
+    }
+
+    @Test
+    public void interruptedKeepsOrder() {
+        XxlJobHelper.setLogCallerInfo(false);
+        for (int i = 0; i < 1000; i++) {
+            XxlJobHelper.log("before interrupt " + i);
+        }
+        // 模拟任务被终止：中断后的日志排在已入队日志之后，且保留中断状态
+        Thread.currentThread().interrupt();
+        XxlJobHelper.log("after interrupt");
+        Assert.assertTrue(Thread.interrupted());
+        JobLogWriter.getInstance().flush(logFileName);
+
+        String[] lines = XxlJobFileAppender.readLines(new File(logFileName)).split("\n");
+        Assert.assertTrue(lines[lines.length - 2].endsWith("before interrupt 999"));
+        Assert.assertTrue(lines[lines.length - 1].endsWith("after interrupt"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.xxl.job.benchmark;
+
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.ExecutorBizClient;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+import com.xxl.job.core.glue.GlueTypeEnum;
+import com.xxl.job.core.server.EmbedServer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EmbedServer 吞吐量：16 个客户端线程各持一个 ExecutorBizClient，经本机 HTTP 请求 /beat 与 /run
+ * <p>
+ * /beat 只经过连接复用、请求解码与响应编码；/run 使用未注册的 JobHandler，
+ * 额外包含 TriggerParam 反序列化与 JobHandler 查找，不包含任务执行.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class EmbedServerBenchmark {
+
+    private static final int PORT = 19999;
+    private static final String ADDRESS_URL = "http://127.0.0.1:" + PORT + "/";
+
+    private EmbedServer embedServer;
+
+    @Setup
+    public void startServer() throws InterruptedException {
+        embedServer = new EmbedServer();
+        // appName 为空时不注册
+        embedServer.start(ADDRESS_URL, PORT, null, null);
+
+        ExecutorBiz executorBiz = new ExecutorBizClient(ADDRESS_URL, null);
+        for (int i = 0; i < 50; i++) {
+            ReturnT<String> ret = executorBiz.beat();
+            if (ret != null && ret.getCode() == ReturnT.SUCCESS_CODE) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        throw new IllegalStateException("embed server start fail.");
+    }
+
+    @TearDown
+    public void stopServer() {
+        embedServer.stop();
+    }
+
+    /**
+     * 每个客户端线程的请求参数.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+
+        ExecutorBiz executorBiz = new ExecutorBizClient(ADDRESS_URL, null);
+        TriggerParam triggerParam = new TriggerParam();
+
+        @Setup
+        public void init() {
+            triggerParam.setJobId(1);
+            triggerParam.setExecutorHandler("benchmarkJobHandler");
+            triggerParam.setExecutorParams("benchmark");
+            triggerParam.setExecutorBlockStrategy(ExecutorBlockStrategyEnum.SERIAL_EXECUTION.name());
+            triggerParam.setGlueType(GlueTypeEnum.BEAN.name());
+            triggerParam.setGlueUpdatetime(System.currentTimeMillis());
+            triggerParam.setLogId(1);
+            triggerParam.setLogDateTime(System.currentTimeMillis());
+        }
+    }
+
+    @Benchmark
+    public ReturnT<String> beat(Client client) {
+        return client.executorBiz.beat();
+    }
+
+    @Benchmark
+    public ReturnT<String> run(Client client) {
+        return client.executorBiz.run(client.triggerParam);
+    }
+}
@@ -0,0 +1,151 @@
+package com.xxl.job.benchmark;
+
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.impl.ExecutorBizImpl;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+import com.xxl.job.core.executor.XxlJobExecutor;
+import com.xxl.job.core.glue.GlueTypeEnum;
+import com.xxl.job.core.handler.IJobHandler;
+import com.xxl.job.core.thread.JobThreadPool;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+/**
+ * 10k 个已注册任务下，单个任务从 ExecutorBiz.run 入队到开始执行的延迟分布
+ * <p>
+ * 启动时逐个调度 10k 个任务完成注册，之后轮流调度各任务并等待其执行；
+ * 注册后常驻的线程数与每个任务占用的堆内存由 {@link Footprint} 随结果输出.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class JobThreadBenchmark {
+
+    private static final int JOB_NUM = 10000;
+    private static final String HANDLER_NAME = "benchmarkJobHandler";
+
+    private final ExecutorBiz executorBiz = new ExecutorBizImpl();
+    private File logPath;
+    private volatile CountDownLatch latch;
+    private int jobId;
+    private long logId;
+
+    private int threadsBefore;
+    private long heapBefore;
+
+    @Setup
+    public void init() throws IOException, InterruptedException {
+        logPath = TempLogPath.init();
+        threadsBefore = Thread.activeCount();
+        heapBefore = usedHeap();
+
+        JobThreadPool.getInstance().start(0, 0, 0);
+        XxlJobExecutor.registJobHandler(HANDLER_NAME, new IJobHandler() {
+            @Override
+            public void execute() {
+                latch.countDown();
+            }
+        });
+
+        // 注册 10k 个任务
+        latch = new CountDownLatch(JOB_NUM);
+        for (int i = 1; i <= JOB_NUM; i++) {
+            trigger(i);
+        }
+        if (!latch.await(60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("register jobs timeout.");
+        }
+    }
+
+    @TearDown
+    public void destroy() {
+        for (int i = 1; i <= JOB_NUM; i++) {
+            XxlJobExecutor.removeJobThread(i, "benchmark finish.");
+        }
+        JobThreadPool.getInstance().toStop();
+        TempLogPath.destroy(logPath);
+    }
+
+    /**
+     * 注册 10k 个任务后的常驻线程数与每个任务的堆内存.
+     * <p>
+     * JMH 每轮迭代前清零计数、汇总时累加各轮结果，因此只在最后一轮测量迭代结束时采集一次.
+     * </p>
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+
+        public long threads;
+        public long heapBytesPerJob;
+
+        private int measurementCount;
+
+        @TearDown(Level.Iteration)
+        public void collect(JobThreadBenchmark benchmark, IterationParams iterationParams)
+                throws InterruptedException {
+            if (iterationParams.getType() != IterationType.MEASUREMENT
+                    || ++measurementCount < iterationParams.getCount()) {
+                return;
+            }
+            threads = Thread.activeCount() - benchmark.threadsBefore;
+            heapBytesPerJob = (usedHeap() - benchmark.heapBefore) / JOB_NUM;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.SampleTime, Mode.AverageTime})
+    public void trigger(Footprint footprint) throws InterruptedException {
+        jobId = jobId % JOB_NUM + 1;
+        latch = new CountDownLatch(1);
+        trigger(jobId);
+        latch.await();
+    }
+
+    private void trigger(int jobId) {
+        TriggerParam triggerParam = new TriggerParam();
+        triggerParam.setJobId(jobId);
+        triggerParam.setExecutorHandler(HANDLER_NAME);
+        triggerParam.setExecutorBlockStrategy(ExecutorBlockStrategyEnum.SERIAL_EXECUTION.name());
+        triggerParam.setGlueType(GlueTypeEnum.BEAN.name());
+        triggerParam.setLogId(++logId);
+        triggerParam.setLogDateTime(System.currentTimeMillis());
+
+        ReturnT<String> ret = executorBiz.run(triggerParam);
+        if (ret.getCode() != ReturnT.SUCCESS_CODE) {
+            throw new IllegalStateException(ret.getMsg());
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
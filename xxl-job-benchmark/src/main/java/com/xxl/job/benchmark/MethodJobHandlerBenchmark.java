@@ -0,0 +1,69 @@
+package com.xxl.job.benchmark;
+
+import com.xxl.job.core.handler.impl.MethodJobHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 调用一次 @XxlJob 任务方法的调度开销：reflect 为原实现每次 Method.invoke，bound 为 MethodJobHandler 注册时绑定的调用器
+ * <p>
+ * 任务方法只累加计数，分别测试公共方法与私有方法（私有方法在 JDK8 下无法生成直接调用器，退化为 MethodHandle）.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodJobHandlerBenchmark {
+
+    @Param({"publicJob", "privateJob"})
+    private String methodName;
+
+    private SampleJob job;
+    private Method method;
+    private MethodJobHandler handler;
+
+    public static class SampleJob {
+
+        private long count;
+
+        public void publicJob() {
+            count++;
+        }
+
+        private void privateJob() {
+            count++;
+        }
+    }
+
+    @Setup
+    public void init() throws NoSuchMethodException {
+        job = new SampleJob();
+        method = SampleJob.class.getDeclaredMethod(methodName);
+        method.setAccessible(true);
+        handler = new MethodJobHandler(job, method, null, null);
+    }
+
+    @Benchmark
+    public Object reflect() throws Exception {
+        return method.invoke(job);
+    }
+
+    @Benchmark
+    public void bound() throws Exception {
+        handler.execute();
+    }
+}
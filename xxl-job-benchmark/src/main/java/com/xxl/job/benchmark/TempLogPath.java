@@ -0,0 +1,31 @@
+package com.xxl.job.benchmark;
+
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.util.FileUtil;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * 基准测试使用的执行器日志根目录，建在临时目录下，结束时删除.
+ */
+final class TempLogPath {
+
+    private TempLogPath() {
+    }
+
+    /**
+     * 创建临时目录并设置为执行器日志根目录.
+     *
+     * @return 日志根目录
+     */
+    static File init() throws IOException {
+        File logPath = Files.createTempDirectory("xxl-job-benchmark-").toFile();
+        XxlJobFileAppender.initLogPath(logPath.getPath());
+        return logPath;
+    }
+
+    static void destroy(File logPath) {
+        FileUtil.deleteRecursively(logPath);
+    }
+}
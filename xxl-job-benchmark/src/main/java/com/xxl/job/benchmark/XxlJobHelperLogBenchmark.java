@@ -0,0 +1,97 @@
+package com.xxl.job.benchmark;
+
+import com.xxl.job.core.context.XxlJobContext;
+import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.log.JobLogWriter;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * XxlJobHelper.log 单次调用耗时，调用方位于 {@link #stackDepth} 层调用栈之下（接近 Spring 容器中任务方法的栈深度）
+ * <p>
+ * mode 取值：legacy 为原实现，每次调用 {@code new Throwable().getStackTrace()} 定位调用方；
+ * callerInfo 为当前实现，JDK9+ 下由 StackWalker 找到第一个调用方栈帧即停止，JDK8 下与 legacy 相同；
+ * noCallerInfo 不记录调用方. 三者均经异步写入器写入日志文件.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XxlJobHelperLogBenchmark {
+
+    @Param({"legacy", "callerInfo", "noCallerInfo"})
+    private String mode;
+
+    @Param("100")
+    private int stackDepth;
+
+    private boolean legacy;
+    private File logPath;
+
+    @Setup
+    public void init() throws IOException {
+        legacy = "legacy".equals(mode);
+        XxlJobHelper.setLogCallerInfo("callerInfo".equals(mode));
+        logPath = TempLogPath.init();
+        JobLogWriter.getInstance().start();
+    }
+
+    @TearDown
+    public void destroy() {
+        XxlJobHelper.setLogCallerInfo(true);
+        JobLogWriter.getInstance().toStop();
+        TempLogPath.destroy(logPath);
+    }
+
+    /**
+     * 任务上下文绑定在执行任务的线程上.
+     */
+    @State(Scope.Thread)
+    public static class JobContext {
+
+        @Setup
+        public void init() {
+            String logFileName = XxlJobFileAppender.makeLogFileName(LocalDate.now(), 1);
+            XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFileName, 0, 1));
+        }
+
+        @TearDown
+        public void destroy() {
+            XxlJobContext.setXxlJobContext(null);
+        }
+    }
+
+    @Benchmark
+    public boolean log(JobContext jobContext) {
+        return atDepth(stackDepth);
+    }
+
+    private boolean atDepth(int depth) {
+        if (depth > 0) {
+            return atDepth(depth - 1);
+        }
+        if (legacy) {
+            StackTraceElement callInfo = new Throwable().getStackTrace()[1];
+            return XxlJobHelper.log("legacy {} {}", callInfo.getLineNumber(), 1);
+        }
+        return XxlJobHelper.log("log {} {}", 0, 1);
+    }
+}
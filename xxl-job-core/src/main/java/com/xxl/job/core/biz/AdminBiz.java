@@ -1,7 +1,10 @@
 package com.xxl.job.core.biz;
 
+import com.xxl.job.core.biz.model.GlueParam;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.biz.model.RegistrySyncParam;
+import com.xxl.job.core.biz.model.RegistrySyncResult;
 import com.xxl.job.core.biz.model.ReturnT;
 
 import java.util.List;
@@ -49,6 +52,29 @@ public interface AdminBiz {
      */
     ReturnT<String> registryRemove(RegistryParam registryParam);
 
+    /**
+     * RPC 注册信息增量同步（长轮询）.
+     *
+     * @param registrySyncParam 同步参数，已同步的纪元、版本号
+     * @return 成功，ReturnT.SUCCESS，content 为该版本之后的变更.否则,ReturnT.FAIL_CODE
+     * @see ReturnT#SUCCESS
+     * @see ReturnT#FAIL_CODE
+     */
+    ReturnT<RegistrySyncResult> registrySync(RegistrySyncParam registrySyncParam);
+
+
+    // ---------------------- glue ----------------------
+
+    /**
+     * RPC 加载GLUE源码.
+     *
+     * @param glueParam GLUE参数，需包含任务id
+     * @return 成功，ReturnT.SUCCESS，content 为任务当前的GLUE类型、源码及更新时间.否则,ReturnT.FAIL_CODE
+     * @see ReturnT#SUCCESS
+     * @see ReturnT#FAIL_CODE
+     */
+    ReturnT<GlueParam> glueSource(GlueParam glueParam);
+
 
     // ---------------------- biz (custome) ----------------------
     // group、job ... manage
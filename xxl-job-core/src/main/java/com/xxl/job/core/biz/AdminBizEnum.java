@@ -22,7 +22,15 @@ public enum AdminBizEnum {
     /**
      * 移除注册.
      */
-    REGISTRY_REMOVE("registryRemove");
+    REGISTRY_REMOVE("registryRemove"),
+    /**
+     * 注册信息增量同步.
+     */
+    REGISTRY_SYNC("registrySync"),
+    /**
+     * 加载GLUE源码.
+     */
+    GLUE_SOURCE("glueSource");
     /**
      * 类型.
      */
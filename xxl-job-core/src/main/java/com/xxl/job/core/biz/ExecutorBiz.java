@@ -61,4 +61,14 @@ public interface ExecutorBiz {
    */
   ReturnT<LogResult> log(Param logParam);
 
+  /**
+   * GLUE源码预编译：GLUE源码更新后调度中心通知，后台编译，之后调度时无需等待编译.
+   *
+   * @param glueParam GLUE预编译参数
+   * @return 已受理，ReturnT.SUCCESS 否则，ReturnT.FAIL_CODE
+   * @see ReturnT#SUCCESS
+   * @see ReturnT#FAIL_CODE
+   */
+  ReturnT<String> glueCompile(Param glueParam);
+
 }
@@ -2,10 +2,14 @@ package com.xxl.job.core.biz.client;
 
 import com.xxl.job.core.biz.AdminBiz;
 import com.xxl.job.core.biz.AdminBizEnum;
+import com.xxl.job.core.biz.model.GlueParam;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.biz.model.RegistrySyncParam;
+import com.xxl.job.core.biz.model.RegistrySyncResult;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.util.XxlJobRemotingUtil;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 
@@ -14,6 +18,7 @@ import java.util.List;
  *
  * @author xuxueli 2017-07-28 22:14:52
  */
+@Slf4j
 public class AdminBizClient implements AdminBiz {
     /**
      * 调度中心部署根地址.
@@ -27,6 +32,10 @@ public class AdminBizClient implements AdminBiz {
      * 调度超时时间.
      */
     private int timeout = 3;
+    /**
+     * 回调请求实体是否压缩；旧版本调度中心不支持压缩的请求实体，压缩的回调失败而不压缩的重试成功后不再压缩.
+     */
+    private volatile boolean callbackGzip = true;
 
     /**
      * 初始化调度中心客户端对象
@@ -48,7 +57,24 @@ public class AdminBizClient implements AdminBiz {
 
     @Override
     public ReturnT<String> callback(List<HandleCallbackParam> callbackParamList) {
-        return XxlJobRemotingUtil.postBody(addressUrl + "api/" + AdminBizEnum.CALLBACK.getType(), accessToken, timeout, callbackParamList, String.class);
+        String url = addressUrl + "api/" + AdminBizEnum.CALLBACK.getType();
+        if (!callbackGzip) {
+            return XxlJobRemotingUtil.postBody(url, accessToken, timeout, callbackParamList, String.class);
+        }
+
+        // 批量回调的执行结果可能较大，压缩传输
+        ReturnT<String> callbackResult = XxlJobRemotingUtil.postBody(url, accessToken, timeout, callbackParamList, String.class, true);
+        if (!XxlJobRemotingUtil.isStatusFail(callbackResult)) {
+            return callbackResult;
+        }
+
+        // 调度中心未能处理，可能不支持压缩的请求实体，不压缩重试
+        ReturnT<String> plainResult = XxlJobRemotingUtil.postBody(url, accessToken, timeout, callbackParamList, String.class);
+        if (ReturnT.SUCCESS_CODE == plainResult.getCode()) {
+            callbackGzip = false;
+            log.warn(">>>>>>>>>>> xxl-job admin not support gzip callback, disable compression, address:{}", addressUrl);
+        }
+        return plainResult;
     }
 
     @Override
@@ -60,4 +86,15 @@ public class AdminBizClient implements AdminBiz {
     public ReturnT<String> registryRemove(RegistryParam registryParam) {
         return XxlJobRemotingUtil.postBody(addressUrl + "api/" + AdminBizEnum.REGISTRY_REMOVE.getType(), accessToken, timeout, registryParam, String.class);
     }
+
+    @Override
+    public ReturnT<RegistrySyncResult> registrySync(RegistrySyncParam registrySyncParam) {
+        // 长轮询，读超时需大于等待时间
+        return XxlJobRemotingUtil.postBody(addressUrl + "api/" + AdminBizEnum.REGISTRY_SYNC.getType(), accessToken, timeout + registrySyncParam.getTimeout(), registrySyncParam, RegistrySyncResult.class);
+    }
+
+    @Override
+    public ReturnT<GlueParam> glueSource(GlueParam glueParam) {
+        return XxlJobRemotingUtil.postBody(addressUrl + "api/" + AdminBizEnum.GLUE_SOURCE.getType(), accessToken, timeout, glueParam, GlueParam.class);
+    }
 }
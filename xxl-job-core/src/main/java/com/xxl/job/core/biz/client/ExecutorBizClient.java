@@ -64,4 +64,9 @@ public class ExecutorBizClient implements ExecutorBiz {
         return XxlJobRemotingUtil.postBody(addressUrl + BizUriEnum.LOG.getUri(), accessToken, timeout, logParam, LogResult.class);
     }
 
+    @Override
+    public ReturnT<String> glueCompile(Param glueParam) {
+        return XxlJobRemotingUtil.postBody(addressUrl + BizUriEnum.GLUE_COMPILE.getUri(), accessToken, timeout, glueParam, String.class);
+    }
+
 }
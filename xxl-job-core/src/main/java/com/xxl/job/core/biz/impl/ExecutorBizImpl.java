@@ -1,6 +1,7 @@
 package com.xxl.job.core.biz.impl;
 
 import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.GlueParam;
 import com.xxl.job.core.biz.model.IdleBeatParam;
 import com.xxl.job.core.biz.model.KillParam;
 import com.xxl.job.core.biz.model.LogParam;
@@ -11,6 +12,7 @@ import com.xxl.job.core.biz.model.TriggerParam;
 import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
 import com.xxl.job.core.executor.XxlJobExecutor;
 import com.xxl.job.core.glue.GlueFactory;
+import com.xxl.job.core.glue.GlueSourceCache;
 import com.xxl.job.core.glue.GlueTypeEnum;
 import com.xxl.job.core.handler.IJobHandler;
 import com.xxl.job.core.handler.impl.GlueJobHandler;
@@ -53,9 +55,29 @@ public class ExecutorBizImpl implements ExecutorBiz {
         return ReturnT.SUCCESS;
     }
 
+    /**
+     * 调度入队时任务线程已停止的重试次数.
+     */
+    private static final int STOPPED_RETRY_TIMES = 3;
+
     @Override
     public ReturnT<String> run(Param param) {
         TriggerParam triggerParam = (TriggerParam) param;
+        // 加载任务线程与入队之间，任务线程可能被空闲移除、kill或替换，重新加载任务线程后重试
+        ReturnT<String> result = trigger(triggerParam);
+        for (int i = 1; i < STOPPED_RETRY_TIMES && result == JobThread.STOPPED; i++) {
+            result = trigger(triggerParam);
+        }
+        return result;
+    }
+
+    /**
+     * 加载任务线程，添加调度参数到调度队列.
+     *
+     * @param triggerParam 调度参数
+     * @return 任务线程已停止时为 {@link JobThread#STOPPED}
+     */
+    private ReturnT<String> trigger(TriggerParam triggerParam) {
         // load old：jobHandler + jobThread
         //根据jobId从任务线程仓库ConcurrentMap<Integer, JobThread> jobThreadRepository中获取对应的任务线程；
         JobThread jobThread = XxlJobExecutor.loadJobThread(triggerParam.getJobId());
@@ -106,9 +128,13 @@ public class ExecutorBizImpl implements ExecutorBiz {
 
             // 验证处理器
             if (jobHandler == null) {
+                String glueSource = GlueSourceCache.getInstance().load(triggerParam);
+                if (glueSource == null) {
+                    return new ReturnT<>(ReturnT.FAIL_CODE, "glue source of job [" + triggerParam.getJobId() + "] load fail.");
+                }
                 try {
                     // 如果jobHandler为空，就通过Glue源码生成处理器对象
-                    IJobHandler originJobHandler = GlueFactory.getInstance().loadNewInstance(triggerParam.getGlueSource());
+                    IJobHandler originJobHandler = GlueFactory.getInstance().loadNewInstance(glueSource);
                     jobHandler = new GlueJobHandler(originJobHandler, triggerParam.getGlueUpdatetime());
                 } catch (IllegalAccessException | InstantiationException e) {
                     log.error(e.getMessage(), e);
@@ -130,7 +156,11 @@ public class ExecutorBizImpl implements ExecutorBiz {
 
             // 验证处理器,为空直接创建一个新的
             if (jobHandler == null) {
-                jobHandler = new ScriptJobHandler(triggerParam.getJobId(), triggerParam.getGlueUpdatetime(), triggerParam.getGlueSource(), GlueTypeEnum.match(triggerParam.getGlueType()));
+                String glueSource = GlueSourceCache.getInstance().load(triggerParam);
+                if (glueSource == null) {
+                    return new ReturnT<>(ReturnT.FAIL_CODE, "glue source of job [" + triggerParam.getJobId() + "] load fail.");
+                }
+                jobHandler = new ScriptJobHandler(triggerParam.getJobId(), triggerParam.getGlueUpdatetime(), glueSource, GlueTypeEnum.match(triggerParam.getGlueType()));
             }
             //至此，jobHandler不可能为空，因为为空就直接创建一个新的了
         } else {
@@ -181,8 +211,20 @@ public class ExecutorBizImpl implements ExecutorBiz {
         String logFileName = XxlJobFileAppender.makeLogFileName(Instant.ofEpochMilli(logParam.getLogDateTim())
                 .atZone(ZoneOffset.ofHours(8)).toLocalDate(), logParam.getLogId());
 
-        LogResult logResult = XxlJobFileAppender.readLog(logFileName, logParam.getFromLineNum());
+        LogResult logResult = XxlJobFileAppender.readLog(logFileName, logParam.getFromLineNum(),
+                logParam.getFromOffset());
         return new ReturnT<>(logResult);
     }
 
+    @Override
+    public ReturnT<String> glueCompile(Param param) {
+        GlueParam glueParam = (GlueParam) param;
+        // 仅GLUE模式(Java)需要编译，脚本在执行时生成脚本文件
+        if (GlueTypeEnum.GLUE_GROOVY != GlueTypeEnum.match(glueParam.getGlueType())) {
+            return new ReturnT<>(ReturnT.SUCCESS_CODE, "glueType[" + glueParam.getGlueType() + "] no need to compile.");
+        }
+        GlueFactory.getInstance().precompile(glueParam.getGlueSource());
+        return ReturnT.SUCCESS;
+    }
+
 }
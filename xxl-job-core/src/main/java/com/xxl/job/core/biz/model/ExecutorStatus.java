@@ -0,0 +1,78 @@
+package com.xxl.job.core.biz.model;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 执行器负载状态，随注册心跳上报.
+ *
+ * @author smilesnake
+ */
+@Data
+public class ExecutorStatus implements Serializable {
+
+    private static final long serialVersionUID = 42L;
+
+    /**
+     * 任务线程数
+     */
+    private int jobThreadCount;
+    /**
+     * 任务工作线程数
+     */
+    private int workerCount;
+    /**
+     * 正在执行的任务工作线程数
+     */
+    private int runningCount;
+    /**
+     * 所有任务排队中的调度数
+     */
+    private int queuedCount;
+    /**
+     * 内嵌服务业务线程池活跃线程数
+     */
+    private int bizActiveCount;
+    /**
+     * 内嵌服务业务线程池队列长度
+     */
+    private int bizQueueSize;
+    /**
+     * 待回调的执行结果数
+     */
+    private int callbackQueueSize;
+    /**
+     * 已使用堆内存（字节）
+     */
+    private long heapUsed;
+    /**
+     * 最大堆内存（字节）
+     */
+    private long heapMax;
+    /**
+     * 系统最近一分钟平均负载，不可用时为负数
+     */
+    private double systemLoad;
+    /**
+     * CPU核数
+     */
+    private int processors;
+    /**
+     * 是否支持调度请求只携带GLUE源码MD5（本地缓存未命中时从调度中心加载源码），旧版本执行器不上报
+     */
+    private boolean glueHash;
+    /**
+     * 心跳时间，调度中心接收时设置
+     */
+    private long beatTime;
+
+    /**
+     * 负载：正在执行与排队中的调度数.
+     *
+     * @return 负载
+     */
+    public int load() {
+        return runningCount + queuedCount;
+    }
+}
@@ -0,0 +1,37 @@
+package com.xxl.job.core.biz.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * GLUE预编译参数
+ *
+ * @author smilesnake
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GlueParam implements Param {
+    private static final long serialVersionUID = 42L;
+
+    /**
+     * 任务id.
+     */
+    private int jobId;
+    /**
+     * GLUE类型.
+     *
+     * @see com.xxl.job.core.glue.GlueTypeEnum
+     */
+    private String glueType;
+    /**
+     * GLUE源码.
+     */
+    private String glueSource;
+    /**
+     * GLUE更新时间.
+     */
+    private long glueUpdatetime;
+
+}
@@ -28,5 +28,15 @@ public class LogParam implements Param {
    * 起始行号.
    */
   private int fromLineNum;
+  /**
+   * 起始字节偏移，小于0时按起始行号读取.
+   */
+  private long fromOffset = -1;
+
+  public LogParam(long logDateTim, long logId, int fromLineNum) {
+    this.logDateTim = logDateTim;
+    this.logId = logId;
+    this.fromLineNum = fromLineNum;
+  }
 
 }
\ No newline at end of file
@@ -33,4 +33,23 @@ public class LogResult implements Serializable {
      * 是否结束.
      */
     private boolean isEnd;
+    /**
+     * 开始的字节偏移.
+     */
+    private long fromOffset;
+    /**
+     * 到达的字节偏移，作为下次读取的开始字节偏移.
+     */
+    private long toOffset;
+    /**
+     * 是否有未读取的完整行（单次读取达到最大字节数）.
+     */
+    private boolean hasMore;
+
+    public LogResult(int fromLineNum, int toLineNum, String logContent, boolean isEnd) {
+        this.fromLineNum = fromLineNum;
+        this.toLineNum = toLineNum;
+        this.logContent = logContent;
+        this.isEnd = isEnd;
+    }
 }
@@ -29,4 +29,19 @@ public class RegistryParam implements Param {
      * 注册的地址
      */
     private String registryValue;
+    /**
+     * 执行器负载状态，仅心跳时携带
+     */
+    private ExecutorStatus status;
+
+    /**
+     * 创建注册参数，不携带负载状态.
+     *
+     * @param registryGroup 注册的执行器
+     * @param registryKey   注册的appName
+     * @param registryValue 注册的地址
+     */
+    public RegistryParam(String registryGroup, String registryKey, String registryValue) {
+        this(registryGroup, registryKey, registryValue, null);
+    }
 }
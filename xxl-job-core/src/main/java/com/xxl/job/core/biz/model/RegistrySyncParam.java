@@ -0,0 +1,30 @@
+package com.xxl.job.core.biz.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 注册信息增量同步参数.
+ *
+ * @author smilesnake
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegistrySyncParam implements Param {
+
+    private static final long serialVersionUID = 42L;
+    /**
+     * 已同步的注册表纪元（调度中心启动时间），与调度中心不一致时返回全量注册信息
+     */
+    private long epoch;
+    /**
+     * 已同步的版本号，返回该版本之后的变更
+     */
+    private long version;
+    /**
+     * 长轮询等待时间（秒），无变更时最多等待该时间后返回，0 表示立即返回
+     */
+    private int timeout;
+}
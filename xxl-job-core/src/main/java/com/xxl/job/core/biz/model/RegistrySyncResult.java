@@ -0,0 +1,36 @@
+package com.xxl.job.core.biz.model;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 注册信息增量同步结果.
+ *
+ * @author smilesnake
+ */
+@Data
+public class RegistrySyncResult implements Serializable {
+
+    private static final long serialVersionUID = 42L;
+    /**
+     * 注册表纪元（调度中心启动时间）
+     */
+    private long epoch;
+    /**
+     * 当前版本号
+     */
+    private long version;
+    /**
+     * 是否为全量注册信息，全量时 addList 为全部在线注册信息，需替换本地注册信息
+     */
+    private boolean full;
+    /**
+     * 新增的注册信息
+     */
+    private List<RegistryParam> addList;
+    /**
+     * 移除的注册信息
+     */
+    private List<RegistryParam> removeList;
+}
@@ -21,6 +21,10 @@ public class ReturnT<T> implements Serializable {
      * 失败码.
      */
     public static final int FAIL_CODE = 500;
+    /**
+     * 背压码：执行器调度队列已满，拒绝调度.
+     */
+    public static final int BACK_PRESSURE_CODE = 429;
     /**
      * 无内容成功返回对象.
      */
@@ -33,6 +33,10 @@ public class TriggerParam implements Param {
    * 执行器超时时间
    */
   private int executorTimeout;
+  /**
+   * 执行器任务并行度，阻塞策略为并行执行时生效
+   */
+  private int executorParallelism;
   /**
    * 日志id
    */
@@ -48,9 +52,13 @@ public class TriggerParam implements Param {
    */
   private String glueType;
   /**
-   * GLUE源码
+   * GLUE源码，为空时执行器按 glueHash 从本地缓存或调度中心加载
    */
   private String glueSource;
+  /**
+   * GLUE源码MD5
+   */
+  private String glueHash;
   /**
    * GLUE更新时间
    */
@@ -0,0 +1,119 @@
+package com.xxl.job.core.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 任务日志调用方定位
+ * <p>
+ * 运行于 JDK9+ 时通过 StackWalker 惰性遍历栈帧，找到第一个调用方栈帧即停止，不生成完整的栈信息；
+ * 运行于 JDK8 时退化为 {@code new Throwable().getStackTrace()}.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+final class LogCallerLocator {
+
+  /**
+   * StackWalker.walk(Function)，已绑定实例；JDK8 时为null.
+   */
+  private static final MethodHandle WALK;
+  /**
+   * StackFrame.getClassName().
+   */
+  private static final MethodHandle GET_CLASS_NAME;
+  /**
+   * StackFrame.toStackTraceElement().
+   */
+  private static final MethodHandle TO_STACK_TRACE_ELEMENT;
+  /**
+   * 查找调用方栈帧.
+   */
+  private static final Function<Stream<Object>, Object> FIND_CALLER = frames -> frames
+      .filter(frame -> !isInternal(className(frame)))
+      .findFirst()
+      .map(LogCallerLocator::toStackTraceElement)
+      .orElse(null);
+
+  static {
+    MethodHandle walk = null;
+    MethodHandle getClassName = null;
+    MethodHandle toStackTraceElement = null;
+    try {
+      Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+      Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      Object walker = lookup.findStatic(walkerClass, "getInstance", MethodType.methodType(walkerClass))
+          .invoke();
+      walk = lookup.findVirtual(walkerClass, "walk",
+          MethodType.methodType(Object.class, Function.class)).bindTo(walker);
+      getClassName = lookup.findVirtual(frameClass, "getClassName", MethodType.methodType(String.class))
+          .asType(MethodType.methodType(String.class, Object.class));
+      toStackTraceElement = lookup.findVirtual(frameClass, "toStackTraceElement",
+              MethodType.methodType(StackTraceElement.class))
+          .asType(MethodType.methodType(StackTraceElement.class, Object.class));
+    } catch (ClassNotFoundException e) {
+      // JDK8
+    } catch (Throwable e) {
+      log.warn(">>>>>>>>>>> xxl-job, StackWalker unavailable, fallback to Throwable stack trace.", e);
+      walk = null;
+    }
+    WALK = walk;
+    GET_CLASS_NAME = getClassName;
+    TO_STACK_TRACE_ELEMENT = toStackTraceElement;
+  }
+
+  private LogCallerLocator() {
+  }
+
+  /**
+   * 定位调用 {@link XxlJobHelper} 的栈帧.
+   *
+   * @return 调用方栈帧，未找到时返回null
+   */
+  static StackTraceElement locate() {
+    if (WALK != null) {
+      try {
+        return (StackTraceElement) WALK.invoke(FIND_CALLER);
+      } catch (Throwable e) {
+        log.debug(">>>>>>>>>>> xxl-job, StackWalker locate fail.", e);
+      }
+    }
+    for (StackTraceElement element : new Throwable().getStackTrace()) {
+      if (!isInternal(element.getClassName())) {
+        return element;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 是否日志工具内部的栈帧.
+   */
+  private static boolean isInternal(String className) {
+    return LogCallerLocator.class.getName().equals(className)
+        || XxlJobHelper.class.getName().equals(className)
+        || className.startsWith("java.lang.invoke.");
+  }
+
+  private static String className(Object frame) {
+    try {
+      return (String) GET_CLASS_NAME.invokeExact(frame);
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static StackTraceElement toStackTraceElement(Object frame) {
+    try {
+      return (StackTraceElement) TO_STACK_TRACE_ELEMENT.invokeExact(frame);
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
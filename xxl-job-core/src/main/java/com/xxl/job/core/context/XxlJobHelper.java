@@ -18,6 +18,20 @@ import org.slf4j.helpers.MessageFormatter;
 @Slf4j(topic = "xxl-job logger")
 public class XxlJobHelper {
 
+  /**
+   * 任务日志是否记录调用方（类名、方法名、行号），关闭时省去定位调用方的开销.
+   */
+  private static volatile boolean logCallerInfo = true;
+
+  /**
+   * 设置任务日志是否记录调用方.
+   *
+   * @param logCallerInfo true，记录调用方（默认），否则，不记录
+   */
+  public static void setLogCallerInfo(boolean logCallerInfo) {
+    XxlJobHelper.logCallerInfo = logCallerInfo;
+  }
+
   // ---------------------- base info ----------------------
 
   /**
@@ -104,13 +118,16 @@ public class XxlJobHelper {
    * @return true, 成功，否则false
    */
   public static boolean log(String appendLogPattern, Object... appendLogArguments) {
+    XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
+    if (xxlJobContext == null) {
+      return false;
+    }
 
     FormattingTuple ft = MessageFormatter.arrayFormat(appendLogPattern, appendLogArguments);
     // 追加的完整日志
     String appendLog = ft.getMessage();
 
-    StackTraceElement callInfo = new Throwable().getStackTrace()[1];
-    return logDetail(callInfo, appendLog);
+    return logDetail(xxlJobContext, appendLog);
   }
 
   /**
@@ -119,38 +136,37 @@ public class XxlJobHelper {
    * @param e 异常对象
    */
   public static boolean log(Throwable e) {
+    XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
+    if (xxlJobContext == null) {
+      return false;
+    }
 
     StringWriter stringWriter = new StringWriter();
     e.printStackTrace(new PrintWriter(stringWriter));
     String appendLog = stringWriter.toString();
 
-    StackTraceElement callInfo = new Throwable().getStackTrace()[1];
-    return logDetail(callInfo, appendLog);
+    return logDetail(xxlJobContext, appendLog);
   }
 
   /**
    * 追加日志
    *
-   * @param callInfo  调用明细
-   * @param appendLog 追加日志
+   * @param xxlJobContext 任务上下文
+   * @param appendLog     追加日志
    * @return true, 成功，否则false
    */
-  private static boolean logDetail(StackTraceElement callInfo, String appendLog) {
-    XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
-    if (xxlJobContext == null) {
-      return false;
-    }
-
-        /*// "yyyy-MM-dd HH:mm:ss [ClassName]-[MethodName]-[LineNumber]-[ThreadName] log";
-        StackTraceElement[] stackTraceElements = new Throwable().getStackTrace();
-        StackTraceElement callInfo = stackTraceElements[1];*/
+  private static boolean logDetail(XxlJobContext xxlJobContext, String appendLog) {
+    // "yyyy-MM-dd HH:mm:ss [ClassName#MethodName]-[LineNumber]-[ThreadName] log"，不记录调用方时省略类名、方法名、行号
+    StackTraceElement callInfo = logCallerInfo ? LogCallerLocator.locate() : null;
 
     // 追加日志
     StringBuffer stringBuffer = new StringBuffer();
-    stringBuffer.append(DateUtil.formatDateTime(new Date())).append(" ")
-        .append("[" + callInfo.getClassName() + "#" + callInfo.getMethodName() + "]").append("-")
-        .append("[" + callInfo.getLineNumber() + "]").append("-")
-        .append("[" + Thread.currentThread().getName() + "]").append(" ")
+    stringBuffer.append(DateUtil.formatDateTime(new Date())).append(" ");
+    if (callInfo != null) {
+      stringBuffer.append("[").append(callInfo.getClassName()).append("#").append(callInfo.getMethodName())
+          .append("]-[").append(callInfo.getLineNumber()).append("]-");
+    }
+    stringBuffer.append("[").append(Thread.currentThread().getName()).append("] ")
         .append(appendLog != null ? appendLog : "");
     String formatAppendLog = stringBuffer.toString();
 
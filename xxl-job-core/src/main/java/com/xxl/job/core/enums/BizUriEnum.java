@@ -1,13 +1,18 @@
 package com.xxl.job.core.enums;
 
-import com.alibaba.fastjson.JSON;
 import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.GlueParam;
 import com.xxl.job.core.biz.model.IdleBeatParam;
 import com.xxl.job.core.biz.model.KillParam;
 import com.xxl.job.core.biz.model.LogParam;
 import com.xxl.job.core.biz.model.Param;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.util.GsonTool;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -39,7 +44,15 @@ public enum BizUriEnum {
   /**
    * 查看执行日志
    */
-  LOG("log", LogParam.class);
+  LOG("log", LogParam.class),
+  /**
+   * 实时推送执行日志（SSE流式响应），由内嵌服务直接处理
+   */
+  LOG_STREAM("logStream", LogParam.class),
+  /**
+   * GLUE源码预编译
+   */
+  GLUE_COMPILE("glueCompile", GlueParam.class);
 
   /**
    * uri.
@@ -62,8 +75,19 @@ public enum BizUriEnum {
     return null;
   }
 
-  public ReturnT mapper(ExecutorBiz executorBiz, String data) {
-    Param param = (Param) JSON.parseObject(data, this.cls);
+  /**
+   * 调用业务执行器，请求参数直接从请求缓冲区解析，不复制为字符串.
+   *
+   * @param executorBiz 业务执行器
+   * @param data        请求数据，不改变其引用计数
+   * @return 执行结果
+   */
+  public ReturnT mapper(ExecutorBiz executorBiz, ByteBuf data) {
+    Param param = null;
+    if (this.cls != null && data.isReadable()) {
+      param = (Param) GsonTool.fromJson(
+          new InputStreamReader(new ByteBufInputStream(data), StandardCharsets.UTF_8), this.cls);
+    }
     switch (this) {
       case IDLE_BEAT:
         return executorBiz.idleBeat(param);
@@ -73,6 +97,10 @@ public enum BizUriEnum {
         return executorBiz.kill(param);
       case LOG:
         return executorBiz.log(param);
+      case GLUE_COMPILE:
+        return executorBiz.glueCompile(param);
+      case LOG_STREAM:
+        return new ReturnT<>(ReturnT.FAIL_CODE, "invalid request, log stream only support streaming.");
       default:
         return executorBiz.beat();
     }
@@ -24,7 +24,15 @@ public enum ExecutorBlockStrategyEnum {
     /**
      * 覆盖之前调度
      */
-    COVER_EARLY("Cover Early");
+    COVER_EARLY("Cover Early"),
+    /**
+     * 合并执行，排队中的调度合并为一次执行
+     */
+    COALESCE("Coalesce"),
+    /**
+     * 并行执行，同一任务最多同时执行任务并行度个调度
+     */
+    CONCURRENT("Concurrent");
     /**
      * 标题.
      */
@@ -2,12 +2,18 @@ package com.xxl.job.core.executor;
 
 import com.xxl.job.core.biz.AdminBiz;
 import com.xxl.job.core.biz.client.AdminBizClient;
+import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.handler.IJobHandler;
 import com.xxl.job.core.handler.annotation.XxlJob;
+import com.xxl.job.core.log.JobLogSegmentStore;
+import com.xxl.job.core.log.JobLogWriter;
 import com.xxl.job.core.log.XxlJobFileAppender;
 import com.xxl.job.core.server.EmbedServer;
 import com.xxl.job.core.thread.JobLogFileCleanThread;
 import com.xxl.job.core.thread.JobThread;
+import com.xxl.job.core.thread.JobThreadPool;
+import com.xxl.job.core.thread.JobTimeoutTimer;
+import com.xxl.job.core.thread.ScriptWorkerPool;
 import com.xxl.job.core.thread.TriggerCallbackThread;
 import com.xxl.job.core.util.IpUtil;
 import com.xxl.job.core.util.NetUtil;
@@ -64,6 +70,30 @@ public class XxlJobExecutor {
    * 执行器日志文件保存天数 [选填] ： 过期日志自动清理, 限制值大于等于3时生效; 否则, 如-1, 关闭自动清理功能
    */
   private int logRetentionDays;
+  /**
+   * 执行器日志存储方式 [选填] ：file，每次执行一个日志文件（默认）；segment，同一天所有执行的日志追加写入分段文件，适用于高频任务，避免海量小文件
+   */
+  private String logStore;
+  /**
+   * 任务日志是否记录调用方 [选填] ：记录时每行日志包含调用 XxlJobHelper.log 的类名、方法名、行号；高频打印日志的任务可关闭以降低开销；默认true
+   */
+  private boolean logCallerInfo = true;
+  /**
+   * 脚本常驻解释器 [选填] ：开启后 GLUE(Python)、GLUE(Nodejs) 任务复用常驻的解释器进程执行，省去每次执行启动解释器的开销；脚本在同一进程内执行，需评估脚本间的相互影响；默认false
+   */
+  private boolean scriptWorker;
+  /**
+   * 任务工作线程数 [选填] ：各任务复用的常驻工作线程数，全部繁忙时按需扩容至2048（不小于该值）；小于等于0时使用默认值256
+   */
+  private int jobThreadPoolSize;
+  /**
+   * 单个任务的调度队列长度 [选填] ：串行执行的任务排队超出该长度时拒绝调度（背压）；小于等于0时使用默认值1000
+   */
+  private int jobQueueSize;
+  /**
+   * 所有任务的调度队列总长度 [选填] ：排队的调度总数超出该长度时拒绝调度（背压）；小于等于0时使用默认值100000
+   */
+  private int jobQueueTotalSize;
 
   // ---------------------- start + stop ----------------------
 
@@ -74,8 +104,13 @@ public class XxlJobExecutor {
    */
   public void start() throws BindException {
 
-    // 初始化log日志
+    // 初始化log日志、任务日志分段存储、任务日志异步写入器
     XxlJobFileAppender.initLogPath(logPath);
+    XxlJobHelper.setLogCallerInfo(logCallerInfo);
+    if (JobLogSegmentStore.LOG_STORE_SEGMENT.equalsIgnoreCase(logStore)) {
+      JobLogSegmentStore.getInstance().start();
+    }
+    JobLogWriter.getInstance().start();
 
     // 初始化调用调度中心的client列表
     initAdminBizList(adminAddresses, accessToken);
@@ -86,6 +121,15 @@ public class XxlJobExecutor {
     // 初始化触发器回调线程(用RPC回调调度中心接口)
     TriggerCallbackThread.getInstance().start();
 
+    // 初始化任务工作线程池、任务超时计时器
+    JobThreadPool.getInstance().start(jobThreadPoolSize, jobQueueSize, jobQueueTotalSize);
+    JobTimeoutTimer.getInstance().start();
+
+    // 初始化脚本常驻解释器池
+    if (scriptWorker) {
+      ScriptWorkerPool.getInstance().start();
+    }
+
     // 初始化执行器服务
     initEmbedServer(address, ip, port, appname, accessToken);
   }
@@ -118,6 +162,13 @@ public class XxlJobExecutor {
     }
     jobHandlerRepository.clear();
 
+    // 销毁任务工作线程池、任务超时计时器
+    JobThreadPool.getInstance().toStop();
+    JobTimeoutTimer.getInstance().toStop();
+
+    // 关闭脚本常驻解释器
+    ScriptWorkerPool.getInstance().toStop();
+
     // destory JobLogFileCleanThread
     // 销毁日志文件清理线程
     JobLogFileCleanThread.getInstance().toStop();
@@ -126,6 +177,10 @@ public class XxlJobExecutor {
     // 销毁调度回调线程
     TriggerCallbackThread.getInstance().toStop();
 
+    // 销毁任务日志异步写入器，写入剩余日志；关闭任务日志分段存储
+    JobLogWriter.getInstance().toStop();
+    JobLogSegmentStore.getInstance().toStop();
+
   }
 
   // ---------------------- admin-client (rpc invoker)（管理客户端<rpc调用>） ----------------------
@@ -296,6 +351,21 @@ public class XxlJobExecutor {
     return null;
   }
 
+  /**
+   * 移除空闲超时的任务线程，移除期间有新调度的任务线程不移除.
+   *
+   * @param idleTimeout 空闲超时时间（毫秒）
+   */
+  public static void removeIdleJobThread(long idleTimeout) {
+    for (Map.Entry<Integer, JobThread> item : jobThreadRepository.entrySet()) {
+      JobThread jobThread = item.getValue();
+      if (jobThread.isIdleTimeout(idleTimeout)
+          && jobThreadRepository.remove(item.getKey(), jobThread)) {
+        jobThread.toStop("excutor idel times over limit.");
+      }
+    }
+  }
+
   /**
    * 获取对应的任务id的任务线程.
    *
@@ -306,4 +376,13 @@ public class XxlJobExecutor {
     return jobThreadRepository.get(jobId);
   }
 
+  /**
+   * 任务线程数.
+   *
+   * @return 任务线程数
+   */
+  public static int getJobThreadCount() {
+    return jobThreadRepository.size();
+  }
+
 }
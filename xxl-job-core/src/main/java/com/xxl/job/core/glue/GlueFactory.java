@@ -2,20 +2,32 @@ package com.xxl.job.core.glue;
 
 import com.xxl.job.core.glue.impl.SpringGlueFactory;
 import com.xxl.job.core.handler.IJobHandler;
+import com.xxl.job.core.util.DigestUtil;
 import groovy.lang.GroovyClassLoader;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
 
-import java.math.BigInteger;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * glue 工厂,生产类/通过名称生成对象 class/object by name
  *
+ * <p>
+ * 编译后的类按源码缓存，缓存有上限；源码更新后可通过 {@link #precompile(String)} 后台预编译.
+ * 淘汰只移出缓存，不关闭类加载器、不移除Groovy元类信息：正在执行的任务仍可能使用该类，类加载器及其加载的类在不再被引用后由GC回收.
+ * </p>
+ *
  * @author xuxueli 2016-1-2 20:02:27
  */
+@Slf4j
 public class GlueFactory {
 
 
@@ -41,14 +53,49 @@ public class GlueFactory {
 
 
     /**
-     * Groovy类加载器
+     * 类缓存最大数量，超出时淘汰最久未使用的类.
+     */
+    private static final int MAX_CLASS_CACHE_SIZE = 128;
+    /**
+     * 预编译队列长度，队列满时在当前线程编译.
+     */
+    private static final int PRECOMPILE_QUEUE_SIZE = 100;
+
+    /**
+     * Groovy类加载器的父加载器
      * <pre>bootstrap class loader -->extensions class loader-->system class loader-->.GroovyClassLoader-->GroovyClassLoader.InnerLoader</pre>
+     * 每个源码版本使用独立的GroovyClassLoader，淘汰后类加载器及其加载的类可被回收.
+     */
+    private final ClassLoader parentClassLoader = Thread.currentThread().getContextClassLoader() != null
+            ? Thread.currentThread().getContextClassLoader() : GlueFactory.class.getClassLoader();
+    /**
+     * 类缓存.<groovy源码的MD5，编译结果>，按访问顺序排列，由自身加锁保护
      */
-    private GroovyClassLoader groovyClassLoader = new GroovyClassLoader();
+    private final LinkedHashMap<String, CompletableFuture<Class<?>>> classCache =
+            new LinkedHashMap<String, CompletableFuture<Class<?>>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Class<?>>> eldest) {
+                    return size() > MAX_CLASS_CACHE_SIZE;
+                }
+            };
     /**
-     * 类缓存.<groovy源码通过MD5加密后的字符串，源码通过类加载器生成的类对象>
+     * 预编译线程池.
      */
-    private ConcurrentMap<String, Class<?>> classCache = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor precompilePool = new ThreadPoolExecutor(
+            1,
+            1,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(PRECOMPILE_QUEUE_SIZE),
+            r -> {
+                Thread thread = new Thread(r, "xxl-job, executor GlueFactory-precompile");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    {
+        precompilePool.allowCoreThreadTimeOut(true);
+    }
 
     /**
      * 加载新的实例 load new instance, prototype
@@ -80,28 +127,88 @@ public class GlueFactory {
     }
 
     /**
-     * Groovy源码通过类加载器生成类对象.
+     * 后台预编译Groovy源码，已编译或正在编译时忽略；之后调度时直接使用编译结果.
+     *
+     * @param codeSource Groovy源码
+     */
+    public void precompile(String codeSource) {
+        if (StringUtils.isBlank(codeSource)) {
+            return;
+        }
+        String key = DigestUtil.md5Hex(codeSource);
+        CompletableFuture<Class<?>> future;
+        synchronized (classCache) {
+            if (classCache.containsKey(key)) {
+                return;
+            }
+            future = new CompletableFuture<>();
+            classCache.put(key, future);
+        }
+        CompletableFuture<Class<?>> compileFuture = future;
+        try {
+            precompilePool.execute(() -> compile(key, codeSource, compileFuture));
+        } catch (RejectedExecutionException e) {
+            compile(key, codeSource, compileFuture);
+        }
+    }
+
+    /**
+     * Groovy源码通过类加载器生成类对象，同一源码只编译一次.
      *
      * @param codeSource Groovy源码
      * @return Groovy源码生成的类对象
      */
     private Class<?> getCodeSourceClass(String codeSource) {
+        String key = DigestUtil.md5Hex(codeSource);
+        CompletableFuture<Class<?>> future;
+        boolean compileHere = false;
+        synchronized (classCache) {
+            future = classCache.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                classCache.put(key, future);
+                compileHere = true;
+            }
+        }
+        //加载类型对象，不存在就通过类加载器生成；正在预编译时等待编译完成
+        if (compileHere) {
+            compile(key, codeSource, future);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
 
+    /**
+     * 使用独立的类加载器编译，失败时移出缓存，下次重新编译.
+     */
+    private void compile(String key, String codeSource, CompletableFuture<Class<?>> future) {
+        GroovyClassLoader groovyClassLoader = new GroovyClassLoader(parentClassLoader);
         try {
-            // md5
-            byte[] md5 = MessageDigest.getInstance("MD5").digest(codeSource.getBytes());
-            String md5Str = new BigInteger(1, md5).toString(16);
-
-            //加载类型对象，不存在就通过类加载器生成
-            Class<?> clazz = classCache.get(md5Str);
-            if (clazz == null) {
-                clazz = groovyClassLoader.parseClass(codeSource);
-                classCache.putIfAbsent(md5Str, clazz);
+            future.complete(groovyClassLoader.parseClass(codeSource));
+        } catch (Throwable e) {
+            synchronized (classCache) {
+                classCache.remove(key, future);
             }
-            return clazz;
-        } catch (NoSuchAlgorithmException e) {
-            //加密抛出异常后直接生成类，不加入缓存
-            return groovyClassLoader.parseClass(codeSource);
+            closeQuietly(groovyClassLoader);
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static void closeQuietly(GroovyClassLoader groovyClassLoader) {
+        try {
+            groovyClassLoader.clearCache();
+            groovyClassLoader.close();
+        } catch (IOException e) {
+            log.warn(">>>>>>>>>>> xxl-glue, close GroovyClassLoader fail.", e);
         }
     }
 
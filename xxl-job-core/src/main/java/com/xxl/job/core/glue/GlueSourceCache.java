@@ -0,0 +1,108 @@
+package com.xxl.job.core.glue;
+
+import com.xxl.job.core.biz.AdminBiz;
+import com.xxl.job.core.biz.model.GlueParam;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.executor.XxlJobExecutor;
+import com.xxl.job.core.util.DigestUtil;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * GLUE源码本地缓存
+ * <p>
+ * 调度请求只携带GLUE源码的MD5，执行器按任务缓存最近一个版本的源码；未命中时从调度中心加载，并校验MD5与调度请求一致.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class GlueSourceCache {
+    private static GlueSourceCache instance = new GlueSourceCache();
+
+    public static GlueSourceCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * 源码缓存.<任务id，最近一个版本的源码>
+     */
+    private final ConcurrentMap<Integer, GlueSource> sourceCache = new ConcurrentHashMap<>();
+
+    /**
+     * 加载调度请求对应的GLUE源码.
+     *
+     * @param triggerParam 调度参数
+     * @return GLUE源码，加载失败或源码已变更时返回null
+     */
+    public String load(TriggerParam triggerParam) {
+        // 调度请求携带源码（旧版本调度中心）或无源码
+        if (triggerParam.getGlueSource() != null || triggerParam.getGlueHash() == null) {
+            return triggerParam.getGlueSource();
+        }
+        GlueSource glueSource = sourceCache.get(triggerParam.getJobId());
+        if (glueSource != null && glueSource.hash.equals(triggerParam.getGlueHash())) {
+            return glueSource.source;
+        }
+
+        String source = fetch(triggerParam.getJobId());
+        if (source == null) {
+            return null;
+        }
+        String hash = DigestUtil.md5Hex(source);
+        if (!hash.equals(triggerParam.getGlueHash())) {
+            log.warn(">>>>>>>>>>> xxl-job glue source changed since trigger, jobId:{}", triggerParam.getJobId());
+            return null;
+        }
+        sourceCache.put(triggerParam.getJobId(), new GlueSource(hash, source));
+        return source;
+    }
+
+    /**
+     * 从调度中心加载任务当前的GLUE源码.
+     *
+     * @param jobId 任务id
+     * @return GLUE源码，全部调度中心加载失败时返回null
+     */
+    private String fetch(int jobId) {
+        List<AdminBiz> adminBizList = XxlJobExecutor.getAdminBizList();
+        if (adminBizList == null) {
+            return null;
+        }
+        GlueParam glueParam = new GlueParam();
+        glueParam.setJobId(jobId);
+        for (AdminBiz adminBiz : adminBizList) {
+            try {
+                ReturnT<GlueParam> glueResult = adminBiz.glueSource(glueParam);
+                if (glueResult != null && ReturnT.SUCCESS_CODE == glueResult.getCode()
+                        && glueResult.getContent() != null && glueResult.getContent().getGlueSource() != null) {
+                    return glueResult.getContent().getGlueSource();
+                }
+                log.warn(">>>>>>>>>>> xxl-job glue source load fail, jobId:{}, glueResult:{}", jobId, glueResult);
+            } catch (Exception e) {
+                log.warn(">>>>>>>>>>> xxl-job glue source load error, jobId:{}", jobId, e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 缓存的GLUE源码.
+     */
+    @AllArgsConstructor
+    private static class GlueSource {
+        /**
+         * 源码MD5
+         */
+        private final String hash;
+        /**
+         * 源码
+         */
+        private final String source;
+    }
+}
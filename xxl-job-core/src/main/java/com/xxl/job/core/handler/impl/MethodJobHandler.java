@@ -1,20 +1,46 @@
 package com.xxl.job.core.handler.impl;
 
-import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.handler.IJobHandler;
-import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 /**
  * 方法任务处理器.
+ * <p>
+ * 创建（注册）时将目标方法绑定为直接调用器：优先通过 LambdaMetafactory 生成调用类（JDK9+ 在目标类中生成，可调用非公共方法；
+ * JDK8 仅限公共方法），不满足条件时使用 MethodHandle，均无法绑定时（如方法带参数）仍使用反射调用；
+ * 目标方法抛出的异常仍包装为 {@link InvocationTargetException}.
+ * </p>
  *
  * @author xuxueli 2019-12-11 21:12:18
  */
-@AllArgsConstructor
+@Slf4j
 public class MethodJobHandler extends IJobHandler {
 
+  /**
+   * MethodHandles.privateLookupIn(Class, Lookup)，JDK8 时为null.
+   */
+  private static final MethodHandle PRIVATE_LOOKUP_IN;
+
+  static {
+    MethodHandle privateLookupIn = null;
+    try {
+      privateLookupIn = MethodHandles.lookup().findStatic(MethodHandles.class, "privateLookupIn",
+          MethodType.methodType(MethodHandles.Lookup.class, Class.class, MethodHandles.Lookup.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      // JDK8
+    }
+    PRIVATE_LOOKUP_IN = privateLookupIn;
+  }
+
   /**
    * 目标类
    */
@@ -24,30 +50,50 @@ public class MethodJobHandler extends IJobHandler {
    */
   private final Method method;
   /**
-   * 目标初始化方法
+   * 目标方法调用器
+   */
+  private final Invoker invoker;
+  /**
+   * 目标初始化方法调用器
    */
-  private Method initMethod;
+  private final Invoker initInvoker;
   /**
-   * 目标销毁方法
+   * 目标销毁方法调用器
    */
-  private Method destroyMethod;
+  private final Invoker destroyInvoker;
+
+  /**
+   * 创建方法任务处理器，方法需已设置可访问.
+   *
+   * @param target        目标类
+   * @param method        目标方法
+   * @param initMethod    目标初始化方法，可为null
+   * @param destroyMethod 目标销毁方法，可为null
+   */
+  public MethodJobHandler(Object target, Method method, Method initMethod, Method destroyMethod) {
+    this.target = target;
+    this.method = method;
+    this.invoker = bind(target, method);
+    this.initInvoker = initMethod != null ? bind(target, initMethod) : null;
+    this.destroyInvoker = destroyMethod != null ? bind(target, destroyMethod) : null;
+  }
 
   @Override
-  public void execute() throws InvocationTargetException, IllegalAccessException {
-    method.invoke(target);
+  public void execute() throws InvocationTargetException {
+    invoke(invoker);
   }
 
   @Override
-  public void init() throws InvocationTargetException, IllegalAccessException {
-    if (initMethod != null) {
-      initMethod.invoke(target);
+  public void init() throws InvocationTargetException {
+    if (initInvoker != null) {
+      invoke(initInvoker);
     }
   }
 
   @Override
-  public void destroy() throws InvocationTargetException, IllegalAccessException {
-    if (destroyMethod != null) {
-      destroyMethod.invoke(target);
+  public void destroy() throws InvocationTargetException {
+    if (destroyInvoker != null) {
+      invoke(destroyInvoker);
     }
   }
 
@@ -55,4 +101,104 @@ public class MethodJobHandler extends IJobHandler {
   public String toString() {
     return super.toString() + "[" + target.getClass() + "#" + method.getName() + "]";
   }
+
+  private static void invoke(Invoker invoker) throws InvocationTargetException {
+    try {
+      invoker.invoke();
+    } catch (Throwable e) {
+      // 与反射调用一致
+      throw new InvocationTargetException(e);
+    }
+  }
+
+  /**
+   * 绑定目标方法为调用器.
+   *
+   * @param target 目标类
+   * @param method 无参方法
+   * @return 调用器
+   */
+  private static Invoker bind(Object target, Method method) {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    boolean isStatic = Modifier.isStatic(method.getModifiers());
+    try {
+      MethodHandle methodHandle = lookup.unreflect(method);
+      try {
+        // 调用类在目标类中生成（JDK9+），或在本类中生成（仅限公共方法）
+        MethodHandles.Lookup lambdaLookup = PRIVATE_LOOKUP_IN != null
+            ? (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invokeExact(method.getDeclaringClass(), lookup)
+            : isLambdaAccessible(method) ? lookup : null;
+        if (lambdaLookup != null) {
+          MethodType invokedType = isStatic ? MethodType.methodType(Invoker.class)
+              : MethodType.methodType(Invoker.class, method.getDeclaringClass());
+          CallSite callSite = LambdaMetafactory.metafactory(lambdaLookup, "invoke", invokedType,
+              MethodType.methodType(void.class), methodHandle, MethodType.methodType(void.class));
+          return isStatic ? (Invoker) callSite.getTarget().invoke()
+              : (Invoker) callSite.getTarget().invoke(target);
+        }
+      } catch (Throwable e) {
+        log.debug(">>>>>>>>>>> xxl-job method-jobhandler lambda bind fail, for[{}], use MethodHandle.", method, e);
+      }
+
+      MethodHandle boundHandle = (isStatic ? methodHandle : methodHandle.bindTo(target))
+          .asType(MethodType.methodType(void.class));
+      return () -> {
+        boundHandle.invokeExact();
+      };
+    } catch (IllegalAccessException | RuntimeException e) {
+      log.warn(">>>>>>>>>>> xxl-job method-jobhandler bind fail, for[{}], use reflection.", method, e);
+    }
+
+    return () -> {
+      try {
+        method.invoke(target);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      }
+    };
+  }
+
+  /**
+   * JDK8 生成的调用类与本类同加载器，只能直接调用公共类的公共方法，且方法签名中的类型对本类可见.
+   */
+  private static boolean isLambdaAccessible(Method method) {
+    Class<?> declaringClass = method.getDeclaringClass();
+    if (!Modifier.isPublic(method.getModifiers())) {
+      return false;
+    }
+    for (Class<?> clazz = declaringClass; clazz != null; clazz = clazz.getDeclaringClass()) {
+      if (!Modifier.isPublic(clazz.getModifiers())) {
+        return false;
+      }
+    }
+    return isVisible(declaringClass) && isVisible(method.getReturnType());
+  }
+
+  private static boolean isVisible(Class<?> clazz) {
+    if (clazz.isPrimitive()) {
+      return true;
+    }
+    if (clazz.isArray()) {
+      return isVisible(clazz.getComponentType());
+    }
+    try {
+      return Class.forName(clazz.getName(), false, MethodJobHandler.class.getClassLoader()) == clazz;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * 目标方法调用器，在目标类中生成调用类时需对目标类可见.
+   */
+  @FunctionalInterface
+  public interface Invoker {
+
+    /**
+     * 调用目标方法.
+     *
+     * @throws Throwable 目标方法抛出的异常
+     */
+    void invoke() throws Throwable;
+  }
 }
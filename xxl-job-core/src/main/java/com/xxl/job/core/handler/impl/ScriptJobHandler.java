@@ -4,7 +4,9 @@ import com.xxl.job.core.context.XxlJobContext;
 import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.glue.GlueTypeEnum;
 import com.xxl.job.core.handler.IJobHandler;
+import com.xxl.job.core.log.JobLogWriter;
 import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.thread.ScriptWorkerPool;
 import com.xxl.job.core.util.ScriptUtil;
 import java.io.File;
 import java.io.IOException;
@@ -107,7 +109,15 @@ public class ScriptJobHandler extends IJobHandler {
 
     // 调用脚本
     XxlJobHelper.log("----------- script file:" + scriptFileName + " -----------");
-    int exitValue = ScriptUtil.execToFile(cmd, scriptFileName, logFileName, scriptParams);
+    // 脚本输出直接追加到日志文件，先写入已追加的日志，保证顺序
+    JobLogWriter.getInstance().flush(logFileName);
+    int exitValue;
+    if (ScriptWorkerPool.getInstance().supports(glueType, logFileName)) {
+      // 常驻解释器执行
+      exitValue = ScriptWorkerPool.getInstance().execToFile(glueType, scriptFileName, logFileName, scriptParams);
+    } else {
+      exitValue = ScriptUtil.execToFile(cmd, scriptFileName, logFileName, scriptParams);
+    }
 
     if (exitValue == 0) {
       XxlJobHelper.handleSuccess();
@@ -0,0 +1,503 @@
+package com.xxl.job.core.log;
+
+import com.xxl.job.core.biz.model.HandleCallbackParam;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 回调失败日志（分段、追加写）
+ * <p>
+ * 回调失败的执行结果按记录追加到分段文件，记录格式：长度(4) + CRC32(4) + 内容；每次追加批量写入并只刷盘一次.
+ * 重试时从检查点顺序读取，回调成功后推进检查点并删除已确认的分段；启动时截断最后一个分段中不完整的记录.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class CallbackJournal {
+
+    /**
+     * 分段文件前缀.
+     */
+    private static final String SEGMENT_PREFIX = "callback-";
+    /**
+     * 分段文件后缀.
+     */
+    private static final String SEGMENT_SUFFIX = ".wal";
+    /**
+     * 检查点文件名称.
+     */
+    private static final String CHECKPOINT_FILE_NAME = "checkpoint";
+    /**
+     * 默认分段文件最大字节数.
+     */
+    private static final long SEGMENT_MAX_SIZE = 64L * 1024 * 1024;
+    /**
+     * 记录头字节数：长度 + CRC32.
+     */
+    private static final int RECORD_HEADER_SIZE = 8;
+    /**
+     * 记录内容最大字节数，超出视为损坏.
+     */
+    private static final int RECORD_MAX_SIZE = 16 * 1024 * 1024;
+    /**
+     * 记录内容中回调参数定长部分的字节数.
+     */
+    private static final int RECORD_FIXED_SIZE = 24;
+
+    /**
+     * 日志目录.
+     */
+    private final File journalPath;
+    /**
+     * 分段文件最大字节数，超出时滚动到新分段.
+     */
+    private final long segmentMaxSize;
+    /**
+     * 分段id.
+     */
+    private final TreeSet<Long> segmentIds = new TreeSet<>();
+    /**
+     * 当前写入的分段.
+     */
+    private FileChannel writeChannel;
+    /**
+     * 当前写入的分段id.
+     */
+    private long writeSegmentId;
+    /**
+     * 当前写入的分段已写入字节数.
+     */
+    private long writeOffset;
+    /**
+     * 当前读取的分段.
+     */
+    private FileChannel readChannel;
+    /**
+     * 当前读取的分段id.
+     */
+    private long readSegmentId = -1;
+    /**
+     * 检查点：已确认的分段id.
+     */
+    private long checkpointSegmentId;
+    /**
+     * 检查点：已确认的分段内偏移.
+     */
+    private long checkpointOffset;
+
+    /**
+     * 打开回调失败日志，不存在时创建.
+     *
+     * @param journalPath 日志目录
+     * @throws IOException 打开失败
+     */
+    public CallbackJournal(File journalPath) throws IOException {
+        this(journalPath, SEGMENT_MAX_SIZE);
+    }
+
+    /**
+     * 打开回调失败日志，不存在时创建.
+     *
+     * @param journalPath    日志目录
+     * @param segmentMaxSize 分段文件最大字节数
+     * @throws IOException 打开失败
+     */
+    public CallbackJournal(File journalPath, long segmentMaxSize) throws IOException {
+        this.journalPath = journalPath;
+        this.segmentMaxSize = segmentMaxSize;
+        if (journalPath.isFile()) {
+            Files.delete(journalPath.toPath());
+        }
+        if (!journalPath.exists() && !journalPath.mkdirs()) {
+            throw new IOException("xxl-job, callback journal path create fail: " + journalPath);
+        }
+
+        // 分段
+        File[] files = journalPath.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        segmentIds.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                                name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        log.warn(">>>>>>>>>>> xxl-job, callback journal ignore file: {}", file);
+                    }
+                }
+            }
+        }
+
+        // 检查点
+        File checkpointFile = new File(journalPath, CHECKPOINT_FILE_NAME);
+        if (checkpointFile.exists()) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpointFile.toPath()));
+            if (buffer.remaining() >= 16) {
+                checkpointSegmentId = buffer.getLong();
+                checkpointOffset = buffer.getLong();
+            }
+        }
+        if (segmentIds.isEmpty() || checkpointSegmentId > segmentIds.last()) {
+            // 分段已全部确认
+            segmentIds.add(Math.max(checkpointSegmentId, 1));
+        }
+        if (checkpointSegmentId < segmentIds.first()) {
+            checkpointSegmentId = segmentIds.first();
+            checkpointOffset = 0;
+        }
+
+        // 最后一个分段：截断不完整的记录
+        writeSegmentId = segmentIds.last();
+        writeChannel = FileChannel.open(segmentFile(writeSegmentId).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeOffset = validLength(writeChannel);
+        if (writeOffset < writeChannel.size()) {
+            log.warn(">>>>>>>>>>> xxl-job, callback journal truncate segment {} from {} to {}",
+                    writeSegmentId, writeChannel.size(), writeOffset);
+            writeChannel.truncate(writeOffset);
+        }
+        if (checkpointSegmentId == writeSegmentId && checkpointOffset > writeOffset) {
+            checkpointOffset = writeOffset;
+        }
+    }
+
+    /**
+     * 追加回调参数，批量写入并刷盘一次；超出记录最大字节数的 handleMsg 截断后写入.
+     *
+     * @param callbackParamList 回调参数列表
+     * @throws IOException 写入失败
+     */
+    public synchronized void append(List<HandleCallbackParam> callbackParamList) throws IOException {
+        if (callbackParamList == null || callbackParamList.isEmpty()) {
+            return;
+        }
+        if (writeOffset >= segmentMaxSize) {
+            rollSegment();
+        }
+
+        List<byte[]> contents = new ArrayList<>(callbackParamList.size());
+        int size = 0;
+        for (HandleCallbackParam callbackParam : callbackParamList) {
+            byte[] content = encode(callbackParam);
+            contents.add(content);
+            size += RECORD_HEADER_SIZE + content.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32 crc32 = new CRC32();
+        for (byte[] content : contents) {
+            crc32.reset();
+            crc32.update(content, 0, content.length);
+            buffer.putInt(content.length).putInt((int) crc32.getValue()).put(content);
+        }
+        buffer.flip();
+
+        try {
+            while (buffer.hasRemaining()) {
+                writeChannel.write(buffer, writeOffset + buffer.position());
+            }
+            writeChannel.force(false);
+        } catch (IOException e) {
+            // 丢弃未完整写入的记录
+            writeChannel.truncate(writeOffset);
+            throw e;
+        }
+        writeOffset += size;
+    }
+
+    /**
+     * 从检查点顺序读取回调参数.
+     *
+     * @param maxSize 最大条数
+     * @return 读取的批次，无待重试的回调时列表为空
+     * @throws IOException 读取失败
+     */
+    public synchronized Batch read(int maxSize) throws IOException {
+        List<HandleCallbackParam> callbackParamList = new ArrayList<>();
+        long segmentId = checkpointSegmentId;
+        long offset = checkpointOffset;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (callbackParamList.size() < maxSize) {
+            boolean active = segmentId == writeSegmentId;
+            FileChannel channel = active ? writeChannel : readChannel(segmentId);
+            long limit = active ? writeOffset : channel.size();
+
+            // 当前分段读取完毕，进入下一个分段
+            if (offset + RECORD_HEADER_SIZE > limit) {
+                Long nextSegmentId = segmentIds.higher(segmentId);
+                if (nextSegmentId == null) {
+                    break;
+                }
+                segmentId = nextSegmentId;
+                offset = 0;
+                continue;
+            }
+
+            header.clear();
+            readFully(channel, header, offset);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            byte[] content = length >= 0 && length <= RECORD_MAX_SIZE
+                    && offset + RECORD_HEADER_SIZE + length <= limit ? new byte[length] : null;
+            if (content != null) {
+                readFully(channel, ByteBuffer.wrap(content), offset + RECORD_HEADER_SIZE);
+            }
+            if (content == null || crc != crc(content)) {
+                // 记录损坏，跳过当前分段的剩余部分
+                log.error(">>>>>>>>>>> xxl-job, callback journal record corrupted, segment:{}, offset:{}",
+                        segmentId, offset);
+                offset = limit;
+                continue;
+            }
+            callbackParamList.add(decode(content));
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        return new Batch(Collections.unmodifiableList(callbackParamList), segmentId, offset);
+    }
+
+    /**
+     * 确认批次已回调成功：推进检查点并删除已确认的分段.
+     *
+     * @param batch 读取的批次
+     * @throws IOException 写入检查点失败
+     */
+    public synchronized void commit(Batch batch) throws IOException {
+        if (batch.getSegmentId() < checkpointSegmentId
+                || (batch.getSegmentId() == checkpointSegmentId && batch.getOffset() <= checkpointOffset)) {
+            return;
+        }
+        checkpointSegmentId = batch.getSegmentId();
+        checkpointOffset = batch.getOffset();
+
+        // 检查点：写入临时文件后原子替换
+        File checkpointFile = new File(journalPath, CHECKPOINT_FILE_NAME);
+        File tempFile = new File(journalPath, CHECKPOINT_FILE_NAME + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(16).putLong(checkpointSegmentId).putLong(checkpointOffset);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(tempFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        // 删除已确认的分段
+        while (segmentIds.first() < checkpointSegmentId) {
+            long segmentId = segmentIds.pollFirst();
+            if (segmentId == readSegmentId) {
+                closeReadChannel();
+            }
+            Files.deleteIfExists(segmentFile(segmentId).toPath());
+        }
+    }
+
+    /**
+     * 是否没有待重试的回调.
+     *
+     * @return true，没有待重试的回调，否则，false
+     */
+    public synchronized boolean isEmpty() {
+        return checkpointSegmentId == writeSegmentId && checkpointOffset >= writeOffset;
+    }
+
+    /**
+     * 关闭.
+     */
+    public synchronized void close() {
+        closeReadChannel();
+        try {
+            writeChannel.close();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 滚动到新分段.
+     *
+     * @throws IOException 创建分段失败
+     */
+    private void rollSegment() throws IOException {
+        writeChannel.force(false);
+        writeChannel.close();
+        writeSegmentId++;
+        writeChannel = FileChannel.open(segmentFile(writeSegmentId).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        writeOffset = 0;
+        segmentIds.add(writeSegmentId);
+    }
+
+    /**
+     * 打开读取的分段，已打开时复用.
+     *
+     * @param segmentId 分段id
+     * @return 分段
+     * @throws IOException 打开失败
+     */
+    private FileChannel readChannel(long segmentId) throws IOException {
+        if (readSegmentId != segmentId) {
+            closeReadChannel();
+            readChannel = FileChannel.open(segmentFile(segmentId).toPath(), StandardOpenOption.READ);
+            readSegmentId = segmentId;
+        }
+        return readChannel;
+    }
+
+    /**
+     * 关闭读取的分段.
+     */
+    private void closeReadChannel() {
+        if (readChannel != null) {
+            try {
+                readChannel.close();
+            } catch (IOException e) {
+                log.error(e.getMessage(), e);
+            }
+            readChannel = null;
+            readSegmentId = -1;
+        }
+    }
+
+    /**
+     * 分段文件.
+     *
+     * @param segmentId 分段id
+     * @return 分段文件, like "callbacklog/callback-00000000000000000001.wal"
+     */
+    private File segmentFile(long segmentId) {
+        return new File(journalPath, String.format("%s%020d%s", SEGMENT_PREFIX, segmentId, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * 分段中完整记录的长度.
+     *
+     * @param channel 分段
+     * @return 完整记录的长度
+     * @throws IOException 读取失败
+     */
+    private static long validLength(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (offset + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            readFully(channel, header, offset);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length < 0 || length > RECORD_MAX_SIZE || offset + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            byte[] content = new byte[length];
+            readFully(channel, ByteBuffer.wrap(content), offset + RECORD_HEADER_SIZE);
+            if (crc != crc(content)) {
+                break;
+            }
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("xxl-job, callback journal unexpected end of segment.");
+            }
+        }
+    }
+
+    private static int crc(byte[] content) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(content, 0, content.length);
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * 编码回调参数：logId(8) + logDateTim(8) + handleCode(4) + handleMsg长度(4，null为-1) + handleMsg.
+     */
+    private static byte[] encode(HandleCallbackParam callbackParam) {
+        byte[] handleMsg = callbackParam.getHandleMsg() != null
+                ? callbackParam.getHandleMsg().getBytes(StandardCharsets.UTF_8) : null;
+        if (handleMsg != null && RECORD_FIXED_SIZE + handleMsg.length > RECORD_MAX_SIZE) {
+            log.warn(">>>>>>>>>>> xxl-job, callback journal truncate handleMsg, logId:{}, length:{}",
+                    callbackParam.getLogId(), handleMsg.length);
+            handleMsg = truncate(handleMsg, RECORD_MAX_SIZE - RECORD_FIXED_SIZE);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_FIXED_SIZE + (handleMsg != null ? handleMsg.length : 0));
+        buffer.putLong(callbackParam.getLogId())
+                .putLong(callbackParam.getLogDateTim())
+                .putInt(callbackParam.getHandleCode())
+                .putInt(handleMsg != null ? handleMsg.length : -1);
+        if (handleMsg != null) {
+            buffer.put(handleMsg);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 按字节截断UTF-8内容，不截断多字节字符.
+     *
+     * @param content UTF-8内容
+     * @param maxSize 最大字节数
+     * @return 截断后的内容
+     */
+    private static byte[] truncate(byte[] content, int maxSize) {
+        int length = maxSize;
+        // 回退到字符起始字节（非 10xxxxxx）
+        while (length > 0 && (content[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        byte[] truncated = new byte[length];
+        System.arraycopy(content, 0, truncated, 0, length);
+        return truncated;
+    }
+
+    private static HandleCallbackParam decode(byte[] content) {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        long logId = buffer.getLong();
+        long logDateTim = buffer.getLong();
+        int handleCode = buffer.getInt();
+        int handleMsgLength = buffer.getInt();
+        String handleMsg = handleMsgLength >= 0
+                ? new String(content, buffer.position(), handleMsgLength, StandardCharsets.UTF_8) : null;
+        return new HandleCallbackParam(logId, logDateTim, handleCode, handleMsg);
+    }
+
+    /**
+     * 读取的批次：回调参数及读取结束位置.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Batch {
+        /**
+         * 回调参数列表.
+         */
+        private final List<HandleCallbackParam> callbackParamList;
+        /**
+         * 结束位置：分段id.
+         */
+        private final long segmentId;
+        /**
+         * 结束位置：分段内偏移.
+         */
+        private final long offset;
+    }
+}
@@ -0,0 +1,666 @@
+package com.xxl.job.core.log;
+
+import com.xxl.job.core.biz.model.LogResult;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 任务日志分段存储
+ * <p>
+ * 同一天所有执行的日志追加写入少量大的分段文件，而不是每次执行一个日志文件，避免高频任务产生海量小文件：
+ * <pre>
+ * ---/2017-12-25/segment-00000.seg     分段文件，写满 SEGMENT_SIZE 后滚动
+ * ---/2017-12-25/index-00.idx          索引文件，按 logId 分桶，每条 (logId, 分段号, 偏移, 长度) 定长 INDEX_ENTRY_SIZE 字节
+ * </pre>
+ * 一次执行的日志可能分多次写入，读取时按写入顺序拼接该 logId 的所有索引条目.
+ * 分段与索引位于日志日期目录下，过期时由日志文件清理线程整个目录删除.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class JobLogSegmentStore {
+
+    private static JobLogSegmentStore instance = new JobLogSegmentStore();
+
+    public static JobLogSegmentStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * 执行器日志存储方式配置值：分段存储.
+     */
+    public static final String LOG_STORE_SEGMENT = "segment";
+    /**
+     * 单个分段文件大小上限.
+     */
+    private static final long SEGMENT_SIZE = 256L * 1024 * 1024;
+    /**
+     * 索引分桶数.
+     */
+    private static final int INDEX_BUCKETS = 64;
+    /**
+     * 索引条目大小：logId(8) + 分段号(4) + 偏移(8) + 长度(4).
+     */
+    private static final int INDEX_ENTRY_SIZE = 24;
+    /**
+     * 同时打开的日期目录数上限，超出时关闭最久未使用的.
+     */
+    private static final int MAX_OPEN_DAYS = 4;
+    /**
+     * 日期目录空闲超时时间（毫秒）.
+     */
+    private static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+    /**
+     * 缓存的日志索引数.
+     */
+    private static final int LOG_INDEX_CACHE_SIZE = 256;
+    /**
+     * 读取缓冲区大小.
+     */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String LOG_SUFFIX = ".log";
+
+    /**
+     * 是否启用，未启用时每次执行一个日志文件.
+     */
+    private volatile boolean enabled = false;
+    /**
+     * 已打开的日期目录<目录, 写入状态>，按访问顺序排列，由 this 保护.
+     */
+    private final LinkedHashMap<String, DayStore> dayStoreMap = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * 日志索引缓存<索引文件#logId, 日志索引>，按访问顺序淘汰，由自身保护.
+     */
+    private final Map<String, LogIndex> logIndexCache = new LinkedHashMap<String, LogIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LogIndex> eldest) {
+            return size() > LOG_INDEX_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * 启动，此后任务日志写入分段文件.
+     */
+    public void start() {
+        enabled = true;
+    }
+
+    /**
+     * 停止，关闭所有分段文件.
+     */
+    public synchronized void toStop() {
+        enabled = false;
+        for (DayStore dayStore : dayStoreMap.values()) {
+            dayStore.close();
+        }
+        dayStoreMap.clear();
+    }
+
+    /**
+     * 日志文件是否写入分段文件.
+     *
+     * @param logFileName 日志文件名称, like "logPath/yyyy-MM-dd/9999.log"
+     * @return true，写入分段文件，否则，写入日志文件
+     */
+    public boolean accepts(String logFileName) {
+        return enabled && parseLogId(new File(logFileName)) >= 0;
+    }
+
+    /**
+     * 追加日志.
+     *
+     * @param logFileName 日志文件名称, like "logPath/yyyy-MM-dd/9999.log"
+     * @param content     日志内容
+     * @param offset      内容偏移
+     * @param length      内容长度
+     * @return true，已写入分段文件，否则，未启用或非任务日志文件，需写入日志文件
+     * @throws IOException 写入失败
+     */
+    public synchronized boolean append(String logFileName, byte[] content, int offset, int length)
+            throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        File logFile = new File(logFileName);
+        long logId = parseLogId(logFile);
+        if (logId < 0) {
+            return false;
+        }
+        if (length <= 0) {
+            return true;
+        }
+
+        DayStore dayStore = openDayStore(logFile.getParentFile());
+        try {
+            dayStore.append(logId, content, offset, length);
+        } catch (IOException e) {
+            dayStore.close();
+            dayStoreMap.remove(dayStore.dir.getPath());
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * 关闭空闲超时的日期目录.
+     */
+    public synchronized void closeIdle() {
+        long idleTime = System.currentTimeMillis() - IDLE_TIMEOUT;
+        Iterator<DayStore> iterator = dayStoreMap.values().iterator();
+        while (iterator.hasNext()) {
+            DayStore dayStore = iterator.next();
+            if (dayStore.lastAccessTime > idleTime) {
+                break;
+            }
+            dayStore.close();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 读取一次执行的日志，按字节偏移或行号定位，与 {@link XxlJobFileAppender#readLog(String, int, long)} 一致.
+     * <p>
+     * 日志索引缓存已扫描的索引位置与每个条目的行数，控制台轮询时只扫描新增的索引条目，定位时跳过整条目，不从头统计行数.
+     * </p>
+     *
+     * @param logFileName 日志文件名称, like "logPath/yyyy-MM-dd/9999.log"
+     * @param fromLineNum 开始行号，fromOffset小于0时使用
+     * @param fromOffset  开始字节偏移，小于0时按行号定位
+     * @return 日志内容，分段文件中不存在该日志时返回null
+     */
+    public LogResult readLog(String logFileName, int fromLineNum, long fromOffset) {
+        File logFile = new File(logFileName);
+        long logId = parseLogId(logFile);
+        File dir = logFile.getParentFile();
+        if (logId < 0 || dir == null) {
+            return null;
+        }
+        File indexFile = new File(dir, indexFileName(logId));
+        if (!indexFile.exists()) {
+            return null;
+        }
+
+        LogIndex logIndex = logIndex(indexFile, logId);
+        Map<Integer, FileChannel> segmentChannelMap = new HashMap<>();
+        synchronized (logIndex) {
+            try {
+                logIndex.refresh();
+                List<Chunk> chunkList = logIndex.chunkList;
+                if (chunkList.isEmpty()) {
+                    return null;
+                }
+                ChunkReader reader = new ChunkReader(dir, chunkList, segmentChannelMap);
+                long logSize = logIndex.logSize;
+
+                // 定位：跳过行数已知的整条目，只扫描目标所在的条目
+                long startOffset = 0;
+                int startLineNum = 1;
+                ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+                if (fromOffset >= 0) {
+                    long target = Math.min(fromOffset, logSize);
+                    for (Chunk chunk : chunkList) {
+                        if (startOffset >= target) {
+                            break;
+                        }
+                        if (startOffset + chunk.length <= target) {
+                            startLineNum += chunk.lines(reader, buffer);
+                            startOffset += chunk.length;
+                        } else {
+                            startLineNum += countLines(reader, startOffset, target, buffer);
+                            startOffset = target;
+                        }
+                    }
+                    fromLineNum = startLineNum;
+                } else {
+                    long lastLinesChunkStart = -1;
+                    for (Chunk chunk : chunkList) {
+                        if (startLineNum >= fromLineNum) {
+                            break;
+                        }
+                        int lines = chunk.lines(reader, buffer);
+                        if (startLineNum + lines < fromLineNum) {
+                            startLineNum += lines;
+                            if (lines > 0) {
+                                lastLinesChunkStart = chunk.start;
+                            }
+                        } else {
+                            startOffset = lineEnd(reader, chunk.start, fromLineNum - startLineNum, buffer);
+                            startLineNum = fromLineNum;
+                        }
+                    }
+                    // 行数不足，从最后一个换行之后开始
+                    if (startLineNum < fromLineNum && lastLinesChunkStart >= 0) {
+                        startOffset = lastLineEnd(reader, lastLinesChunkStart, logSize, buffer);
+                    }
+                }
+
+                // 读取
+                ByteBuffer content = ByteBuffer.allocate((int) Math.min(XxlJobFileAppender.MAX_READ_SIZE,
+                        logSize - startOffset));
+                while (content.hasRemaining()) {
+                    if (reader.read(startOffset + content.position(), content) <= 0) {
+                        break;
+                    }
+                }
+                return XxlJobFileAppender.makeLogResult(content.array(), content.position(), fromLineNum,
+                        startLineNum, startOffset, logSize);
+            } catch (IOException e) {
+                log.error(e.getMessage(), e);
+                return new LogResult(fromLineNum, 0, "readLog fail, " + e.getMessage(), false);
+            } finally {
+                for (FileChannel channel : segmentChannelMap.values()) {
+                    closeQuietly(channel);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取日志索引，不存在时创建（尚未扫描）.
+     */
+    private LogIndex logIndex(File indexFile, long logId) {
+        String key = indexFile.getPath() + "#" + logId;
+        synchronized (logIndexCache) {
+            LogIndex logIndex = logIndexCache.get(key);
+            if (logIndex == null) {
+                logIndex = new LogIndex(indexFile, logId);
+                logIndexCache.put(key, logIndex);
+            }
+            return logIndex;
+        }
+    }
+
+    /**
+     * 统计逻辑区间 [from, to) 内的换行数.
+     */
+    private static int countLines(ChunkReader reader, long from, long to, ByteBuffer buffer) throws IOException {
+        int lines = 0;
+        for (long position = from; position < to; ) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - position));
+            int read = reader.read(position, buffer);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    lines++;
+                }
+            }
+            position += read;
+        }
+        return lines;
+    }
+
+    /**
+     * 从逻辑偏移开始第 n 个换行之后的偏移.
+     */
+    private static long lineEnd(ChunkReader reader, long from, int n, ByteBuffer buffer) throws IOException {
+        for (long position = from; ; ) {
+            buffer.clear();
+            int read = reader.read(position, buffer);
+            if (read <= 0) {
+                return position;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n' && --n <= 0) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * 逻辑区间 [from, to) 内最后一个换行之后的偏移，区间内需有换行.
+     */
+    private static long lastLineEnd(ChunkReader reader, long from, long to, ByteBuffer buffer) throws IOException {
+        for (long end = to; end > from; ) {
+            long position = Math.max(from, end - buffer.capacity());
+            buffer.clear();
+            buffer.limit((int) (end - position));
+            int read = reader.read(position, buffer);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = read - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            end = position;
+        }
+        return from;
+    }
+
+    private DayStore openDayStore(File dir) throws IOException {
+        DayStore dayStore = dayStoreMap.get(dir.getPath());
+        if (dayStore == null) {
+            if (!dir.exists()) {
+                dir.mkdirs();
+            }
+            dayStore = new DayStore(dir);
+            dayStoreMap.put(dir.getPath(), dayStore);
+
+            // 超出上限，关闭最久未使用的
+            if (dayStoreMap.size() > MAX_OPEN_DAYS) {
+                Iterator<DayStore> iterator = dayStoreMap.values().iterator();
+                iterator.next().close();
+                iterator.remove();
+            }
+        }
+        dayStore.lastAccessTime = System.currentTimeMillis();
+        return dayStore;
+    }
+
+    /**
+     * 解析日志文件名称中的 logId.
+     *
+     * @param logFile 日志文件, like "logPath/yyyy-MM-dd/9999.log"
+     * @return logId，非任务日志文件时返回-1
+     */
+    private static long parseLogId(File logFile) {
+        String name = logFile.getName();
+        if (!name.endsWith(LOG_SUFFIX) || name.length() == LOG_SUFFIX.length()) {
+            return -1;
+        }
+        long logId = 0;
+        for (int i = 0; i < name.length() - LOG_SUFFIX.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9' || logId > (Long.MAX_VALUE - 9) / 10) {
+                return -1;
+            }
+            logId = logId * 10 + (c - '0');
+        }
+        return logId;
+    }
+
+    private static String indexFileName(long logId) {
+        return String.format("index-%02d.idx", logId % INDEX_BUCKETS);
+    }
+
+    private static String segmentFileName(int segmentId) {
+        return String.format(SEGMENT_PREFIX + "%05d" + SEGMENT_SUFFIX, segmentId);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 日期目录的写入状态：当前分段与已打开的索引分桶.
+     */
+    private static class DayStore {
+        private final File dir;
+        private final FileChannel[] indexChannels = new FileChannel[INDEX_BUCKETS];
+        private final ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        private int segmentId;
+        private FileChannel segmentChannel;
+        private long segmentSize;
+        private long lastAccessTime;
+
+        DayStore(File dir) throws IOException {
+            this.dir = dir;
+            // 续写最后一个分段
+            int lastSegmentId = 0;
+            String[] names = dir.list();
+            if (names != null) {
+                for (String name : names) {
+                    if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                        try {
+                            lastSegmentId = Math.max(lastSegmentId, Integer.parseInt(
+                                    name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException e) {
+                            // ignore
+                        }
+                    }
+                }
+            }
+            openSegment(lastSegmentId);
+        }
+
+        void append(long logId, byte[] content, int offset, int length) throws IOException {
+            if (segmentSize > 0 && segmentSize + length > SEGMENT_SIZE) {
+                segmentChannel.close();
+                openSegment(segmentId + 1);
+            }
+
+            // 先写分段，再写索引，写入失败时只遗留未被索引的内容
+            long position = segmentSize;
+            ByteBuffer buffer = ByteBuffer.wrap(content, offset, length);
+            while (buffer.hasRemaining()) {
+                segmentChannel.write(buffer);
+            }
+            segmentSize += length;
+
+            int bucket = (int) (logId % INDEX_BUCKETS);
+            FileChannel indexChannel = indexChannels[bucket];
+            if (indexChannel == null) {
+                indexChannel = FileChannel.open(new File(dir, indexFileName(logId)).toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                indexChannels[bucket] = indexChannel;
+            }
+            indexEntry.clear();
+            indexEntry.putLong(logId).putInt(segmentId).putLong(position).putInt(length).flip();
+            while (indexEntry.hasRemaining()) {
+                indexChannel.write(indexEntry);
+            }
+        }
+
+        private void openSegment(int segmentId) throws IOException {
+            this.segmentId = segmentId;
+            this.segmentChannel = FileChannel.open(new File(dir, segmentFileName(segmentId)).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            this.segmentSize = segmentChannel.size();
+        }
+
+        void close() {
+            closeQuietly(segmentChannel);
+            for (int i = 0; i < indexChannels.length; i++) {
+                closeQuietly(indexChannels[i]);
+                indexChannels[i] = null;
+            }
+        }
+    }
+
+    /**
+     * 一次执行的日志索引：已扫描的索引位置与按写入顺序的索引条目.
+     */
+    private static class LogIndex {
+        private final File indexFile;
+        private final long logId;
+        private final List<Chunk> chunkList = new ArrayList<>();
+        /**
+         * 已扫描的索引文件大小.
+         */
+        private long scannedSize;
+        /**
+         * 日志总大小.
+         */
+        private long logSize;
+
+        LogIndex(File indexFile, long logId) {
+            this.indexFile = indexFile;
+            this.logId = logId;
+        }
+
+        /**
+         * 扫描上次扫描之后新增的索引条目.
+         */
+        void refresh() throws IOException {
+            try (FileChannel indexChannel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+                // 只读取完整的条目
+                long indexSize = indexChannel.size() / INDEX_ENTRY_SIZE * INDEX_ENTRY_SIZE;
+                if (indexSize < scannedSize) {
+                    // 索引文件已被删除重建
+                    chunkList.clear();
+                    scannedSize = 0;
+                    logSize = 0;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE / INDEX_ENTRY_SIZE * INDEX_ENTRY_SIZE);
+                while (scannedSize < indexSize) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), indexSize - scannedSize));
+                    while (buffer.hasRemaining()) {
+                        if (indexChannel.read(buffer, scannedSize + buffer.position()) < 0) {
+                            break;
+                        }
+                    }
+                    buffer.flip();
+                    if (buffer.limit() < INDEX_ENTRY_SIZE) {
+                        break;
+                    }
+                    while (buffer.remaining() >= INDEX_ENTRY_SIZE) {
+                        long entryLogId = buffer.getLong();
+                        int segmentId = buffer.getInt();
+                        long segmentOffset = buffer.getLong();
+                        int length = buffer.getInt();
+                        if (entryLogId == logId) {
+                            chunkList.add(new Chunk(segmentId, segmentOffset, length, logSize));
+                            logSize += length;
+                        }
+                        scannedSize += INDEX_ENTRY_SIZE;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 索引条目：日志内容在分段文件中的位置.
+     */
+    private static class Chunk {
+        private final int segmentId;
+        private final long position;
+        private final int length;
+        /**
+         * 在日志中的逻辑偏移.
+         */
+        private final long start;
+        /**
+         * 内容中的换行数，首次使用时统计，-1 表示未统计.
+         */
+        private int lines = -1;
+
+        Chunk(int segmentId, long position, int length, long start) {
+            this.segmentId = segmentId;
+            this.position = position;
+            this.length = length;
+            this.start = start;
+        }
+
+        /**
+         * 内容中的换行数.
+         *
+         * @param reader 读取器
+         * @param buffer 缓冲区
+         * @return 换行数
+         * @throws IOException 读取失败
+         */
+        int lines(ChunkReader reader, ByteBuffer buffer) throws IOException {
+            if (lines < 0) {
+                lines = countLines(reader, start, start + length, buffer);
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * 按逻辑偏移读取拼接后的日志内容.
+     */
+    @AllArgsConstructor
+    private static class ChunkReader {
+        private final File dir;
+        private final List<Chunk> chunkList;
+        private final Map<Integer, FileChannel> segmentChannelMap;
+
+        /**
+         * 从逻辑偏移开始读取，最多读取到缓冲区满.
+         *
+         * @param position 逻辑偏移
+         * @param buffer   缓冲区
+         * @return 读取的字节数，已到末尾时返回-1
+         * @throws IOException 读取失败
+         */
+        int read(long position, ByteBuffer buffer) throws IOException {
+            int total = 0;
+            for (int index = chunkIndex(position); index < chunkList.size(); index++) {
+                Chunk chunk = chunkList.get(index);
+                long chunkStart = chunk.start;
+                long chunkEnd = chunkStart + chunk.length;
+                if (!buffer.hasRemaining()) {
+                    break;
+                }
+                if (position < chunkEnd) {
+                    FileChannel channel = segmentChannelMap.get(chunk.segmentId);
+                    if (channel == null) {
+                        channel = FileChannel.open(new File(dir, segmentFileName(chunk.segmentId)).toPath(),
+                                StandardOpenOption.READ);
+                        segmentChannelMap.put(chunk.segmentId, channel);
+                    }
+                    int limit = buffer.limit();
+                    buffer.limit((int) Math.min(limit, buffer.position() + (chunkEnd - position)));
+                    try {
+                        while (buffer.hasRemaining()) {
+                            int read = channel.read(buffer, chunk.position + (position - chunkStart));
+                            if (read <= 0) {
+                                // 分段文件被截断
+                                return total > 0 ? total : -1;
+                            }
+                            position += read;
+                            total += read;
+                        }
+                    } finally {
+                        buffer.limit(limit);
+                    }
+                }
+            }
+            return total > 0 ? total : -1;
+        }
+
+        /**
+         * 二分查找逻辑偏移所在的条目.
+         *
+         * @param position 逻辑偏移
+         * @return 条目下标，超出末尾时返回条目数
+         */
+        private int chunkIndex(long position) {
+            int low = 0;
+            int high = chunkList.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                Chunk chunk = chunkList.get(mid);
+                if (position < chunk.start) {
+                    high = mid - 1;
+                } else if (position >= chunk.start + chunk.length) {
+                    low = mid + 1;
+                } else {
+                    return mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.xxl.job.core.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 任务日志异步写入器
+ * <p>
+ * 任务日志先进入有界队列，由写入线程批量写入：同一批次中同一日志文件的内容合并为一次写入，日志文件句柄缓存复用，空闲后关闭.
+ * 任务执行结束回调前需调用 {@link #flush(String)}，保证该任务的执行日志已全部写入.
+ * 启用分段存储 {@link JobLogSegmentStore} 时写入分段文件.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class JobLogWriter {
+
+    private static JobLogWriter instance = new JobLogWriter();
+
+    public static JobLogWriter getInstance() {
+        return instance;
+    }
+
+    /**
+     * 日志队列长度，队列满时写日志阻塞.
+     */
+    private static final int QUEUE_CAPACITY = 65536;
+    /**
+     * 每批次最大日志条数.
+     */
+    private static final int BATCH_SIZE = 4096;
+    /**
+     * 日志文件句柄最大缓存数，超出时关闭最久未使用的.
+     */
+    private static final int MAX_OPEN_FILES = 256;
+    /**
+     * 日志文件句柄空闲超时时间（毫秒）.
+     */
+    private static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+    /**
+     * 等待日志写入的超时时间（毫秒）.
+     */
+    private static final long FLUSH_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * 日志队列.
+     */
+    private final ArrayBlockingQueue<LogEntry> logQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    /**
+     * 日志文件的写入计数<日志文件名称, 计数>，等待写入完成后移除.
+     */
+    private final ConcurrentMap<String, LogCount> logCountMap = new ConcurrentHashMap<>();
+    /**
+     * 日志写入通知锁.
+     */
+    private final Object flushLock = new Object();
+    /**
+     * 日志文件句柄缓存<日志文件名称, 句柄>，按访问顺序排列，仅由写入线程访问.
+     */
+    private final LinkedHashMap<String, LogFile> logFileMap = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * 写入线程.
+     */
+    private Thread writerThread;
+    /**
+     * 是否已启动，未启动时同步写入.
+     */
+    private volatile boolean started = false;
+    /**
+     * 是否尝试停止.
+     */
+    private volatile boolean toStop = false;
+
+    /**
+     * 启动.
+     */
+    public void start() {
+        toStop = false;
+        writerThread = new Thread(() -> {
+            List<LogEntry> batch = new ArrayList<>(BATCH_SIZE);
+            while (!toStop || !logQueue.isEmpty()) {
+                try {
+                    LogEntry logEntry = logQueue.poll(1, TimeUnit.SECONDS);
+                    if (logEntry != null) {
+                        batch.add(logEntry);
+                        logQueue.drainTo(batch, BATCH_SIZE - 1);
+                        write(batch);
+                        batch.clear();
+                    }
+                    closeIdleLogFile();
+                    JobLogSegmentStore.getInstance().closeIdle();
+                } catch (InterruptedException e) {
+                    if (!toStop) {
+                        log.error(e.getMessage(), e);
+                    }
+                } catch (Exception e) {
+                    log.error(e.getMessage(), e);
+                }
+            }
+            closeAllLogFile();
+            log.info(">>>>>>>>>>> xxl-job, executor JobLogWriter thread destory.");
+        });
+        writerThread.setDaemon(true);
+        writerThread.setName("xxl-job, executor JobLogWriter");
+        writerThread.start();
+        started = true;
+    }
+
+    /**
+     * 停止，写入队列中剩余的日志.
+     */
+    public void toStop() {
+        if (writerThread == null) {
+            return;
+        }
+        started = false;
+        toStop = true;
+        writerThread.interrupt();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            log.error(e.getMessage(), e);
+            Thread.currentThread().interrupt();
+        }
+
+        // 停止期间入队的日志
+        List<LogEntry> batch = new ArrayList<>();
+        logQueue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            write(batch);
+            closeAllLogFile();
+        }
+        writerThread = null;
+    }
+
+    /**
+     * 追加日志到队列.
+     *
+     * @param logFileName 日志文件名称
+     * @param content     日志内容
+     * @return true，已入队，否则，未启动
+     */
+    boolean append(String logFileName, byte[] content) {
+        if (!started) {
+            return false;
+        }
+        LogCount logCount = logCountMap.computeIfAbsent(logFileName, k -> new LogCount());
+        logCount.appended.incrementAndGet();
+        LogEntry logEntry = new LogEntry(logFileName, content, logCount);
+        // 任务被终止（kill、超时）时线程已中断，仍需入队：同步写入会早于队列中同一文件的日志，导致顺序错乱
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    logQueue.put(logEntry);
+                    return true;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 等待调用之前追加到指定日志文件的日志全部写入，超时后从队列中取出未写入的日志同步写入.
+     *
+     * @param logFileName 日志文件名称
+     */
+    public void flush(String logFileName) {
+        LogCount logCount = logCountMap.get(logFileName);
+        if (logCount == null) {
+            return;
+        }
+        long target = logCount.appended.get();
+        if (!await(logCount, target) && started) {
+            // 写入线程积压：取出队列中该日志文件的日志，等待写入线程写完已取走的部分后同步写入，保证顺序
+            List<LogEntry> pendingList = new ArrayList<>();
+            Iterator<LogEntry> iterator = logQueue.iterator();
+            while (iterator.hasNext()) {
+                LogEntry logEntry = iterator.next();
+                if (logEntry.logCount == logCount) {
+                    pendingList.add(logEntry);
+                    iterator.remove();
+                }
+            }
+            log.warn(">>>>>>>>>>> xxl-job, JobLogWriter flush timeout, write synchronously, logFile:{}, pending:{}",
+                    logFileName, pendingList.size());
+            await(logCount, target - pendingList.size());
+
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            for (LogEntry logEntry : pendingList) {
+                content.write(logEntry.content, 0, logEntry.content.length);
+            }
+            try {
+                writeDirect(logFileName, content);
+            } catch (IOException e) {
+                log.error(">>>>>>>>>>> xxl-job, JobLogWriter write fail, logFile:{}", logFileName, e);
+            }
+            written(logCount, pendingList.size());
+        }
+        logCountMap.remove(logFileName, logCount);
+    }
+
+    /**
+     * 等待日志文件的写入计数达到目标.
+     *
+     * @param logCount 写入计数
+     * @param target   目标写入条数
+     * @return true，已写入，否则，超时、中断或已停止
+     */
+    private boolean await(LogCount logCount, long target) {
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT;
+        synchronized (flushLock) {
+            while (logCount.written < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || !started) {
+                    return false;
+                }
+                try {
+                    flushLock.wait(Math.min(remaining, 100));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void written(LogCount logCount, int count) {
+        synchronized (flushLock) {
+            logCount.written += count;
+            flushLock.notifyAll();
+        }
+    }
+
+    /**
+     * 批量写入：同一日志文件的内容合并为一次写入.
+     *
+     * @param batch 日志批次
+     */
+    private void write(List<LogEntry> batch) {
+        Map<String, ByteArrayOutputStream> contentMap = new LinkedHashMap<>();
+        Map<LogCount, Integer> writtenMap = new LinkedHashMap<>();
+        for (LogEntry logEntry : batch) {
+            contentMap.computeIfAbsent(logEntry.logFileName, k -> new ByteArrayOutputStream())
+                    .write(logEntry.content, 0, logEntry.content.length);
+            writtenMap.merge(logEntry.logCount, 1, Integer::sum);
+        }
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, ByteArrayOutputStream> item : contentMap.entrySet()) {
+            LogFile logFile = null;
+            try {
+                JobLogSegmentStore segmentStore = JobLogSegmentStore.getInstance();
+                if (segmentStore.accepts(item.getKey()) && segmentStore.append(item.getKey(),
+                        item.getValue().toByteArray(), 0, item.getValue().size())) {
+                    continue;
+                }
+                logFile = openLogFile(item.getKey());
+                item.getValue().writeTo(logFile.outputStream);
+                logFile.lastAccessTime = now;
+            } catch (IOException e) {
+                log.error(">>>>>>>>>>> xxl-job, JobLogWriter write fail, logFile:{}", item.getKey(), e);
+                if (logFile != null) {
+                    closeLogFile(logFileMap.remove(item.getKey()));
+                }
+            }
+        }
+        synchronized (flushLock) {
+            for (Map.Entry<LogCount, Integer> item : writtenMap.entrySet()) {
+                item.getKey().written += item.getValue();
+            }
+            flushLock.notifyAll();
+        }
+    }
+
+    /**
+     * 不经写入线程直接写入日志文件.
+     *
+     * @param logFileName 日志文件名称
+     * @param content     日志内容
+     * @throws IOException 写入失败
+     */
+    private static void writeDirect(String logFileName, ByteArrayOutputStream content) throws IOException {
+        if (content.size() == 0) {
+            return;
+        }
+        JobLogSegmentStore segmentStore = JobLogSegmentStore.getInstance();
+        if (segmentStore.accepts(logFileName)
+                && segmentStore.append(logFileName, content.toByteArray(), 0, content.size())) {
+            return;
+        }
+        try (FileOutputStream outputStream = new FileOutputStream(logFileName, true)) {
+            content.writeTo(outputStream);
+        }
+    }
+
+    /**
+     * 打开日志文件，已打开时复用.
+     *
+     * @param logFileName 日志文件名称
+     * @return 日志文件句柄
+     * @throws IOException 打开失败
+     */
+    private LogFile openLogFile(String logFileName) throws IOException {
+        LogFile logFile = logFileMap.get(logFileName);
+        if (logFile != null) {
+            return logFile;
+        }
+        File file = new File(logFileName);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        logFile = new LogFile(new FileOutputStream(file, true), System.currentTimeMillis());
+        logFileMap.put(logFileName, logFile);
+
+        // 超出最大缓存数，关闭最久未使用的
+        if (logFileMap.size() > MAX_OPEN_FILES) {
+            Iterator<LogFile> iterator = logFileMap.values().iterator();
+            closeLogFile(iterator.next());
+            iterator.remove();
+        }
+        return logFile;
+    }
+
+    /**
+     * 关闭空闲超时的日志文件，按访问顺序检查.
+     */
+    private void closeIdleLogFile() {
+        long idleTime = System.currentTimeMillis() - IDLE_TIMEOUT;
+        Iterator<LogFile> iterator = logFileMap.values().iterator();
+        while (iterator.hasNext()) {
+            LogFile logFile = iterator.next();
+            if (logFile.lastAccessTime > idleTime) {
+                break;
+            }
+            closeLogFile(logFile);
+            iterator.remove();
+        }
+    }
+
+    private void closeAllLogFile() {
+        for (LogFile logFile : logFileMap.values()) {
+            closeLogFile(logFile);
+        }
+        logFileMap.clear();
+    }
+
+    private static void closeLogFile(LogFile logFile) {
+        if (logFile == null) {
+            return;
+        }
+        try {
+            logFile.outputStream.close();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 日志条目.
+     */
+    @AllArgsConstructor
+    private static class LogEntry {
+        private final String logFileName;
+        private final byte[] content;
+        private final LogCount logCount;
+    }
+
+    /**
+     * 日志文件的写入计数.
+     */
+    private static class LogCount {
+        /**
+         * 已入队（含正在入队）的日志条数
+         */
+        private final AtomicLong appended = new AtomicLong();
+        /**
+         * 已写入的日志条数，由 flushLock 保护
+         */
+        private long written;
+    }
+
+    /**
+     * 日志文件句柄.
+     */
+    @AllArgsConstructor
+    private static class LogFile {
+        private final FileOutputStream outputStream;
+        private long lastAccessTime;
+    }
+}
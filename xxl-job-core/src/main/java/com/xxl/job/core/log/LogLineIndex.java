@@ -0,0 +1,249 @@
+package com.xxl.job.core.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 日志文件稀疏行索引
+ * <p>
+ * 索引文件与日志文件同目录，例如 "logPath/yyyy-MM-dd/9999.log.idx"，随日志日期目录一起清理；日志超过 INTERVAL 行时才创建.
+ * 依次存放第 1、1+INTERVAL、1+2*INTERVAL... 行的起始字节偏移（各8字节），日志文件只追加，读取时从最后一个索引位置增量补全.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+class LogLineIndex {
+
+    /**
+     * 索引间隔行数.
+     */
+    static final int INTERVAL = 1000;
+    /**
+     * 索引文件后缀.
+     */
+    private static final String INDEX_SUFFIX = ".idx";
+    /**
+     * 扫描缓冲区大小.
+     */
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    /**
+     * 索引更新分段锁，同一日志文件的索引串行更新.
+     */
+    private static final Object[] LOCKS = new Object[64];
+
+    static {
+        for (int i = 0; i < LOCKS.length; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    private LogLineIndex() {
+    }
+
+    /**
+     * 加载索引，并补全到日志文件当前的最后一个完整行.
+     *
+     * @param logFile    日志文件
+     * @param logChannel 日志文件通道
+     * @param fileSize   日志文件大小
+     * @return 行起始偏移，下标 i 对应第 i*INTERVAL+1 行，至少包含第1行
+     */
+    static long[] load(File logFile, FileChannel logChannel, long fileSize) {
+        File indexFile = new File(logFile.getPath() + INDEX_SUFFIX);
+        synchronized (LOCKS[(logFile.getPath().hashCode() & 0x7fffffff) % LOCKS.length]) {
+            FileChannel indexChannel = null;
+            try {
+                long[] offsets = new long[]{0};
+                if (indexFile.exists()) {
+                    indexChannel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ,
+                            StandardOpenOption.WRITE);
+                    offsets = readIndex(indexChannel);
+                    // 日志文件被重写，索引失效
+                    if (offsets[offsets.length - 1] > fileSize) {
+                        indexChannel.truncate(0);
+                        offsets = new long[]{0};
+                    }
+                }
+                long[] appended = scan(logChannel, offsets[offsets.length - 1], fileSize);
+                if (appended.length > 0) {
+                    if (indexChannel == null) {
+                        indexChannel = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE,
+                                StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    }
+                    ByteBuffer buffer = ByteBuffer.allocate(appended.length * 8);
+                    for (long offset : appended) {
+                        buffer.putLong(offset);
+                    }
+                    buffer.flip();
+                    indexChannel.position(offsets.length * 8L);
+                    while (buffer.hasRemaining()) {
+                        indexChannel.write(buffer);
+                    }
+                    long[] merged = Arrays.copyOf(offsets, offsets.length + appended.length);
+                    System.arraycopy(appended, 0, merged, offsets.length, appended.length);
+                    offsets = merged;
+                }
+                return offsets;
+            } catch (IOException e) {
+                // 索引不可用时从头扫描
+                log.warn(">>>>>>>>>>> xxl-job, log line index unavailable, logFile:{}", logFile, e);
+                try {
+                    long[] appended = scan(logChannel, 0, fileSize);
+                    long[] offsets = new long[appended.length + 1];
+                    System.arraycopy(appended, 0, offsets, 1, appended.length);
+                    return offsets;
+                } catch (IOException ex) {
+                    log.error(ex.getMessage(), ex);
+                    return new long[]{0};
+                }
+            } finally {
+                if (indexChannel != null) {
+                    try {
+                        indexChannel.close();
+                    } catch (IOException e) {
+                        log.error(e.getMessage(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 计算偏移所在的行号，偏移需为行起始位置.
+     *
+     * @param logChannel 日志文件通道
+     * @param offsets    行索引
+     * @param offset     字节偏移
+     * @return 行号，从1开始
+     * @throws IOException 读取失败
+     */
+    static int lineNumAt(FileChannel logChannel, long[] offsets, long offset) throws IOException {
+        int i = Arrays.binarySearch(offsets, offset);
+        if (i >= 0) {
+            return i * INTERVAL + 1;
+        }
+        i = -i - 2;
+        return i * INTERVAL + 1 + countLines(logChannel, offsets[i], offset);
+    }
+
+    /**
+     * 定位行号的起始偏移，行号超出完整行数时返回最后一个完整行之后的位置.
+     *
+     * @param logChannel 日志文件通道
+     * @param offsets    行索引
+     * @param lineNum    行号，从1开始
+     * @param fileSize   日志文件大小
+     * @return {起始偏移, 实际到达的行号}
+     * @throws IOException 读取失败
+     */
+    static long[] seekLine(FileChannel logChannel, long[] offsets, int lineNum, long fileSize) throws IOException {
+        int i = Math.min(Math.max(lineNum - 1, 0) / INTERVAL, offsets.length - 1);
+        long offset = offsets[i];
+        int currentLine = i * INTERVAL + 1;
+        if (currentLine >= lineNum) {
+            return new long[]{offset, currentLine};
+        }
+
+        // 在索引间隔内逐行跳过
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = offset;
+        while (position < fileSize) {
+            buffer.clear();
+            int read = logChannel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int j = 0; j < read; j++) {
+                if (buffer.get(j) == '\n') {
+                    offset = position + j + 1;
+                    if (++currentLine >= lineNum) {
+                        return new long[]{offset, currentLine};
+                    }
+                }
+            }
+            position += read;
+        }
+        return new long[]{offset, currentLine};
+    }
+
+    private static long[] readIndex(FileChannel indexChannel) throws IOException {
+        int count = (int) (indexChannel.size() / 8);
+        if (count == 0) {
+            return new long[]{0};
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(count * 8);
+        while (buffer.hasRemaining()) {
+            if (indexChannel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        long[] offsets = new long[buffer.remaining() / 8];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = buffer.getLong();
+        }
+        return offsets.length > 0 ? offsets : new long[]{0};
+    }
+
+    /**
+     * 从索引位置向后扫描，收集新的索引偏移.
+     *
+     * @param logChannel 日志文件通道
+     * @param from       最后一个索引位置，即第 k*INTERVAL+1 行的起始偏移
+     * @param fileSize   日志文件大小
+     * @return 新的索引偏移
+     * @throws IOException 读取失败
+     */
+    private static long[] scan(FileChannel logChannel, long from, long fileSize) throws IOException {
+        long[] appended = new long[0];
+        int count = 0;
+        int lines = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+        while (position < fileSize) {
+            buffer.clear();
+            int read = logChannel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int j = 0; j < read; j++) {
+                if (buffer.get(j) == '\n' && ++lines == INTERVAL) {
+                    lines = 0;
+                    if (count == appended.length) {
+                        appended = Arrays.copyOf(appended, Math.max(8, count * 2));
+                    }
+                    appended[count++] = position + j + 1;
+                }
+            }
+            position += read;
+        }
+        return Arrays.copyOf(appended, count);
+    }
+
+    private static int countLines(FileChannel logChannel, long from, long to) throws IOException {
+        int lines = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+        while (position < to) {
+            buffer.clear();
+            buffer.limit((int) Math.min(SCAN_BUFFER_SIZE, to - position));
+            int read = logChannel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int j = 0; j < read; j++) {
+                if (buffer.get(j) == '\n') {
+                    lines++;
+                }
+            }
+            position += read;
+        }
+        return lines;
+    }
+}
@@ -6,9 +6,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 调度任务日志文件追加器.
@@ -41,6 +46,22 @@ public class XxlJobFileAppender {
      */
     @Getter
     private static String glueSrcPath = logBasePath.concat("/gluesource");
+    /**
+     * 日志日期目录格式.
+     */
+    private static final DateTimeFormatter LOG_DIR_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    /**
+     * 已创建的日志日期目录<调度的日期, 目录>，避免每次检查目录.
+     */
+    private static final ConcurrentMap<LocalDate, String> logDirMap = new ConcurrentHashMap<>();
+    /**
+     * 日志日期目录最大缓存数.
+     */
+    private static final int LOG_DIR_CACHE_SIZE = 16;
+    /**
+     * 单次读取日志的最大字节数，超出部分由下次读取.
+     */
+    public static final int MAX_READ_SIZE = 512 * 1024;
 
     /**
      * 初始化日志存放路径，任务执行bean内部日志输出到该路径下
@@ -58,6 +79,7 @@ public class XxlJobFileAppender {
             logPathDir.mkdirs();
         }
         logBasePath = logPathDir.getPath();
+        logDirMap.clear();
 
         // 生成脚本目录
         File glueBaseDir = new File(logPathDir, "gluesource");
@@ -76,23 +98,31 @@ public class XxlJobFileAppender {
      */
     public static String makeLogFileName(LocalDate triggerDate, long logId) {
 
-        // filePath/yyyy-MM-dd
-        //避免并发问题，不能一成不变
-        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        File logFilePath = new File(getLogBasePath(), dtf.format(triggerDate));
-        if (!logFilePath.exists()) {
-            logFilePath.mkdir();
+        // filePath/yyyy-MM-dd，DateTimeFormatter线程安全
+        String logFilePath = logDirMap.get(triggerDate);
+        if (logFilePath == null) {
+            File logDir = new File(getLogBasePath(), LOG_DIR_FORMATTER.format(triggerDate));
+            if (!logDir.exists()) {
+                logDir.mkdir();
+            }
+            logFilePath = logDir.getPath();
+            if (logDirMap.size() >= LOG_DIR_CACHE_SIZE) {
+                logDirMap.clear();
+            }
+            logDirMap.put(triggerDate, logFilePath);
         }
 
         // filePath/yyyy-MM-dd/9999.log
-        return logFilePath.getPath() + File.separator + logId + ".log";
+        return logFilePath + File.separator + logId + ".log";
     }
 
     /**
-     * 追加日志
+     * 追加日志，异步写入器已启动时异步写入，否则同步写入；启用分段存储时写入分段文件
      *
      * @param logFileName 日志名称
      * @param appendLog   追加的日志
+     * @see JobLogWriter
+     * @see JobLogSegmentStore
      */
     public static void appendLog(String logFileName, String appendLog) {
 
@@ -100,6 +130,24 @@ public class XxlJobFileAppender {
         if (StringUtils.isBlank(logFileName)) {
             return;
         }
+
+        // log
+        if (appendLog == null) {
+            appendLog = "";
+        }
+        byte[] content = (appendLog + "\r\n").getBytes(StandardCharsets.UTF_8);
+        if (JobLogWriter.getInstance().append(logFileName, content)) {
+            return;
+        }
+        try {
+            if (JobLogSegmentStore.getInstance().append(logFileName, content, 0, content.length)) {
+                return;
+            }
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            return;
+        }
+
         File logFile = new File(logFileName);
 
         if (!logFile.exists()) {
@@ -111,21 +159,41 @@ public class XxlJobFileAppender {
             }
         }
 
-        // log
-        if (appendLog == null) {
-            appendLog = "";
-        }
-        appendLog += "\r\n";
-
         //追加文件内容
         try (FileOutputStream fos = new FileOutputStream(logFile, true)) {
-            fos.write(appendLog.getBytes(StandardCharsets.UTF_8));
+            fos.write(content);
             fos.flush();
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         }
     }
 
+    /**
+     * 打开日志输出流，用于直接追加外部输出（如脚本进程输出）；启用分段存储时写入分段文件.
+     *
+     * @param logFileName 日志名称
+     * @return 日志输出流
+     * @throws IOException 打开失败
+     */
+    public static OutputStream openLogStream(String logFileName) throws IOException {
+        if (!JobLogSegmentStore.getInstance().accepts(logFileName)) {
+            return new FileOutputStream(logFileName, true);
+        }
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (!JobLogSegmentStore.getInstance().append(logFileName, b, off, len)) {
+                    throw new IOException("xxl-job, JobLogSegmentStore is stopped.");
+                }
+            }
+        };
+    }
+
     /**
      * 支持读取日志文件.
      *
@@ -134,6 +202,22 @@ public class XxlJobFileAppender {
      * @return 日志内容
      */
     public static LogResult readLog(String logFileName, int fromLineNum) {
+        return readLog(logFileName, fromLineNum, -1);
+    }
+
+    /**
+     * 支持读取日志文件，按字节偏移或行号定位，只读取完整行，单次最多读取 {@link #MAX_READ_SIZE} 字节.
+     * <p>
+     * 字节偏移直接定位；行号通过稀疏行索引 {@link LogLineIndex} 定位到最近的索引行后跳过剩余行，不再从头逐行读取.
+     * 日志文件不存在时从分段存储 {@link JobLogSegmentStore} 读取.
+     * </p>
+     *
+     * @param logFileName 日志文件名
+     * @param fromLineNum 开始行号，fromOffset小于0时使用
+     * @param fromOffset  开始字节偏移（上次读取的 toOffset），小于0时按行号定位
+     * @return 日志内容
+     */
+    public static LogResult readLog(String logFileName, int fromLineNum, long fromOffset) {
 
         // valid log file
         if (StringUtils.isBlank(logFileName)) {
@@ -142,34 +226,87 @@ public class XxlJobFileAppender {
         File logFile = new File(logFileName);
 
         if (!logFile.exists()) {
-            return new LogResult(fromLineNum, 0, "readLog fail, logFile not exists", true);
+            LogResult logResult = JobLogSegmentStore.getInstance().readLog(logFileName, fromLineNum, fromOffset);
+            return logResult != null ? logResult
+                    : new LogResult(fromLineNum, 0, "readLog fail, logFile not exists", true);
         }
 
-        // 读取文件内容
-        StringBuffer logContentBuffer = new StringBuffer();
-        int toLineNum = 0;
-        try (LineNumberReader reader = new LineNumberReader(new InputStreamReader(new FileInputStream(logFile), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                // [from, to], start as 1
-                toLineNum = reader.getLineNumber();
-                if (toLineNum >= fromLineNum) {
-                    logContentBuffer.append(line).append("\n");
+        try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long[] offsets = LogLineIndex.load(logFile, channel, fileSize);
+
+            // 定位
+            long startOffset;
+            int startLineNum;
+            if (fromOffset >= 0) {
+                startOffset = Math.min(fromOffset, fileSize);
+                startLineNum = LogLineIndex.lineNumAt(channel, offsets, startOffset);
+                fromLineNum = startLineNum;
+            } else {
+                long[] position = LogLineIndex.seekLine(channel, offsets, fromLineNum, fileSize);
+                startOffset = position[0];
+                startLineNum = (int) position[1];
+            }
+
+            // 读取完整行
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(MAX_READ_SIZE, fileSize - startOffset));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, startOffset + buffer.position()) <= 0) {
+                    break;
                 }
             }
+            return makeLogResult(buffer.array(), buffer.position(), fromLineNum, startLineNum, startOffset,
+                    fileSize);
         } catch (IOException e) {
             log.error(e.getMessage(), e);
+            return new LogResult(fromLineNum, 0, "readLog fail, " + e.getMessage(), false);
         }
+    }
 
-        // 日志结果
-        return new LogResult(fromLineNum, toLineNum, logContentBuffer.toString(), false);
+    /**
+     * 由读取的内容生成日志结果，只保留完整行.
+     *
+     * @param bytes        从 startOffset 开始读取的内容
+     * @param length       读取的字节数
+     * @param fromLineNum  请求的开始行号
+     * @param startLineNum startOffset 所在的行号，小于 fromLineNum 表示请求的行尚不存在
+     * @param startOffset  开始字节偏移
+     * @param logSize      日志大小
+     * @return 日志结果
+     */
+    static LogResult makeLogResult(byte[] bytes, int length, int fromLineNum, int startLineNum,
+            long startOffset, long logSize) {
+        int end = startLineNum < fromLineNum ? 0 : length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        if (end == 0 && length == MAX_READ_SIZE && startLineNum >= fromLineNum) {
+            // 单行超过最大字节数，按字符边界截断
+            end = length;
+            while (end > 0 && (bytes[end - 1] & 0xC0) == 0x80) {
+                end--;
+            }
+            if (end > 0 && (bytes[end - 1] & 0x80) != 0) {
+                end--;
+            }
+        }
+        int lines = 0;
+        for (int i = 0; i < end; i++) {
+            if (bytes[i] == '\n') {
+                lines++;
+            }
+        }
+        if (end > 0 && bytes[end - 1] != '\n') {
+            // 截断的单行，剩余部分从 toOffset 继续读取
+            lines++;
+        }
 
-		/*
-        // it will return the number of characters actually skipped
-        reader.skip(Long.MAX_VALUE);
-        int maxLineNum = reader.getLineNumber();
-        maxLineNum++;	// 最大行号
-        */
+        // [from, to], start as 1
+        int toLineNum = startLineNum + lines - 1;
+        String logContent = new String(bytes, 0, end, StandardCharsets.UTF_8).replace("\r\n", "\n");
+        long toOffset = startOffset + end;
+        return new LogResult(fromLineNum, toLineNum, logContent, false, startOffset, toOffset,
+                length == MAX_READ_SIZE && toOffset < logSize);
     }
 
     /**
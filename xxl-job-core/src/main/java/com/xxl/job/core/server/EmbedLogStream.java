@@ -0,0 +1,182 @@
+package com.xxl.job.core.server;
+
+import com.xxl.job.core.biz.model.LogParam;
+import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.thread.JobThread;
+import com.xxl.job.core.util.GsonTool;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 执行日志实时推送（SSE）
+ * <p>
+ * 按字节偏移跟随日志追加，每读取到新内容推送一个 "log" 事件（data 为 {@link LogResult} JSON），
+ * 上一个事件写出后才读取下一块，消费方读取慢时不再读取（背压）；日志已结束（已回调）且已读完时推送 "end" 事件并结束响应.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+class EmbedLogStream {
+
+  /**
+   * 无新内容时的读取间隔（毫秒）.
+   */
+  private static final long POLL_INTERVAL = 500;
+  /**
+   * 心跳间隔（毫秒），保持连接不被空闲检测关闭.
+   */
+  private static final long HEARTBEAT_INTERVAL = TimeUnit.SECONDS.toMillis(15);
+  /**
+   * 同时推送的日志流数上限.
+   */
+  static final int MAX_STREAMS = 64;
+  /**
+   * 正在推送的日志流数.
+   */
+  private static final AtomicInteger streamCount = new AtomicInteger();
+
+  private final ChannelHandlerContext ctx;
+  /**
+   * 日志读取线程池.
+   */
+  private final Executor readExecutor;
+  private final long logId;
+  private final String logFileName;
+  /**
+   * 已推送到的字节偏移.
+   */
+  private long offset;
+  /**
+   * 最后一次写出时间.
+   */
+  private long lastWriteTime;
+
+  EmbedLogStream(ChannelHandlerContext ctx, Executor readExecutor, LogParam logParam) {
+    this.ctx = ctx;
+    this.readExecutor = readExecutor;
+    this.logId = logParam.getLogId();
+    this.logFileName = XxlJobFileAppender.makeLogFileName(Instant.ofEpochMilli(logParam.getLogDateTim())
+        .atZone(ZoneOffset.ofHours(8)).toLocalDate(), logParam.getLogId());
+    this.offset = Math.max(logParam.getFromOffset(), 0);
+  }
+
+  /**
+   * 开始推送.
+   *
+   * @return true，已开始，否则，日志流数已达上限
+   */
+  boolean start() {
+    if (streamCount.incrementAndGet() > MAX_STREAMS) {
+      streamCount.decrementAndGet();
+      return false;
+    }
+    ctx.channel().closeFuture().addListener(future -> streamCount.decrementAndGet());
+
+    HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+    response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/event-stream;charset=UTF-8");
+    response.headers().set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+    response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
+    lastWriteTime = System.currentTimeMillis();
+    ctx.writeAndFlush(response).addListener(future -> {
+      if (future.isSuccess()) {
+        schedule(0);
+      } else {
+        ctx.close();
+      }
+    });
+    return true;
+  }
+
+  /**
+   * 延迟后在读取线程池中读取.
+   */
+  private void schedule(long delay) {
+    if (!ctx.channel().isActive()) {
+      return;
+    }
+    ctx.executor().schedule(() -> {
+      try {
+        readExecutor.execute(this::poll);
+      } catch (RejectedExecutionException e) {
+        log.warn(">>>>>>>>>>> xxl-job log stream read rejected, logId:{}", logId);
+        ctx.close();
+      }
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 读取新内容并推送.
+   */
+  private void poll() {
+    if (!ctx.channel().isActive()) {
+      return;
+    }
+    try {
+      // 先判断是否结束再读取，结束前追加的日志不会遗漏
+      boolean active = JobThread.isActiveLog(logId);
+      LogResult logResult = XxlJobFileAppender.readLog(logFileName, 1, offset);
+      if (logResult.getToOffset() > offset) {
+        offset = logResult.getToOffset();
+        long delay = logResult.isHasMore() ? 0 : POLL_INTERVAL;
+        write("id: " + offset + "\nevent: log\ndata: " + GsonTool.toJson(logResult) + "\n\n", false)
+            .addListener(writeListener(delay));
+      } else if (!active) {
+        write("event: end\ndata: " + offset + "\n\n", true);
+      } else if (System.currentTimeMillis() - lastWriteTime >= HEARTBEAT_INTERVAL) {
+        write(": ping\n\n", false).addListener(writeListener(POLL_INTERVAL));
+      } else {
+        schedule(POLL_INTERVAL);
+      }
+    } catch (Exception e) {
+      log.error(">>>>>>>>>>> xxl-job log stream error, logId:{}", logId, e);
+      ctx.close();
+    }
+  }
+
+  private ChannelFutureListener writeListener(long delay) {
+    return future -> {
+      if (future.isSuccess()) {
+        schedule(delay);
+      } else {
+        ctx.close();
+      }
+    };
+  }
+
+  /**
+   * 写出一个事件，写出完成（进入发送缓冲区）后才继续读取.
+   *
+   * @param event 事件
+   * @param last  是否最后一个事件，写出后结束响应并关闭连接
+   * @return 写出结果
+   */
+  private ChannelFuture write(String event, boolean last) {
+    lastWriteTime = System.currentTimeMillis();
+    ByteBuf content = ByteBufUtil.writeUtf8(ctx.alloc(), event);
+    if (!last) {
+      return ctx.writeAndFlush(new DefaultHttpContent(content));
+    }
+    ctx.write(new DefaultHttpContent(content));
+    return ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(ChannelFutureListener.CLOSE);
+  }
+}
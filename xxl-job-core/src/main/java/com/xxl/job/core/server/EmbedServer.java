@@ -2,6 +2,7 @@ package com.xxl.job.core.server;
 
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.impl.ExecutorBizImpl;
+import com.xxl.job.core.biz.model.LogParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.enums.BizUriEnum;
 import com.xxl.job.core.exception.XxlJobException;
@@ -11,14 +12,19 @@ import com.xxl.job.core.util.ThrowableUtil;
 import com.xxl.job.core.util.XxlJobRemotingUtil;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
@@ -34,7 +40,11 @@ import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.handler.timeout.IdleStateHandler;
-import io.netty.util.CharsetUtil;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -73,10 +83,14 @@ public class EmbedServer {
     executorBiz = new ExecutorBizImpl();
     thread = new Thread(() -> {
 
+      // Linux下优先使用native epoll，不可用时使用NIO
+      boolean epoll = Epoll.isAvailable();
       // 负责接收请求，
-      EventLoopGroup bossGroup = new NioEventLoopGroup();
+      EventLoopGroup bossGroup = epoll ? new EpollEventLoopGroup(1) : new NioEventLoopGroup(1);
       // 负责处理请求
-      EventLoopGroup workerGroup = new NioEventLoopGroup();
+      EventLoopGroup workerGroup = epoll ? new EpollEventLoopGroup() : new NioEventLoopGroup();
+      Class<? extends ServerSocketChannel> channelClass =
+          epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
       // 负责处理业务
       ThreadPoolExecutor bizThreadPool = new ThreadPoolExecutor(0, 200, 60L, TimeUnit.SECONDS,
           new LinkedBlockingQueue<>(2000),
@@ -90,7 +104,7 @@ public class EmbedServer {
         ServerBootstrap bootstrap = new ServerBootstrap();
 
         bootstrap.group(bossGroup, workerGroup);
-        bootstrap.channel(NioServerSocketChannel.class);
+        bootstrap.channel(channelClass);
         bootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
           @Override
           public void initChannel(SocketChannel channel) {
@@ -114,11 +128,11 @@ public class EmbedServer {
         // 绑定服务端口
         ChannelFuture future = bootstrap.bind(port).sync();
 
-        log.info(">>>>>>>>>>> xxl-job remoting server start success, nettype = {}, port = {}",
-            EmbedServer.class, port);
+        log.info(">>>>>>>>>>> xxl-job remoting server start success, nettype = {}, transport = {}, port = {}",
+            EmbedServer.class, epoll ? "epoll" : "nio", port);
 
         // 开始注册
-        startRegistry(appName, address);
+        startRegistry(appName, address, bizThreadPool);
 
         // 等待服务端监听端口关闭.
         future.channel().closeFuture().sync();
@@ -188,8 +202,8 @@ public class EmbedServer {
     @Override
     protected void channelRead0(final ChannelHandlerContext ctx, FullHttpRequest msg) {
 
-      // 解析请求
-      String requestData = msg.content().toString(CharsetUtil.UTF_8);
+      // 请求内容在业务线程中直接解析，处理完成后释放（msg在本方法返回后释放）
+      ByteBuf requestData = msg.content().retain();
       //得到请求的URI,即请求URL除地址的部分，如：192.168.0.1：9999/beat,那么uri为/beat
       String uri = msg.uri();
       //请求方式
@@ -200,29 +214,39 @@ public class EmbedServer {
       String accessTokenReq = msg.headers().get(XxlJobRemotingUtil.XXL_JOB_ACCESS_TOKEN);
 
       // 调度
-      bizThreadPool.execute(() -> {
-        // 去调度
-        ReturnT<?> responseObj = process(httpMethod, uri, requestData, accessTokenReq);
-
-        // 结果转JSON
-        String responseJson = GsonTool.toJson(responseObj);
+      try {
+        bizThreadPool.execute(() -> {
+          // 去调度
+          ReturnT<?> responseObj;
+          try {
+            responseObj = process(ctx, httpMethod, uri, requestData, accessTokenReq);
+          } finally {
+            requestData.release();
+          }
 
-        // write response
-        writeResponse(ctx, keepAlive, responseJson);
-      });
+          // write response，日志流由其自身写出响应
+          if (responseObj != null) {
+            writeResponse(ctx, keepAlive, responseObj);
+          }
+        });
+      } catch (RuntimeException e) {
+        requestData.release();
+        throw e;
+      }
     }
 
     /**
      * 调度过程.
      *
+     * @param ctx            通道上下文
      * @param httpMethod     方法类型
      * @param uri            uri
      * @param requestData    请求数据
      * @param accessTokenReq 请求通讯TOKEN
-     * @return 对象通用类
+     * @return 对象通用类，已开始推送日志流时返回null
      */
-    private ReturnT<?> process(HttpMethod httpMethod, String uri, String requestData,
-        String accessTokenReq) {
+    private ReturnT<?> process(ChannelHandlerContext ctx, HttpMethod httpMethod, String uri,
+        ByteBuf requestData, String accessTokenReq) {
 
       // 验证
       if (HttpMethod.POST != httpMethod) {
@@ -242,6 +266,9 @@ public class EmbedServer {
           return new ReturnT<>(ReturnT.FAIL_CODE,
               "invalid request, uri-mapping(" + uri + ") not found.");
         }
+        if (bizUri == BizUriEnum.LOG_STREAM) {
+          return openLogStream(ctx, requestData);
+        }
         return bizUri.mapper(executorBiz, requestData);
       } catch (Exception e) {
         log.error(e.getMessage(), e);
@@ -250,12 +277,42 @@ public class EmbedServer {
     }
 
     /**
-     * 写入响应
+     * 开始推送执行日志.
+     *
+     * @param ctx         通道上下文
+     * @param requestData 请求数据
+     * @return 开始推送时返回null，否则，失败原因
+     */
+    private ReturnT<?> openLogStream(ChannelHandlerContext ctx, ByteBuf requestData) {
+      LogParam logParam = requestData.isReadable() ? GsonTool.fromJson(
+          new InputStreamReader(new ByteBufInputStream(requestData), StandardCharsets.UTF_8),
+          LogParam.class) : null;
+      if (logParam == null) {
+        return new ReturnT<>(ReturnT.FAIL_CODE, "invalid request, logParam empty.");
+      }
+      if (!new EmbedLogStream(ctx, bizThreadPool, logParam).start()) {
+        return new ReturnT<>(ReturnT.BACK_PRESSURE_CODE,
+            "back-pressure, log stream count exceeds limit(" + EmbedLogStream.MAX_STREAMS + ").");
+      }
+      return null;
+    }
+
+    /**
+     * 写入响应：结果直接序列化到池化缓冲区
      */
-    private void writeResponse(ChannelHandlerContext ctx, boolean keepAlive, String responseJson) {
+    private void writeResponse(ChannelHandlerContext ctx, boolean keepAlive, ReturnT<?> responseObj) {
       // write response
       //响应JSON内容
-      ByteBuf content = Unpooled.copiedBuffer(responseJson, CharsetUtil.UTF_8);
+      ByteBuf content = ctx.alloc().buffer();
+      try (Writer writer = new OutputStreamWriter(new ByteBufOutputStream(content),
+          StandardCharsets.UTF_8)) {
+        GsonTool.toJson(responseObj, writer);
+      } catch (IOException | RuntimeException e) {
+        content.release();
+        log.error(e.getMessage(), e);
+        ctx.close();
+        return;
+      }
       FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
           HttpResponseStatus.OK, content);
       response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html;charset=UTF-8");
@@ -298,12 +355,14 @@ public class EmbedServer {
   /**
    * 注册.
    *
-   * @param appName 应用名称
-   * @param address 地址（ip:port）
+   * @param appName       应用名称
+   * @param address       地址（ip:port）
+   * @param bizThreadPool 业务线程池
    */
-  private void startRegistry(final String appName, final String address) {
+  private void startRegistry(final String appName, final String address,
+      final ThreadPoolExecutor bizThreadPool) {
     // start registry
-    ExecutorRegistryThread.getInstance().start(appName, address);
+    ExecutorRegistryThread.getInstance().start(appName, address, bizThreadPool);
   }
 
   /**
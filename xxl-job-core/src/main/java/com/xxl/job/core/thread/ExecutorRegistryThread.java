@@ -1,6 +1,7 @@
 package com.xxl.job.core.thread;
 
 import com.xxl.job.core.biz.AdminBiz;
+import com.xxl.job.core.biz.model.ExecutorStatus;
 import com.xxl.job.core.biz.model.RegistryParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.enums.RegistryConfig;
@@ -9,6 +10,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.util.CollectionUtils;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -37,10 +40,11 @@ public class ExecutorRegistryThread {
     /**
      * 启动注册
      *
-     * @param appName 应用名称
-     * @param address 地址（ip+port）
+     * @param appName       应用名称
+     * @param address       地址（ip+port）
+     * @param bizThreadPool 内嵌服务业务线程池，用于上报负载状态
      */
-    public void start(final String appName, final String address) {
+    public void start(final String appName, final String address, final ThreadPoolExecutor bizThreadPool) {
 
         // 验证
         if (StringUtils.isBlank(appName)) {
@@ -57,7 +61,8 @@ public class ExecutorRegistryThread {
             // registry
             while (!toStop) {
 
-                RegistryParam registryParam = new RegistryParam(RegistryConfig.RegistryType.EXECUTOR.name(), appName, address);
+                RegistryParam registryParam = new RegistryParam(RegistryConfig.RegistryType.EXECUTOR.name(), appName, address,
+                        collectStatus(bizThreadPool));
                 for (AdminBiz adminBiz : XxlJobExecutor.getAdminBizList()) {
                     try {
                         ReturnT<String> registryResult = adminBiz.registry(registryParam);
@@ -119,11 +124,41 @@ public class ExecutorRegistryThread {
         registryThread.start();
     }
 
+    /**
+     * 采集执行器负载状态.
+     *
+     * @param bizThreadPool 内嵌服务业务线程池
+     * @return 负载状态
+     */
+    private static ExecutorStatus collectStatus(ThreadPoolExecutor bizThreadPool) {
+        ExecutorStatus status = new ExecutorStatus();
+        status.setJobThreadCount(XxlJobExecutor.getJobThreadCount());
+        status.setWorkerCount(JobThreadPool.getInstance().getPoolSize());
+        status.setRunningCount(JobThreadPool.getInstance().getActiveCount());
+        status.setQueuedCount(JobThreadPool.getInstance().getQueuedCount());
+        if (bizThreadPool != null) {
+            status.setBizActiveCount(bizThreadPool.getActiveCount());
+            status.setBizQueueSize(bizThreadPool.getQueue().size());
+        }
+        status.setCallbackQueueSize(TriggerCallbackThread.getInstance().getCallbackQueueSize());
+        Runtime runtime = Runtime.getRuntime();
+        status.setHeapUsed(runtime.totalMemory() - runtime.freeMemory());
+        status.setHeapMax(runtime.maxMemory());
+        status.setSystemLoad(ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage());
+        status.setProcessors(runtime.availableProcessors());
+        status.setGlueHash(true);
+        return status;
+    }
+
     /**
      * 停止注册
      */
     public void toStop() {
         toStop = true;
+        // 未配置 appName 或调度中心地址时未启动
+        if (registryThread == null) {
+            return;
+        }
         // interrupt and wait
         registryThread.interrupt();
         try {
@@ -5,36 +5,64 @@ import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 import com.xxl.job.core.context.XxlJobContext;
 import com.xxl.job.core.context.XxlJobHelper;
-import com.xxl.job.core.executor.XxlJobExecutor;
+import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
 import com.xxl.job.core.handler.IJobHandler;
+import com.xxl.job.core.log.JobLogWriter;
 import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.util.DateUtil;
+import io.netty.util.Timeout;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.time.Instant;
 import java.time.ZoneOffset;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.util.CollectionUtils;
 
 
 /**
  * 处理器线程
+ * <p>
+ * 任务的调度队列，不独占线程：有待执行的调度时提交到共享的工作线程池（{@link JobThreadPool}），
+ * 同一时刻只由一个工作线程处理（并行执行时最多为任务并行度个），每次处理一个调度后重新提交，各任务公平复用工作线程.
+ * </p>
  *
  * @author xuxueli 2016-1-16 19:52:47
  */
 @Slf4j
-public class JobThread extends Thread {
+public class JobThread implements Runnable {
+
+  /**
+   * 执行状态：执行中.
+   */
+  private static final int EXECUTION_RUNNING = 0;
+  /**
+   * 执行状态：已结束.
+   */
+  private static final int EXECUTION_FINISHED = 1;
+  /**
+   * 执行状态：已超时.
+   */
+  private static final int EXECUTION_TIMEOUT = 2;
+  /**
+   * 所有任务排队中及执行中的调度日志id，回调后移除，用于实时日志推送判断日志是否结束.
+   */
+  private static final Set<Long> activeLogIdSet = ConcurrentHashMap.newKeySet();
+  /**
+   * 任务线程已停止，调度未入队，需重新加载任务线程.
+   */
+  public static final ReturnT<String> STOPPED = new ReturnT<>(ReturnT.FAIL_CODE, "job thread is stopped.");
 
   /**
    * 任务id.
@@ -46,13 +74,17 @@ public class JobThread extends Thread {
   @Getter
   private IJobHandler handler;
   /**
-   * 调度队列.
+   * 调度队列，有界，超出时拒绝调度（背压）.
    */
   private LinkedBlockingQueue<TriggerParam> triggerQueue;
   /**
-   * 调度日志id,使用Set避免对同一触发器日志标识重复触发器
+   * 调度日志id,使用Set避免对同一触发器日志标识重复触发器（无锁）
    */
   private Set<Long> triggerLogIdSet;
+  /**
+   * 调度入队锁：入队与停止、停止时清空队列互斥，保证停止后不再有调度入队.
+   */
+  private final Object queueLock = new Object();
   /**
    * 去暂停.
    */
@@ -60,15 +92,43 @@ public class JobThread extends Thread {
   /**
    * 停止原因
    */
-  private String stopReason;
+  private volatile String stopReason;
+  /**
+   * 正在运行的调度数
+   */
+  private final AtomicInteger runningCount = new AtomicInteger();
+  /**
+   * 最近一次活跃（调度或执行结束）的时间
+   */
+  private volatile long lastActiveTime = System.currentTimeMillis();
+  /**
+   * 任务并行度，同一时刻处理本任务的工作线程数上限，串行时为1
+   */
+  private volatile int parallelism = 1;
   /**
-   * 是否正在运行
+   * 已提交到工作线程池的次数，不超过任务并行度
    */
-  private boolean running = false;
+  private final AtomicInteger scheduledCount = new AtomicInteger();
   /**
-   * 理想时间
+   * 正在处理本任务的工作线程，用于中断正在执行的任务
    */
-  private int idleTimes = 0;
+  private final Set<Thread> workers = new HashSet<>();
+  /**
+   * 任务处理器初始化锁
+   */
+  private final Object initLock = new Object();
+  /**
+   * 任务处理器是否已初始化
+   */
+  private volatile boolean inited = false;
+  /**
+   * 是否已销毁
+   */
+  private final AtomicBoolean stopped = new AtomicBoolean(false);
+  /**
+   * 销毁完成信号
+   */
+  private final CountDownLatch stopLatch = new CountDownLatch(1);
 
   /**
    * 构造任务线程
@@ -79,32 +139,78 @@ public class JobThread extends Thread {
   public JobThread(int jobId, IJobHandler handler) {
     this.jobId = jobId;
     this.handler = handler;
-    this.triggerQueue = new LinkedBlockingQueue<>();
-    this.triggerLogIdSet = Collections.synchronizedSet(new HashSet<>());
+    this.triggerQueue = new LinkedBlockingQueue<>(JobThreadPool.getInstance().getJobQueueSize());
+    this.triggerLogIdSet = ConcurrentHashMap.newKeySet();
   }
 
   /**
    * 添加调度参数到调度队列.
    *
    * @param triggerParam 调度参数
-   * @return 重复，ReturnT.FAIL_CODE.否则，ReturnT.SUCCESS
+   * @return 已停止，{@link #STOPPED}；重复，ReturnT.FAIL_CODE；队列已满，ReturnT.BACK_PRESSURE_CODE；否则，ReturnT.SUCCESS
+   * @see #STOPPED
    * @see ReturnT#FAIL_CODE
+   * @see ReturnT#BACK_PRESSURE_CODE
    * @see ReturnT#SUCCESS
    */
   public ReturnT<String> pushTriggerQueue(TriggerParam triggerParam) {
+    synchronized (queueLock) {
+      // 已停止（空闲移除、kill、替换）的任务线程不再处理调度
+      if (toStop) {
+        return STOPPED;
+      }
+      return offerTriggerQueue(triggerParam);
+    }
+  }
+
+  /**
+   * 调度入队，需持有入队锁.
+   *
+   * @param triggerParam 调度参数
+   * @return 重复，ReturnT.FAIL_CODE；队列已满，ReturnT.BACK_PRESSURE_CODE；否则，ReturnT.SUCCESS
+   */
+  private ReturnT<String> offerTriggerQueue(TriggerParam triggerParam) {
     // avoid repeat
     //避免重复
-    if (triggerLogIdSet.contains(triggerParam.getLogId())) {
+    if (!triggerLogIdSet.add(triggerParam.getLogId())) {
       log.info(">>>>>>>>>>> repeate trigger job, logId:{}", triggerParam.getLogId());
       return new ReturnT<>(ReturnT.FAIL_CODE,
           "repeate trigger job, logId:" + triggerParam.getLogId());
     }
 
-    triggerLogIdSet.add(triggerParam.getLogId());
-    triggerQueue.add(triggerParam);
+    // 并行执行时按任务并行度处理，否则串行
+    parallelism = isConcurrent(triggerParam) ? Math.max(1, triggerParam.getExecutorParallelism()) : 1;
+
+    // 全局队列、任务队列已满时拒绝调度
+    if (!JobThreadPool.getInstance().acquireQueue()) {
+      triggerLogIdSet.remove(triggerParam.getLogId());
+      log.warn(">>>>>>>>>>> xxl-job trigger back-pressure, total trigger queue is full, jobId:{}, logId:{}",
+          jobId, triggerParam.getLogId());
+      return new ReturnT<>(ReturnT.BACK_PRESSURE_CODE,
+          "back-pressure, executor total trigger queue is full, logId:" + triggerParam.getLogId());
+    }
+    activeLogIdSet.add(triggerParam.getLogId());
+    if (!triggerQueue.offer(triggerParam)) {
+      activeLogIdSet.remove(triggerParam.getLogId());
+      JobThreadPool.getInstance().releaseQueue();
+      triggerLogIdSet.remove(triggerParam.getLogId());
+      log.warn(">>>>>>>>>>> xxl-job trigger back-pressure, job trigger queue is full, jobId:{}, logId:{}",
+          jobId, triggerParam.getLogId());
+      return new ReturnT<>(ReturnT.BACK_PRESSURE_CODE,
+          "back-pressure, job trigger queue is full, logId:" + triggerParam.getLogId());
+    }
+    lastActiveTime = System.currentTimeMillis();
+    schedule();
     return ReturnT.SUCCESS;
   }
 
+  /**
+   * 启动：初始化任务处理器.
+   */
+  public void start() {
+    schedule();
+  }
+
   /**
    * 停止本线程.
    *
@@ -114,8 +220,74 @@ public class JobThread extends Thread {
     // Thread.interrupt只支持终止线程的阻塞状态(wait、join、sleep)，
     // 在阻塞出抛出InterruptedException异常,但是并不会终止运行的线程本身；
     // 所以需要注意，此处彻底销毁本线程，需要通过共享变量方式；
-    this.toStop = true;
-    this.stopReason = stopReason;
+    synchronized (queueLock) {
+      this.stopReason = stopReason;
+      this.toStop = true;
+    }
+    // 提交停止处理：回调队列中的调度并销毁任务处理器
+    schedule();
+  }
+
+  /**
+   * 中断正在执行的任务.
+   */
+  public void interrupt() {
+    synchronized (this) {
+      for (Thread worker : workers) {
+        worker.interrupt();
+      }
+    }
+  }
+
+  /**
+   * 等待停止完成（队列中的调度已回调、任务处理器已销毁）.
+   *
+   * @throws InterruptedException 等待被中断
+   */
+  public void join() throws InterruptedException {
+    stopLatch.await();
+  }
+
+  /**
+   * 是否空闲超时：未运行、调度队列为空且超过指定时间无调度.
+   *
+   * @param idleTimeout 空闲超时时间（毫秒）
+   * @return true，空闲超时，否则，false
+   */
+  public boolean isIdleTimeout(long idleTimeout) {
+    return runningCount.get() == 0 && triggerQueue.isEmpty()
+        && System.currentTimeMillis() - lastActiveTime > idleTimeout;
+  }
+
+  /**
+   * 提交到工作线程池，已达任务并行度时忽略（由当前工作线程处理完后重新检查）.
+   */
+  private void schedule() {
+    while (true) {
+      int count = scheduledCount.get();
+      if (count >= parallelism) {
+        return;
+      }
+      if (scheduledCount.compareAndSet(count, count + 1)) {
+        break;
+      }
+    }
+    try {
+      JobThreadPool.getInstance().execute(this);
+    } catch (RuntimeException e) {
+      scheduledCount.decrementAndGet();
+      throw e;
+    }
+  }
+
+  /**
+   * 调度日志是否未结束（正在运行或者正在调度队列中，尚未回调）.
+   *
+   * @param logId 调度日志id
+   * @return true，未结束，否则，已结束或不在本执行器
+   */
+  public static boolean isActiveLog(long logId) {
+    return activeLogIdSet.contains(logId);
   }
 
   /**
@@ -124,154 +296,293 @@ public class JobThread extends Thread {
    * @return true, 正在运行或者正在调度队列中.否则，false
    */
   public boolean isRunningOrHasQueue() {
-    return running || !triggerQueue.isEmpty();
+    return runningCount.get() > 0 || !triggerQueue.isEmpty();
   }
 
   @Override
   public void run() {
-
-    // init
-    try {
-      handler.init();
-    } catch (IllegalAccessException | InvocationTargetException e) {
-      log.error(e.getMessage(), e);
+    Thread worker = Thread.currentThread();
+    synchronized (this) {
+      workers.add(worker);
     }
+    try {
+      if (stopped.get()) {
+        return;
+      }
 
-    // execute
-    while (!toStop) {
-      running = false;
-      idleTimes++;
-
-      TriggerParam triggerParam = null;
-      try {
-        // to check toStop signal, we need cycle, so wo cannot use queue.take(), instand of poll(timeout)
-        // 为了检查停止信号，我们需要循环，所以我们不能使用queue.take()，而是poll(timeout)
-        triggerParam = triggerQueue.poll(3L, TimeUnit.SECONDS);
-        if (triggerParam != null) {
-          running = true;
-          idleTimes = 0;
-          triggerLogIdSet.remove(triggerParam.getLogId());
-
-          // 文件名称, like "logPath/yyyy-MM-dd/9999.log"
-          String logFileName = XxlJobFileAppender.makeLogFileName(Instant.ofEpochMilli(triggerParam
-                  .getLogDateTime()).atZone(ZoneOffset.ofHours(8)).toLocalDate(),
-              triggerParam.getLogId());
-          XxlJobContext xxlJobContext = new XxlJobContext(triggerParam.getJobId(),
-              triggerParam.getExecutorParams(), logFileName, triggerParam.getBroadcastIndex(),
-              triggerParam.getBroadcastTotal());
-
-          // init job context
-          XxlJobContext.setXxlJobContext(xxlJobContext);
-
-          // 执行
-          XxlJobHelper.log(String.format(
-              "<br>----------- xxl-job job execute start -----------<br>----------- Param:%s",
-              triggerParam.getExecutorParams()));
-          //超时时间大于0
-          if (triggerParam.getExecutorTimeout() > 0) {
-            // limit timeout
-            Thread futureThread = null;
-            try {
-              FutureTask<Boolean> futureTask = new FutureTask<>(() -> {
-                // init job context
-                XxlJobContext.setXxlJobContext(xxlJobContext);
-
-                handler.execute();
-                return true;
-              });
-              futureThread = new Thread(futureTask);
-              futureThread.start();
-
-              Boolean tempResult = futureTask
-                  .get(triggerParam.getExecutorTimeout(), TimeUnit.SECONDS);
-            } catch (TimeoutException e) {
-              XxlJobHelper.log("<br>----------- xxl-job job execute timeout");
-              XxlJobHelper.log(e);
-
-              // handle result
-              XxlJobHelper.handleTimeout("job execute timeout ");
-            } finally {
-              Objects.requireNonNull(futureThread).interrupt();
+      // init
+      init();
+
+      // execute，每次处理一个调度，其余调度重新提交，避免长队列独占工作线程
+      if (!toStop) {
+        runningCount.incrementAndGet();
+        try {
+          TriggerParam triggerParam = triggerQueue.poll();
+          if (triggerParam != null) {
+            JobThreadPool.getInstance().releaseQueue();
+            // 合并执行：排队中的调度合并为一次执行，使用最新的调度参数
+            List<TriggerParam> coalescedList = new ArrayList<>();
+            while (isCoalesce(triggerParam) && isCoalesce(triggerQueue.peek())) {
+              TriggerParam nextParam = triggerQueue.poll();
+              JobThreadPool.getInstance().releaseQueue();
+              coalescedList.add(triggerParam);
+              triggerParam = nextParam;
             }
-          } else {
-            // 超时时间小于等于0，立即执行
-            handler.execute();
+            execute(triggerParam, coalescedList);
           }
+        } finally {
+          runningCount.decrementAndGet();
+          lastActiveTime = System.currentTimeMillis();
+        }
+      }
+    } finally {
+      synchronized (this) {
+        workers.remove(worker);
+      }
+      // 清除中断标记，避免影响工作线程处理其他任务
+      Thread.interrupted();
+      int remainCount = scheduledCount.decrementAndGet();
 
-          if (XxlJobContext.getXxlJobContext().getHandleCode() <= 0) {
-            XxlJobHelper.handleFail("job handle result lost.");
-          } else {
-            // 格式化返回结果
-            String tempHandleMsg = XxlJobContext.getXxlJobContext().getHandleMsg();
-            tempHandleMsg = (tempHandleMsg != null && tempHandleMsg.length() > 50000)
-                ? tempHandleMsg.substring(0, 50000).concat("...") : tempHandleMsg;
-            XxlJobContext.getXxlJobContext().setHandleMsg(tempHandleMsg);
-          }
-          XxlJobHelper.log(String.format(
-              "<br>----------- xxl-job job execute end(finish) -----------<br>----------- Result: handleCode=%d, handleMsg = %s",
-              XxlJobContext.getXxlJobContext().getHandleCode(),
-              XxlJobContext.getXxlJobContext().getHandleMsg()));
-        } else {
-          // 回调参数为空，调度队列也为空，并且空闲次数为30，移除这个任务id, 避免并发调度器导致jobId丢失,
-          if (idleTimes > 30 && triggerQueue.isEmpty()) {
-            XxlJobExecutor.removeJobThread(jobId, "excutor idel times over limit.");
-          }
+      if (toStop) {
+        // 最后一个处理本任务的工作线程负责停止，此时没有正在执行的调度
+        if (remainCount == 0 && stopped.compareAndSet(false, true)) {
+          terminate();
         }
-      } catch (InterruptedException | IllegalAccessException | IOException |
-          InvocationTargetException | ExecutionException e) {
-        if (toStop) {
-          XxlJobHelper.log("<br>----------- JobThread toStop, stopReason:" + stopReason);
+      } else if (!triggerQueue.isEmpty()) {
+        // 处理期间有新的调度，重新提交
+        schedule();
+      }
+    }
+  }
+
+  /**
+   * 初始化任务处理器，仅执行一次.
+   */
+  private void init() {
+    if (inited) {
+      return;
+    }
+    synchronized (initLock) {
+      if (!inited) {
+        try {
+          handler.init();
+        } catch (IllegalAccessException | InvocationTargetException e) {
+          log.error(e.getMessage(), e);
         }
-        //返回异常信息
-        try (StringWriter stringWriter = new StringWriter()) {
-          e.printStackTrace(new PrintWriter(stringWriter));
-          String errorMsg = stringWriter.toString();
-          XxlJobHelper.handleFail(errorMsg);
-          XxlJobHelper.log(String.format(
-              "<br>----------- JobThread Exception:%s<br>----------- xxl-job job execute end(error) -----------",
-              errorMsg));
-        } catch (IOException ex) {
-          log.error(ex.getMessage(), ex);
-          Thread.currentThread().interrupt();
+        inited = true;
+      }
+    }
+  }
+
+  /**
+   * 是否并行执行的调度.
+   *
+   * @param triggerParam 调度参数
+   * @return true，并行执行，否则，false
+   */
+  private static boolean isConcurrent(TriggerParam triggerParam) {
+    return ExecutorBlockStrategyEnum.CONCURRENT == ExecutorBlockStrategyEnum
+        .match(triggerParam.getExecutorBlockStrategy(), null);
+  }
+
+  /**
+   * 是否合并执行的调度.
+   *
+   * @param triggerParam 调度参数
+   * @return true，合并执行，否则，false
+   */
+  private static boolean isCoalesce(TriggerParam triggerParam) {
+    return triggerParam != null && ExecutorBlockStrategyEnum.COALESCE == ExecutorBlockStrategyEnum
+        .match(triggerParam.getExecutorBlockStrategy(), null);
+  }
+
+  /**
+   * 调度日志文件名称.
+   *
+   * @param triggerParam 调度参数
+   * @return 文件名称, like "logPath/yyyy-MM-dd/9999.log"
+   */
+  private static String makeLogFileName(TriggerParam triggerParam) {
+    return XxlJobFileAppender.makeLogFileName(Instant.ofEpochMilli(triggerParam
+            .getLogDateTime()).atZone(ZoneOffset.ofHours(8)).toLocalDate(),
+        triggerParam.getLogId());
+  }
+
+  /**
+   * 执行一次调度，被合并的调度共用执行结果.
+   *
+   * @param triggerParam  调度参数
+   * @param coalescedList 被合并的调度参数
+   */
+  private void execute(TriggerParam triggerParam, List<TriggerParam> coalescedList) {
+    try {
+      triggerLogIdSet.remove(triggerParam.getLogId());
+
+      // 文件名称, like "logPath/yyyy-MM-dd/9999.log"
+      String logFileName = makeLogFileName(triggerParam);
+      XxlJobContext xxlJobContext = new XxlJobContext(triggerParam.getJobId(),
+          triggerParam.getExecutorParams(), logFileName, triggerParam.getBroadcastIndex(),
+          triggerParam.getBroadcastTotal());
+
+      // init job context
+      XxlJobContext.setXxlJobContext(xxlJobContext);
+
+      // 执行
+      XxlJobHelper.log(String.format(
+          "<br>----------- xxl-job job execute start -----------<br>----------- Param:%s",
+          triggerParam.getExecutorParams()));
+      if (!coalescedList.isEmpty()) {
+        StringBuilder coalescedLogIds = new StringBuilder();
+        for (TriggerParam coalescedParam : coalescedList) {
+          triggerLogIdSet.remove(coalescedParam.getLogId());
+          coalescedLogIds.append(coalescedLogIds.length() > 0 ? "," : "")
+              .append(coalescedParam.getLogId());
+          XxlJobFileAppender.appendLog(makeLogFileName(coalescedParam), String.format(
+              "%s <br>----------- xxl-job job coalesced, execute with logId:%d",
+              DateUtil.formatDateTime(new Date()), triggerParam.getLogId()));
         }
-      } finally {
-        if (triggerParam != null) {
-          // 回调处理器信息
-          if (!toStop) {
-            // commonm
-            TriggerCallbackThread.pushCallBack(new HandleCallbackParam(triggerParam.getLogId(),
-                triggerParam.getLogDateTime(), XxlJobContext.getXxlJobContext().getHandleCode(),
-                XxlJobContext.getXxlJobContext().getHandleMsg())
-            );
-          } else {
-            // is killed
-            // 已经被kill了
-            TriggerCallbackThread.pushCallBack(new HandleCallbackParam(triggerParam.getLogId(),
-                triggerParam.getLogDateTime(), XxlJobContext.HANDLE_COCE_FAIL,
-                stopReason + " [job running, killed]"));
+        XxlJobHelper.log("<br>----------- coalesced logId:" + coalescedLogIds);
+      }
+      //超时时间大于0
+      if (triggerParam.getExecutorTimeout() > 0) {
+        // limit timeout：共享时间轮计时，超时后中断当前工作线程
+        AtomicInteger executionState = new AtomicInteger(EXECUTION_RUNNING);
+        Thread worker = Thread.currentThread();
+        Timeout timeout = JobTimeoutTimer.getInstance()
+            .newTimeout(() -> expire(executionState, worker), triggerParam.getExecutorTimeout());
+        boolean timedOut;
+        try {
+          handler.execute();
+        } catch (Exception e) {
+          // 超时中断导致的异常按超时处理
+          if (executionState.get() != EXECUTION_TIMEOUT) {
+            throw e;
+          }
+        } finally {
+          timeout.cancel();
+          synchronized (this) {
+            timedOut = !executionState.compareAndSet(EXECUTION_RUNNING, EXECUTION_FINISHED);
           }
         }
+        if (timedOut) {
+          // 清除超时中断标记
+          Thread.interrupted();
+          XxlJobHelper.log("<br>----------- xxl-job job execute timeout");
+
+          // handle result
+          XxlJobHelper.handleTimeout("job execute timeout ");
+        }
+      } else {
+        // 超时时间小于等于0，立即执行
+        handler.execute();
       }
+
+      if (XxlJobContext.getXxlJobContext().getHandleCode() <= 0) {
+        XxlJobHelper.handleFail("job handle result lost.");
+      } else {
+        // 格式化返回结果
+        String tempHandleMsg = XxlJobContext.getXxlJobContext().getHandleMsg();
+        tempHandleMsg = (tempHandleMsg != null && tempHandleMsg.length() > 50000)
+            ? tempHandleMsg.substring(0, 50000).concat("...") : tempHandleMsg;
+        XxlJobContext.getXxlJobContext().setHandleMsg(tempHandleMsg);
+      }
+      XxlJobHelper.log(String.format(
+          "<br>----------- xxl-job job execute end(finish) -----------<br>----------- Result: handleCode=%d, handleMsg = %s",
+          XxlJobContext.getXxlJobContext().getHandleCode(),
+          XxlJobContext.getXxlJobContext().getHandleMsg()));
+    } catch (InterruptedException | IllegalAccessException | IOException |
+        InvocationTargetException | RuntimeException e) {
+      if (toStop) {
+        XxlJobHelper.log("<br>----------- JobThread toStop, stopReason:" + stopReason);
+      }
+      //返回异常信息
+      try (StringWriter stringWriter = new StringWriter()) {
+        e.printStackTrace(new PrintWriter(stringWriter));
+        String errorMsg = stringWriter.toString();
+        XxlJobHelper.handleFail(errorMsg);
+        XxlJobHelper.log(String.format(
+            "<br>----------- JobThread Exception:%s<br>----------- xxl-job job execute end(error) -----------",
+            errorMsg));
+      } catch (IOException ex) {
+        log.error(ex.getMessage(), ex);
+      }
+    } finally {
+      // 回调前保证执行日志已全部写入
+      JobLogWriter.getInstance().flush(XxlJobContext.getXxlJobContext().getJobLogFileName());
+
+      // 回调处理器信息，被合并的调度共用执行结果
+      int handleCode;
+      String handleMsg;
+      if (!toStop) {
+        // commonm
+        handleCode = XxlJobContext.getXxlJobContext().getHandleCode();
+        handleMsg = XxlJobContext.getXxlJobContext().getHandleMsg();
+      } else {
+        // is killed
+        // 已经被kill了
+        handleCode = XxlJobContext.HANDLE_COCE_FAIL;
+        handleMsg = stopReason + " [job running, killed]";
+      }
+      TriggerCallbackThread.pushCallBack(new HandleCallbackParam(triggerParam.getLogId(),
+          triggerParam.getLogDateTime(), handleCode, handleMsg));
+      activeLogIdSet.remove(triggerParam.getLogId());
+      for (TriggerParam coalescedParam : coalescedList) {
+        TriggerCallbackThread.pushCallBack(new HandleCallbackParam(coalescedParam.getLogId(),
+            coalescedParam.getLogDateTime(), handleCode,
+            "[coalesced, execute with logId:" + triggerParam.getLogId() + "] "
+                + (handleMsg != null ? handleMsg : "")));
+        activeLogIdSet.remove(coalescedParam.getLogId());
+      }
+      // 工作线程复用，清理任务上下文
+      XxlJobContext.setXxlJobContext(null);
+    }
+  }
+
+  /**
+   * 执行超时：执行仍在进行时中断执行的工作线程，执行已结束时忽略.
+   *
+   * @param executionState 执行状态
+   * @param worker         执行的工作线程
+   * @return true，已中断，否则，执行已结束
+   */
+  private boolean expire(AtomicInteger executionState, Thread worker) {
+    synchronized (this) {
+      if (!executionState.compareAndSet(EXECUTION_RUNNING, EXECUTION_TIMEOUT)) {
+        return false;
+      }
+      worker.interrupt();
+      return true;
     }
+  }
 
+  /**
+   * 停止：回调队列中未执行的调度，销毁任务处理器.
+   */
+  private void terminate() {
     // callback trigger request in queue
     //队列中的回调调度器器请求
-    while (!CollectionUtils.isEmpty(triggerQueue)) {
-      TriggerParam triggerParam = triggerQueue.poll();
-      if (triggerParam != null) {
+    // 已停止，持有入队锁清空队列后不会再有调度入队
+    synchronized (queueLock) {
+      TriggerParam triggerParam;
+      while ((triggerParam = triggerQueue.poll()) != null) {
+        JobThreadPool.getInstance().releaseQueue();
+        triggerLogIdSet.remove(triggerParam.getLogId());
         // 任务没有执行，还在任务队列中，被kill了
         TriggerCallbackThread.pushCallBack(new HandleCallbackParam(triggerParam.getLogId(),
             triggerParam.getLogDateTime(), XxlJobContext.HANDLE_COCE_FAIL,
             stopReason + " [job not executed, in the job queue, killed.]")
         );
+        activeLogIdSet.remove(triggerParam.getLogId());
       }
-      // 销毁
-      try {
-        handler.destroy();
-      } catch (IllegalAccessException | InvocationTargetException e) {
-        log.error(e.getMessage(), e);
-      }
-      log.info(">>>>>>>>>>> xxl-job JobThread stoped, hashCode:{}", Thread.currentThread());
     }
+
+    // 销毁
+    try {
+      handler.destroy();
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      log.error(e.getMessage(), e);
+    }
+    log.info(">>>>>>>>>>> xxl-job JobThread stoped, jobId:{}", jobId);
+    stopLatch.countDown();
   }
 }
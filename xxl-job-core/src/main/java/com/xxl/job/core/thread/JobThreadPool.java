@@ -0,0 +1,281 @@
+package com.xxl.job.core.thread;
+
+import com.xxl.job.core.executor.XxlJobExecutor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 任务工作线程池
+ * <p>
+ * 各任务的调度队列（JobThread）复用有限的工作线程：同一任务同一时刻只由一个工作线程处理，保证串行；
+ * 空闲的任务不占用线程，定期移除长时间空闲的任务.
+ * </p>
+ * <p>
+ * 工作线程数为常驻线程数，全部繁忙时按需扩容（空闲60秒后回收），避免长时间运行的任务占满线程使其他任务饥饿；
+ * 扩容上限为 {@link #DEFAULT_MAX_POOL_SIZE}（不小于工作线程数），达到上限后调度排队等待并告警.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class JobThreadPool {
+
+  private static JobThreadPool instance = new JobThreadPool();
+
+  public static JobThreadPool getInstance() {
+    return instance;
+  }
+
+  /**
+   * 默认工作线程数.
+   */
+  public static final int DEFAULT_POOL_SIZE = 256;
+  /**
+   * 默认最大工作线程数.
+   */
+  public static final int DEFAULT_MAX_POOL_SIZE = 2048;
+  /**
+   * 默认单个任务的调度队列长度.
+   */
+  public static final int DEFAULT_JOB_QUEUE_SIZE = 1000;
+  /**
+   * 默认所有任务的调度队列总长度.
+   */
+  public static final int DEFAULT_TOTAL_QUEUE_SIZE = 100000;
+  /**
+   * 任务空闲超时时间（毫秒），与原任务线程空闲30次（每次3秒）后移除一致.
+   */
+  private static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(90);
+  /**
+   * 空闲任务检测间隔（秒）.
+   */
+  private static final int IDLE_CHECK_INTERVAL = 3;
+  /**
+   * 工作线程池饱和告警间隔（毫秒）.
+   */
+  private static final long SATURATED_WARN_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+  /**
+   * 工作线程池.
+   */
+  private ThreadPoolExecutor workerPool;
+  /**
+   * 空闲任务清理线程.
+   */
+  private Thread idleCleanThread;
+  /**
+   * 是否尝试停止.
+   */
+  private volatile boolean toStop = false;
+  /**
+   * 单个任务的调度队列长度.
+   */
+  @Getter
+  private volatile int jobQueueSize = DEFAULT_JOB_QUEUE_SIZE;
+  /**
+   * 所有任务的调度队列总长度.
+   */
+  private volatile int totalQueueSize = DEFAULT_TOTAL_QUEUE_SIZE;
+  /**
+   * 所有任务排队中的调度数.
+   */
+  private final AtomicInteger queuedCount = new AtomicInteger();
+  /**
+   * 已提交未执行完的任务数.
+   */
+  private final AtomicInteger submittedCount = new AtomicInteger();
+  /**
+   * 最近一次饱和告警时间.
+   */
+  private volatile long lastSaturatedWarnTime;
+
+  /**
+   * 启动.
+   *
+   * @param poolSize       工作线程数，小于等于0时使用默认值
+   * @param jobQueueSize   单个任务的调度队列长度，小于等于0时使用默认值
+   * @param totalQueueSize 所有任务的调度队列总长度，小于等于0时使用默认值
+   */
+  public void start(int poolSize, int jobQueueSize, int totalQueueSize) {
+    this.jobQueueSize = jobQueueSize > 0 ? jobQueueSize : DEFAULT_JOB_QUEUE_SIZE;
+    this.totalQueueSize = totalQueueSize > 0 ? totalQueueSize : DEFAULT_TOTAL_QUEUE_SIZE;
+    int workerNum = poolSize > 0 ? poolSize : DEFAULT_POOL_SIZE;
+    AtomicInteger workerIndex = new AtomicInteger();
+    // 任务串行提交，队列长度不超过任务数；无空闲线程时优先扩容，达到上限后排队；
+    // 线程池停止后直接在调用线程中执行（如停止任务）
+    ElasticQueue workQueue = new ElasticQueue();
+    workerPool = new ThreadPoolExecutor(workerNum, Math.max(workerNum, DEFAULT_MAX_POOL_SIZE), 60L,
+        TimeUnit.SECONDS, workQueue,
+        r -> new Thread(r, "xxl-job, JobThreadPool-worker-" + workerIndex.incrementAndGet()),
+        (r, executor) -> {
+          if (!executor.isShutdown()) {
+            // 扩容时线程数已达上限
+            workQueue.force(r);
+            return;
+          }
+          log.warn(">>>>>>>>>>> xxl-job, JobThreadPool is shutdown, run in caller thread.");
+          try {
+            r.run();
+          } finally {
+            submittedCount.decrementAndGet();
+          }
+        }) {
+      @Override
+      protected void afterExecute(Runnable r, Throwable t) {
+        submittedCount.decrementAndGet();
+      }
+    };
+    workQueue.pool = workerPool;
+    workerPool.allowCoreThreadTimeOut(true);
+
+    idleCleanThread = new Thread(() -> {
+      while (!toStop) {
+        try {
+          TimeUnit.SECONDS.sleep(IDLE_CHECK_INTERVAL);
+          XxlJobExecutor.removeIdleJobThread(IDLE_TIMEOUT);
+        } catch (InterruptedException e) {
+          if (!toStop) {
+            log.error(e.getMessage(), e);
+          }
+        } catch (Exception e) {
+          log.error(e.getMessage(), e);
+        }
+      }
+      log.info(">>>>>>>>>>> xxl-job, executor JobThreadPool idle clean thread destory.");
+    });
+    idleCleanThread.setDaemon(true);
+    idleCleanThread.setName("xxl-job, executor JobThreadPool-idleCleanThread");
+    idleCleanThread.start();
+  }
+
+  /**
+   * 提交任务.
+   *
+   * @param task 任务
+   */
+  void execute(Runnable task) {
+    if (workerPool == null) {
+      throw new IllegalStateException("xxl-job, JobThreadPool is not started.");
+    }
+    submittedCount.incrementAndGet();
+    try {
+      workerPool.execute(task);
+    } catch (RuntimeException e) {
+      submittedCount.decrementAndGet();
+      throw e;
+    }
+  }
+
+  /**
+   * 占用一个全局调度队列位置.
+   *
+   * @return true，占用成功，否则，全局队列已满
+   */
+  boolean acquireQueue() {
+    while (true) {
+      int count = queuedCount.get();
+      if (count >= totalQueueSize) {
+        return false;
+      }
+      if (queuedCount.compareAndSet(count, count + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * 释放一个全局调度队列位置（调度出队）.
+   */
+  void releaseQueue() {
+    queuedCount.decrementAndGet();
+  }
+
+  /**
+   * 所有任务排队中的调度数.
+   *
+   * @return 调度数
+   */
+  public int getQueuedCount() {
+    return queuedCount.get();
+  }
+
+  /**
+   * 常驻工作线程数.
+   *
+   * @return 工作线程数
+   */
+  public int getPoolSize() {
+    return workerPool != null ? workerPool.getCorePoolSize() : 0;
+  }
+
+  /**
+   * 正在执行的工作线程数.
+   *
+   * @return 工作线程数
+   */
+  public int getActiveCount() {
+    return workerPool != null ? workerPool.getActiveCount() : 0;
+  }
+
+  /**
+   * 停止，需在所有任务停止之后调用.
+   */
+  public void toStop() {
+    toStop = true;
+
+    if (idleCleanThread != null) {
+      idleCleanThread.interrupt();
+      try {
+        idleCleanThread.join();
+      } catch (InterruptedException e) {
+        log.error(e.getMessage(), e);
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (workerPool != null) {
+      workerPool.shutdown();
+    }
+  }
+
+  /**
+   * 工作队列：无空闲线程且未达最大线程数时拒绝入队，使线程池扩容.
+   */
+  private class ElasticQueue extends LinkedBlockingQueue<Runnable> {
+
+    private static final long serialVersionUID = 42L;
+
+    private transient ThreadPoolExecutor pool;
+
+    @Override
+    public boolean offer(Runnable r) {
+      if (pool == null || submittedCount.get() <= pool.getPoolSize()) {
+        // 有空闲线程
+        return super.offer(r);
+      }
+      if (pool.getPoolSize() < pool.getMaximumPoolSize()) {
+        return false;
+      }
+      long now = System.currentTimeMillis();
+      if (now - lastSaturatedWarnTime > SATURATED_WARN_INTERVAL) {
+        lastSaturatedWarnTime = now;
+        log.warn(">>>>>>>>>>> xxl-job, JobThreadPool is saturated, all {} workers are busy, triggers are waiting.",
+            pool.getPoolSize());
+      }
+      return super.offer(r);
+    }
+
+    /**
+     * 直接入队.
+     *
+     * @param r 任务
+     */
+    void force(Runnable r) {
+      super.offer(r);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.xxl.job.core.thread;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 任务超时计时器
+ * <p>
+ * 所有设置了超时时间的任务执行共用一个时间轮计时，超时后中断正在执行的工作线程，不再为每次执行创建线程.
+ * </p>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class JobTimeoutTimer {
+
+  private static JobTimeoutTimer instance = new JobTimeoutTimer();
+
+  public static JobTimeoutTimer getInstance() {
+    return instance;
+  }
+
+  /**
+   * 时间轮刻度（毫秒），任务超时时间以秒为单位，精度足够.
+   */
+  private static final long TICK_DURATION = 100;
+  /**
+   * 时间轮槽数.
+   */
+  private static final int TICKS_PER_WHEEL = 512;
+
+  /**
+   * 时间轮.
+   */
+  private HashedWheelTimer timer;
+  /**
+   * 超时次数.
+   */
+  private final AtomicLong expiredCount = new AtomicLong();
+
+  /**
+   * 启动.
+   */
+  public void start() {
+    timer = new HashedWheelTimer(r -> {
+      Thread thread = new Thread(r, "xxl-job, executor JobTimeoutTimer");
+      thread.setDaemon(true);
+      return thread;
+    }, TICK_DURATION, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
+    timer.start();
+  }
+
+  /**
+   * 开始计时.
+   *
+   * @param onExpire 超时回调（在计时线程中执行，需快速返回），返回true表示确实中断了执行，计入超时次数
+   * @param timeout  超时时间（秒）
+   * @return 计时，执行结束后需取消
+   */
+  Timeout newTimeout(BooleanSupplier onExpire, int timeout) {
+    if (timer == null) {
+      throw new IllegalStateException("xxl-job, JobTimeoutTimer is not started.");
+    }
+    return timer.newTimeout(t -> {
+      if (onExpire.getAsBoolean()) {
+        expiredCount.incrementAndGet();
+      }
+    }, timeout, TimeUnit.SECONDS);
+  }
+
+  /**
+   * 超时次数（启动以来）.
+   *
+   * @return 超时次数
+   */
+  public long getExpiredCount() {
+    return expiredCount.get();
+  }
+
+  /**
+   * 停止，未到期的计时不再触发.
+   */
+  public void toStop() {
+    if (timer != null) {
+      timer.stop();
+    }
+    log.info(">>>>>>>>>>> xxl-job, executor JobTimeoutTimer stop, expired count:{}", expiredCount.get());
+  }
+}
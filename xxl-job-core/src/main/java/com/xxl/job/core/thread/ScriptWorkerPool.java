@@ -0,0 +1,463 @@
+package com.xxl.job.core.thread;
+
+import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.glue.GlueTypeEnum;
+import com.xxl.job.core.log.JobLogSegmentStore;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.util.GsonTool;
+import com.xxl.job.core.util.ScriptUtil;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 脚本常驻解释器池
+ * <p>
+ * GLUE(Python)、GLUE(Nodejs) 任务可复用常驻的解释器进程执行，省去每次执行启动解释器的开销：
+ * 解释器运行引导脚本，从标准输入逐行读取执行请求（JSON：脚本文件、日志文件、参数、令牌），在同一进程内执行脚本，
+ * 执行期间脚本输出追加到任务日志文件，执行结束后向标准输出写入 "令牌 退出码"；执行间隙的脚本输出（如未结束的异步操作）丢弃，
+ * 标准输出中令牌不匹配的行忽略，不影响执行结果.
+ * </p>
+ * <ol>
+ *     <li>python 脚本通过 runpy 以 "__main__" 执行，sys.exit 的退出码作为执行结果；已导入的模块在同一解释器的多次执行间共享；</li>
+ *     <li>nodejs 脚本通过 require 执行，顶层代码执行完成即结束，如需等待异步操作需将 Promise 赋值给 module.exports；
+ *     process.exitCode 作为执行结果，调用 process.exit 会结束解释器进程；</li>
+ *     <li>启用分段存储时日志不是独立文件，不使用常驻解释器.</li>
+ * </ol>
+ *
+ * @author smilesnake
+ */
+@Slf4j
+public class ScriptWorkerPool {
+
+  private static ScriptWorkerPool instance = new ScriptWorkerPool();
+
+  public static ScriptWorkerPool getInstance() {
+    return instance;
+  }
+
+  /**
+   * 每种脚本类型最多保留的空闲解释器数.
+   */
+  private static final int MAX_IDLE_WORKERS = 4;
+  /**
+   * 解释器空闲超时时间（毫秒），超时后关闭.
+   */
+  private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+  /**
+   * 单个解释器最多执行次数，超出后关闭，避免脚本遗留的状态无限累积.
+   */
+  private static final int MAX_EXECUTIONS = 1000;
+  /**
+   * 解释器进程已退出.
+   */
+  private static final int EXITED = Integer.MIN_VALUE;
+
+  /**
+   * python 引导脚本.
+   */
+  private static final String PYTHON_BOOTSTRAP = String.join("\n",
+      "import json, os, runpy, sys, traceback",
+      "",
+      "request_in = os.fdopen(os.dup(0), 'rb')",
+      "result_out = os.fdopen(os.dup(1), 'wb')",
+      "null_in = os.open(os.devnull, os.O_RDONLY)",
+      "null_out = os.open(os.devnull, os.O_WRONLY)",
+      "os.dup2(null_in, 0)",
+      "os.dup2(null_out, 1)",
+      "os.dup2(null_out, 2)",
+      "",
+      "while True:",
+      "    line = request_in.readline()",
+      "    if not line:",
+      "        break",
+      "    request = json.loads(line.decode('utf-8'))",
+      "    log_fd = os.open(request['log'], os.O_WRONLY | os.O_APPEND | os.O_CREAT, 0o644)",
+      "    os.dup2(log_fd, 1)",
+      "    os.dup2(log_fd, 2)",
+      "    os.close(log_fd)",
+      "    sys.argv = [request['script']] + request['params']",
+      "    exit_code = 0",
+      "    try:",
+      "        runpy.run_path(request['script'], run_name='__main__')",
+      "    except SystemExit as e:",
+      "        if isinstance(e.code, int):",
+      "            exit_code = e.code",
+      "        elif e.code is not None:",
+      "            sys.stderr.write(str(e.code) + '\\n')",
+      "            exit_code = 1",
+      "    except BaseException:",
+      "        traceback.print_exc()",
+      "        exit_code = 1",
+      "    sys.stdout.flush()",
+      "    sys.stderr.flush()",
+      "    os.dup2(null_out, 1)",
+      "    os.dup2(null_out, 2)",
+      "    result_out.write(('%s %d\\n' % (request['token'], exit_code)).encode('utf-8'))",
+      "    result_out.flush()",
+      "");
+
+  /**
+   * nodejs 引导脚本.
+   */
+  private static final String NODEJS_BOOTSTRAP = String.join("\n",
+      "const fs = require('fs');",
+      "const path = require('path');",
+      "const readline = require('readline');",
+      "",
+      "const stdoutWrite = process.stdout.write;",
+      "const stderrWrite = process.stderr.write;",
+      "const discard = function (chunk, encoding, callback) {",
+      "  const done = typeof encoding === 'function' ? encoding : callback;",
+      "  if (typeof done === 'function') {",
+      "    done();",
+      "  }",
+      "  return true;",
+      "};",
+      "process.stdout.write = discard;",
+      "process.stderr.write = discard;",
+      "let queue = Promise.resolve();",
+      "",
+      "function run(request) {",
+      "  const logFd = fs.openSync(request.log, 'a');",
+      "  const write = function (chunk, encoding, callback) {",
+      "    fs.writeSync(logFd, typeof chunk === 'string' ? chunk : Buffer.from(chunk));",
+      "    const done = typeof encoding === 'function' ? encoding : callback;",
+      "    if (typeof done === 'function') {",
+      "      done();",
+      "    }",
+      "    return true;",
+      "  };",
+      "  const argv = process.argv;",
+      "  const fail = e => {",
+      "    write((e && e.stack ? e.stack : String(e)) + '\\n');",
+      "    return 1;",
+      "  };",
+      "  const finish = code => {",
+      "    code = code || process.exitCode || 0;",
+      "    process.exitCode = undefined;",
+      "    process.stdout.write = discard;",
+      "    process.stderr.write = discard;",
+      "    process.argv = argv;",
+      "    fs.closeSync(logFd);",
+      "    return code;",
+      "  };",
+      "  process.stdout.write = write;",
+      "  process.stderr.write = write;",
+      "  process.argv = [argv[0], request.script].concat(request.params);",
+      "  let result;",
+      "  try {",
+      "    const script = path.resolve(request.script);",
+      "    delete require.cache[script];",
+      "    result = require(script);",
+      "  } catch (e) {",
+      "    return finish(fail(e));",
+      "  }",
+      "  return Promise.resolve(result && typeof result.then === 'function' ? result : null)",
+      "      .then(() => 0, fail).then(finish);",
+      "}",
+      "",
+      "readline.createInterface({input: process.stdin}).on('line', line => {",
+      "  const request = JSON.parse(line);",
+      "  queue = queue.then(() => run(request))",
+      "      .catch(e => {",
+      "        stderrWrite.call(process.stderr, String(e && e.stack || e) + '\\n');",
+      "        return 1;",
+      "      })",
+      "      .then(code => stdoutWrite.call(process.stdout, request.token + ' ' + code + '\\n'));",
+      "});",
+      "");
+
+  /**
+   * 空闲解释器<脚本类型, 解释器>，最近使用的在队首.
+   */
+  private final Map<GlueTypeEnum, Deque<ScriptWorker>> idleWorkerMap = new EnumMap<>(GlueTypeEnum.class);
+  /**
+   * 引导脚本文件<脚本类型, 文件名称>.
+   */
+  private final Map<GlueTypeEnum, String> bootstrapFileMap = new EnumMap<>(GlueTypeEnum.class);
+  /**
+   * 是否启用.
+   */
+  private volatile boolean started = false;
+
+  /**
+   * 启动.
+   */
+  public void start() {
+    synchronized (bootstrapFileMap) {
+      bootstrapFileMap.clear();
+    }
+    started = true;
+  }
+
+  /**
+   * 停止，关闭所有空闲解释器；执行中的解释器执行结束后关闭.
+   */
+  public void toStop() {
+    started = false;
+    synchronized (idleWorkerMap) {
+      for (Deque<ScriptWorker> idleWorkers : idleWorkerMap.values()) {
+        for (ScriptWorker worker : idleWorkers) {
+          worker.destroy();
+        }
+      }
+      idleWorkerMap.clear();
+    }
+  }
+
+  /**
+   * 是否使用常驻解释器执行.
+   *
+   * @param glueType GLUE类型
+   * @param logFile  日志文件
+   * @return true，使用常驻解释器，否则，每次执行启动新进程
+   */
+  public boolean supports(GlueTypeEnum glueType, String logFile) {
+    return started
+        && (glueType == GlueTypeEnum.GLUE_PYTHON || glueType == GlueTypeEnum.GLUE_NODEJS)
+        && !JobLogSegmentStore.getInstance().accepts(logFile);
+  }
+
+  /**
+   * 使用常驻解释器执行脚本，日志文件实时输出.
+   *
+   * @param glueType   GLUE类型
+   * @param scriptFile 脚本文件
+   * @param logFile    日志文件
+   * @param params     参数
+   * @return 0=success, 1=error
+   * @see ScriptUtil#execToFile(String, String, String, String...)
+   */
+  public int execToFile(GlueTypeEnum glueType, String scriptFile, String logFile, String... params) {
+    ScriptWorker worker = null;
+    try {
+      worker = borrowWorker(glueType);
+      return worker.exec(scriptFile, logFile, params);
+    } catch (InterruptedException e) {
+      // 任务被中断（超时、终止），结束解释器进程
+      XxlJobHelper.log(e);
+      Thread.currentThread().interrupt();
+      return -1;
+    } catch (Exception e) {
+      XxlJobHelper.log(e);
+      return -1;
+    } finally {
+      if (worker != null) {
+        releaseWorker(glueType, worker);
+      }
+    }
+  }
+
+  /**
+   * 获取空闲解释器，没有时启动新的解释器.
+   */
+  private ScriptWorker borrowWorker(GlueTypeEnum glueType) throws IOException {
+    synchronized (idleWorkerMap) {
+      Deque<ScriptWorker> idleWorkers = idleWorkerMap.get(glueType);
+      if (idleWorkers != null) {
+        closeIdleWorker(idleWorkers);
+        ScriptWorker worker = idleWorkers.pollFirst();
+        if (worker != null) {
+          return worker;
+        }
+      }
+    }
+    return new ScriptWorker(glueType, bootstrapFile(glueType));
+  }
+
+  /**
+   * 归还解释器，不可复用或空闲数已达上限时关闭.
+   */
+  private void releaseWorker(GlueTypeEnum glueType, ScriptWorker worker) {
+    if (started && worker.isReusable()) {
+      synchronized (idleWorkerMap) {
+        Deque<ScriptWorker> idleWorkers = idleWorkerMap.computeIfAbsent(glueType, k -> new ArrayDeque<>());
+        if (idleWorkers.size() < MAX_IDLE_WORKERS) {
+          worker.lastUsedTime = System.currentTimeMillis();
+          idleWorkers.offerFirst(worker);
+          return;
+        }
+      }
+    }
+    worker.destroy();
+  }
+
+  /**
+   * 关闭空闲超时的解释器，从最久未使用的开始检查.
+   */
+  private void closeIdleWorker(Deque<ScriptWorker> idleWorkers) {
+    long idleTime = System.currentTimeMillis() - IDLE_TIMEOUT;
+    Iterator<ScriptWorker> iterator = idleWorkers.descendingIterator();
+    while (iterator.hasNext()) {
+      ScriptWorker worker = iterator.next();
+      if (worker.lastUsedTime > idleTime && worker.isReusable()) {
+        break;
+      }
+      worker.destroy();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * 生成引导脚本文件，每次启动后首次使用时重新生成.
+   */
+  private String bootstrapFile(GlueTypeEnum glueType) throws IOException {
+    synchronized (bootstrapFileMap) {
+      String bootstrapFile = bootstrapFileMap.get(glueType);
+      if (bootstrapFile == null || !new File(bootstrapFile).exists()) {
+        bootstrapFile = XxlJobFileAppender.getGlueSrcPath().concat(File.separator)
+            .concat("xxl-job-script-worker").concat(glueType.getSuffix());
+        ScriptUtil.markScriptFile(bootstrapFile,
+            glueType == GlueTypeEnum.GLUE_PYTHON ? PYTHON_BOOTSTRAP : NODEJS_BOOTSTRAP);
+        bootstrapFileMap.put(glueType, bootstrapFile);
+      }
+      return bootstrapFile;
+    }
+  }
+
+  /**
+   * 常驻解释器.
+   */
+  private static class ScriptWorker {
+
+    private final Process process;
+    private final OutputStream requestOut;
+    /**
+     * 执行结果，由结果读取线程写入.
+     */
+    private final LinkedBlockingQueue<Result> resultQueue = new LinkedBlockingQueue<>();
+    /**
+     * 令牌前缀，每个解释器随机生成，脚本输出难以与执行结果混淆.
+     */
+    private final String tokenPrefix = UUID.randomUUID().toString();
+    private int executions;
+    private volatile long lastUsedTime;
+
+    ScriptWorker(GlueTypeEnum glueType, String bootstrapFile) throws IOException {
+      // 错误输出：执行期间写入任务日志，空闲时输出到执行器控制台
+      process = new ProcessBuilder(glueType.getCmd(), bootstrapFile)
+          .redirectError(Redirect.INHERIT)
+          .start();
+      requestOut = process.getOutputStream();
+      lastUsedTime = System.currentTimeMillis();
+
+      Thread resultThread = new Thread(() -> {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            Result result = Result.parse(line.trim());
+            if (result != null) {
+              resultQueue.offer(result);
+            } else {
+              log.debug(">>>>>>>>>>> xxl-job, script worker ignore output:{}", line);
+            }
+          }
+        } catch (Exception e) {
+          log.warn(">>>>>>>>>>> xxl-job, script worker read result fail.", e);
+          process.destroyForcibly();
+        }
+        resultQueue.offer(new Result(null, EXITED));
+      });
+      resultThread.setDaemon(true);
+      resultThread.setName("xxl-job, executor ScriptWorker-" + glueType.name());
+      resultThread.start();
+    }
+
+    /**
+     * 执行脚本，等待执行结束.
+     */
+    int exec(String scriptFile, String logFile, String... params) throws IOException, InterruptedException {
+      executions++;
+      String token = tokenPrefix + "-" + executions;
+      Map<String, Object> request = new HashMap<>();
+      request.put("script", scriptFile);
+      request.put("log", logFile);
+      request.put("params", Arrays.asList(params != null ? params : new String[0]));
+      request.put("token", token);
+      try {
+        requestOut.write((GsonTool.toJson(request) + "\n").getBytes(StandardCharsets.UTF_8));
+        requestOut.flush();
+
+        while (true) {
+          Result result = resultQueue.take();
+          if (result.token == null) {
+            // 脚本结束了解释器进程，如 process.exit
+            return process.waitFor();
+          }
+          if (token.equals(result.token)) {
+            return result.exitValue;
+          }
+          log.debug(">>>>>>>>>>> xxl-job, script worker ignore result, token:{}", result.token);
+        }
+      } catch (IOException | InterruptedException e) {
+        destroy();
+        throw e;
+      }
+    }
+
+    boolean isReusable() {
+      return process.isAlive() && resultQueue.isEmpty() && executions < MAX_EXECUTIONS;
+    }
+
+    void destroy() {
+      try {
+        requestOut.close();
+      } catch (IOException e) {
+        log.debug(e.getMessage(), e);
+      }
+      process.destroyForcibly();
+    }
+  }
+
+  /**
+   * 执行结果.
+   */
+  private static class Result {
+
+    /**
+     * 执行请求的令牌，解释器进程退出时为null.
+     */
+    private final String token;
+    private final int exitValue;
+
+    Result(String token, int exitValue) {
+      this.token = token;
+      this.exitValue = exitValue;
+    }
+
+    /**
+     * 解析结果行 "令牌 退出码".
+     *
+     * @param line 结果行
+     * @return 执行结果，格式不符（如脚本的异步输出）时返回null
+     */
+    static Result parse(String line) {
+      int index = line.lastIndexOf(' ');
+      if (index <= 0) {
+        return null;
+      }
+      try {
+        return new Result(line.substring(0, index), Integer.parseInt(line.substring(index + 1)));
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+  }
+}
@@ -7,6 +7,7 @@ import com.xxl.job.core.context.XxlJobContext;
 import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.enums.RegistryConfig;
 import com.xxl.job.core.executor.XxlJobExecutor;
+import com.xxl.job.core.log.CallbackJournal;
 import com.xxl.job.core.log.XxlJobFileAppender;
 import com.xxl.job.core.util.FileUtil;
 import com.xxl.job.core.util.JdkSerializeTool;
@@ -17,10 +18,18 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang.ArrayUtils;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -41,10 +50,44 @@ public class TriggerCallbackThread {
     return instance;
   }
 
+  /**
+   * 批量回调的最大条数，达到时立即回调.
+   */
+  private static final int CALLBACK_BATCH_SIZE = 500;
+  /**
+   * 批量回调的时间窗口（毫秒），自窗口内第一条回调起计时，到期时回调.
+   */
+  private static final long CALLBACK_BATCH_WINDOW = 50;
+  /**
+   * 对冲回调的等待时间（毫秒），当前调度中心未在此时间内响应时，同时回调下一个调度中心.
+   */
+  private static final long CALLBACK_HEDGE_DELAY = 500;
+
   /**
    * 任务结果回调队列.
    */
   private LinkedBlockingQueue<HandleCallbackParam> callBackQueue = new LinkedBlockingQueue<>();
+  /**
+   * 对冲回调线程池，多个调度中心时使用.
+   */
+  private ExecutorService hedgeCallbackPool;
+
+  /**
+   * 回调批次数.
+   */
+  private final LongAdder callbackBatchCount = new LongAdder();
+  /**
+   * 回调条数.
+   */
+  private final LongAdder callbackItemCount = new LongAdder();
+  /**
+   * 回调耗时总和（毫秒）.
+   */
+  private final LongAdder callbackLatencyTotal = new LongAdder();
+  /**
+   * 回调耗时最大值（毫秒）.
+   */
+  private final AtomicLong callbackLatencyMax = new AtomicLong();
 
   /**
    * 添加回调处理器参数.
@@ -77,6 +120,19 @@ public class TriggerCallbackThread {
       return;
     }
 
+    if (XxlJobExecutor.getAdminBizList().size() > 1) {
+      AtomicInteger hedgeThreadIndex = new AtomicInteger();
+      hedgeCallbackPool = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r,
+            "xxl-job, executor TriggerCallbackThread-hedge-" + hedgeThreadIndex.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+
+    // 回调失败日志
+    openCallbackJournal();
+
     // callback
     triggerCallbackThread = new Thread(() -> {
 
@@ -86,11 +142,25 @@ public class TriggerCallbackThread {
           HandleCallbackParam callback = getInstance().callBackQueue.take();
           if (callback != null) {
 
-            // callback list param
+            // callback list param：时间窗口内达到批量条数或窗口到期时回调
             List<HandleCallbackParam> callbackParamList = new ArrayList<>();
-            // 移除此队列中所有可用的元素，并将它们添加到给定 callbackParamList中
-            getInstance().callBackQueue.drainTo(callbackParamList);
             callbackParamList.add(callback);
+            long windowEnd = System.currentTimeMillis() + CALLBACK_BATCH_WINDOW;
+            while (callbackParamList.size() < CALLBACK_BATCH_SIZE) {
+              // 移除此队列中可用的元素，并将它们添加到给定 callbackParamList中
+              getInstance().callBackQueue
+                  .drainTo(callbackParamList, CALLBACK_BATCH_SIZE - callbackParamList.size());
+              long remaining = windowEnd - System.currentTimeMillis();
+              if (callbackParamList.size() >= CALLBACK_BATCH_SIZE || remaining <= 0 || toStop) {
+                break;
+              }
+              HandleCallbackParam next = getInstance().callBackQueue
+                  .poll(remaining, TimeUnit.MILLISECONDS);
+              if (next == null) {
+                break;
+              }
+              callbackParamList.add(next);
+            }
 
             // 回调，失败将会重试
             if (!CollectionUtils.isEmpty(callbackParamList)) {
@@ -180,6 +250,71 @@ public class TriggerCallbackThread {
       }
     }
 
+    if (hedgeCallbackPool != null) {
+      hedgeCallbackPool.shutdownNow();
+    }
+    if (callbackJournal != null) {
+      callbackJournal.close();
+    }
+    log.info(">>>>>>>>>>> xxl-job, executor callback stop, batch count:{}, avg batch size:{}, avg latency:{}ms, max latency:{}ms",
+        getCallbackBatchCount(), getAvgCallbackBatchSize(), getAvgCallbackLatency(),
+        getMaxCallbackLatency());
+  }
+
+  /**
+   * 待回调的执行结果数.
+   *
+   * @return 待回调的执行结果数
+   */
+  public int getCallbackQueueSize() {
+    return callBackQueue.size();
+  }
+
+  /**
+   * 回调批次数（启动以来）.
+   *
+   * @return 回调批次数
+   */
+  public long getCallbackBatchCount() {
+    return callbackBatchCount.sum();
+  }
+
+  /**
+   * 回调条数（启动以来）.
+   *
+   * @return 回调条数
+   */
+  public long getCallbackItemCount() {
+    return callbackItemCount.sum();
+  }
+
+  /**
+   * 平均每批回调条数.
+   *
+   * @return 平均每批回调条数
+   */
+  public double getAvgCallbackBatchSize() {
+    long batchCount = callbackBatchCount.sum();
+    return batchCount > 0 ? (double) callbackItemCount.sum() / batchCount : 0;
+  }
+
+  /**
+   * 平均回调耗时（毫秒）.
+   *
+   * @return 平均回调耗时
+   */
+  public long getAvgCallbackLatency() {
+    long batchCount = callbackBatchCount.sum();
+    return batchCount > 0 ? callbackLatencyTotal.sum() / batchCount : 0;
+  }
+
+  /**
+   * 最大回调耗时（毫秒）.
+   *
+   * @return 最大回调耗时
+   */
+  public long getMaxCallbackLatency() {
+    return callbackLatencyMax.get();
   }
 
   /**
@@ -188,29 +323,114 @@ public class TriggerCallbackThread {
    * @param callbackParamList 回调参数列表
    */
   private void doCallback(List<HandleCallbackParam> callbackParamList) {
-    boolean callbackRetry = false;
+    // 上报失败，则记录到回调失败日志中，等待重试
+    if (!sendCallback(callbackParamList)) {
+      appendFailCallbackFile(callbackParamList);
+    }
+  }
+
+  /**
+   * 回调调度中心.
+   *
+   * @param callbackParamList 回调参数列表
+   * @return true，回调成功，否则，false
+   */
+  private boolean sendCallback(List<HandleCallbackParam> callbackParamList) {
+    long start = System.currentTimeMillis();
+    boolean callbackRetry;
     // callback, will retry if error
     //回调，如果失败将会重试
-    for (AdminBiz adminBiz : XxlJobExecutor.getAdminBizList()) {
-      try {
+    if (hedgeCallbackPool == null) {
+      callbackRetry = false;
+      for (AdminBiz adminBiz : XxlJobExecutor.getAdminBizList()) {
         //遍历调度端，xxl-rpc发送任务执行结果
-        ReturnT<String> callbackResult = adminBiz.callback(callbackParamList);
-        if (callbackResult != null && ReturnT.SUCCESS_CODE == callbackResult.getCode()) {
-          callbackLog(callbackParamList, "<br>----------- xxl-job job callback finish.");
+        if (callback(adminBiz, callbackParamList)) {
           callbackRetry = true;
           break;
-        } else {
-          callbackLog(callbackParamList,
-              "<br>----------- xxl-job job callback fail, callbackResult:" + callbackResult);
         }
-      } catch (Exception e) {
-        callbackLog(callbackParamList,
-            "<br>----------- xxl-job job callback error, errorMsg:" + e.getMessage());
       }
+    } else {
+      callbackRetry = hedgedCallback(callbackParamList);
     }
-    // 上报失败，则记录到本地上报失败记录文件中，等待重试
-    if (!callbackRetry) {
-      appendFailCallbackFile(callbackParamList);
+
+    // metrics
+    long latency = System.currentTimeMillis() - start;
+    callbackBatchCount.increment();
+    callbackItemCount.add(callbackParamList.size());
+    callbackLatencyTotal.add(latency);
+    callbackLatencyMax.accumulateAndGet(latency, Math::max);
+    log.debug(">>>>>>>>>>> xxl-job, callback batch size:{}, latency:{}ms, success:{}",
+        callbackParamList.size(), latency, callbackRetry);
+    return callbackRetry;
+  }
+
+  /**
+   * 回调一个调度中心.
+   *
+   * @param adminBiz          调度中心
+   * @param callbackParamList 回调参数列表
+   * @return true，回调成功，否则，false
+   */
+  private boolean callback(AdminBiz adminBiz, List<HandleCallbackParam> callbackParamList) {
+    try {
+      ReturnT<String> callbackResult = adminBiz.callback(callbackParamList);
+      if (callbackResult != null && ReturnT.SUCCESS_CODE == callbackResult.getCode()) {
+        callbackLog(callbackParamList, "<br>----------- xxl-job job callback finish.");
+        return true;
+      }
+      callbackLog(callbackParamList,
+          "<br>----------- xxl-job job callback fail, callbackResult:" + callbackResult);
+    } catch (Exception e) {
+      callbackLog(callbackParamList,
+          "<br>----------- xxl-job job callback error, errorMsg:" + e.getMessage());
+    }
+    return false;
+  }
+
+  /**
+   * 对冲回调：依次回调各调度中心，当前调度中心失败时立即、未在对冲等待时间内响应时同时回调下一个，任一成功即结束.
+   * <p>
+   * 调度中心忽略已回调的日志，重复回调不会重复处理.
+   * </p>
+   *
+   * @param callbackParamList 回调参数列表
+   * @return true，回调成功，否则，false
+   */
+  private boolean hedgedCallback(List<HandleCallbackParam> callbackParamList) {
+    List<AdminBiz> adminBizList = XxlJobExecutor.getAdminBizList();
+    CompletionService<Boolean> completionService = new ExecutorCompletionService<>(
+        hedgeCallbackPool);
+    List<Future<Boolean>> futureList = new ArrayList<>(adminBizList.size());
+    try {
+      int finished = 0;
+      futureList.add(completionService.submit(() -> callback(adminBizList.get(0), callbackParamList)));
+      while (finished < futureList.size()) {
+        Future<Boolean> future = futureList.size() < adminBizList.size()
+            ? completionService.poll(CALLBACK_HEDGE_DELAY, TimeUnit.MILLISECONDS)
+            : completionService.take();
+        if (future != null) {
+          finished++;
+          if (Boolean.TRUE.equals(future.get())) {
+            return true;
+          }
+        }
+        // 超时未响应或失败，回调下一个调度中心
+        if (futureList.size() < adminBizList.size()) {
+          AdminBiz adminBiz = adminBizList.get(futureList.size());
+          futureList.add(completionService.submit(() -> callback(adminBiz, callbackParamList)));
+        }
+      }
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException e) {
+      log.error(e.getMessage(), e);
+      return false;
+    } finally {
+      for (Future<Boolean> future : futureList) {
+        future.cancel(true);
+      }
     }
   }
 
@@ -228,83 +448,89 @@ public class TriggerCallbackThread {
     }
   }
 
-  // ---------------------- fail-callback file ----------------------
+  // ---------------------- fail-callback journal ----------------------
   /**
    * 回调失败的文件路径.
    */
   private static String failCallbackFilePath = XxlJobFileAppender.getLogBasePath()
       .concat(File.separator).concat("callbacklog").concat(File.separator);
   /**
-   * 回调失败的文件名称.
+   * 旧版本回调失败的文件名称前缀，启动时迁移到回调失败日志.
+   */
+  private static final String LEGACY_FAIL_CALLBACK_FILE_PREFIX = "xxl-job-callback-";
+  /**
+   * 回调失败日志.
    */
-  private static String failCallbackFileName = failCallbackFilePath.concat("xxl-job-callback-{x}")
-      .concat(".log");
+  private CallbackJournal callbackJournal;
 
   /**
-   * 上报失败，则记录到本地上报失败记录文件中.
-   *
-   * @param callbackParamList 回调参数列表
+   * 打开回调失败日志，并迁移旧版本的回调失败文件.
    */
-  private void appendFailCallbackFile(List<HandleCallbackParam> callbackParamList) {
-    final Integer maxFileSize = 100;
-    // valid
-    if (CollectionUtils.isEmpty(callbackParamList)) {
+  private void openCallbackJournal() {
+    try {
+      callbackJournal = new CallbackJournal(new File(failCallbackFilePath));
+    } catch (IOException e) {
+      log.error(">>>>>>>>>>> xxl-job, executor callback journal open fail.", e);
       return;
     }
 
-    // 追加文件
-    byte[] callbackParamListBytes = JdkSerializeTool.serialize(callbackParamList);
-
-    File callbackLogFile = new File(
-        failCallbackFileName.replace("{x}", String.valueOf(System.currentTimeMillis())));
-    if (callbackLogFile.exists()) {
-      //可能当前时刻文件不止一个
-      for (int i = 0; i < maxFileSize; i++) {
-        callbackLogFile = new File(failCallbackFileName.replace("{x}",
-            String.valueOf(System.currentTimeMillis()).concat("-").concat(String.valueOf(i))));
-        if (!callbackLogFile.exists()) {
-          break;
-        }
+    File[] legacyFiles = new File(failCallbackFilePath)
+        .listFiles((dir, name) -> name.startsWith(LEGACY_FAIL_CALLBACK_FILE_PREFIX));
+    if (legacyFiles == null) {
+      return;
+    }
+    for (File legacyFile : legacyFiles) {
+      try {
+        byte[] callbackParamListBytes = FileUtil.readFileContent(legacyFile);
+        List<HandleCallbackParam> callbackParamList = (List<HandleCallbackParam>) JdkSerializeTool
+            .deserialize(callbackParamListBytes);
+        callbackJournal.append(callbackParamList);
+        Files.delete(legacyFile.toPath());
+      } catch (Exception e) {
+        log.error(">>>>>>>>>>> xxl-job, executor legacy callback file migrate fail: {}", legacyFile, e);
       }
     }
-    FileUtil.writeFileContent(callbackLogFile, callbackParamListBytes);
   }
 
   /**
-   * 重试失败回调文件.
+   * 上报失败，则追加到回调失败日志中.
+   *
+   * @param callbackParamList 回调参数列表
    */
-  private void retryFailCallbackFile() {
-
-    // 验证
-    File callbackLogPath = new File(failCallbackFilePath);
-    if (!callbackLogPath.exists()) {
+  private void appendFailCallbackFile(List<HandleCallbackParam> callbackParamList) {
+    // valid
+    if (CollectionUtils.isEmpty(callbackParamList)) {
       return;
     }
-    if (callbackLogPath.isFile()) {
-      try {
-        Files.delete(callbackLogPath.toPath());
-      } catch (IOException e) {
-        log.error(e.getMessage(), e);
-      }
-    }
-    if (!(callbackLogPath.isDirectory() && ArrayUtils.isNotEmpty(callbackLogPath.list()))) {
+    if (callbackJournal == null) {
+      log.error(">>>>>>>>>>> xxl-job, executor callback journal unavailable, callback lost: {}",
+          callbackParamList);
       return;
     }
+    try {
+      callbackJournal.append(callbackParamList);
+    } catch (IOException e) {
+      log.error(">>>>>>>>>>> xxl-job, executor callback journal append fail, callback lost: {}",
+          callbackParamList, e);
+    }
+  }
 
-    // 加载并清理文件，然后重试
-    for (File callbackLogFile : callbackLogPath.listFiles()) {
-      byte[] callbackParamListBytes = FileUtil.readFileContent(callbackLogFile);
-      List<HandleCallbackParam> callbackParamList = (List<HandleCallbackParam>) JdkSerializeTool
-          .deserialize(callbackParamListBytes);
-
-      try {
-        Files.delete(callbackLogPath.toPath());
-      } catch (IOException e) {
-        log.error(e.getMessage(), e);
+  /**
+   * 重试回调失败日志：从检查点顺序读取并回调，成功后推进检查点，连续成功时不等待，直到日志为空或回调失败.
+   *
+   * @throws IOException 读取回调失败日志失败
+   */
+  private void retryFailCallbackFile() throws IOException {
+    if (callbackJournal == null) {
+      return;
+    }
+    while (!toStop && !callbackJournal.isEmpty()) {
+      CallbackJournal.Batch batch = callbackJournal.read(CALLBACK_BATCH_SIZE);
+      if (!batch.getCallbackParamList().isEmpty() && !sendCallback(batch.getCallbackParamList())) {
+        return;
       }
-      doCallback(callbackParamList);
+      callbackJournal.commit(batch);
     }
-
   }
 
 }
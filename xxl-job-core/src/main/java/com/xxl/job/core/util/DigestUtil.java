@@ -0,0 +1,34 @@
+package com.xxl.job.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 摘要工具类
+ *
+ * @author smilesnake
+ */
+public class DigestUtil {
+    private DigestUtil() {
+    }
+
+    /**
+     * 计算字符串（UTF-8）的MD5.
+     *
+     * @param str 字符串
+     * @return 32位小写十六进制MD5
+     */
+    public static String md5Hex(String str) {
+        try {
+            byte[] md5 = MessageDigest.getInstance("MD5").digest(str.getBytes(StandardCharsets.UTF_8));
+            StringBuilder md5Str = new StringBuilder(md5.length * 2);
+            for (byte b : md5) {
+                md5Str.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return md5Str.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import lombok.AllArgsConstructor;
 
+import java.io.Reader;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 
@@ -32,6 +33,16 @@ public class GsonTool {
         return gson.toJson(src);
     }
 
+    /**
+     * Object 转成 json，直接写入输出（如响应缓冲区），不生成中间字符串
+     *
+     * @param src    源对象
+     * @param writer 输出
+     */
+    public static void toJson(Object src, Appendable writer) {
+        gson.toJson(src, writer);
+    }
+
     /**
      * json 转成 特定的cls的Object
      *
@@ -43,6 +54,17 @@ public class GsonTool {
         return gson.fromJson(json, classOfT);
     }
 
+    /**
+     * json 转成 特定的cls的Object，直接从输入（如请求缓冲区）读取，不生成中间字符串
+     *
+     * @param json     json输入
+     * @param classOfT 特定的类class对象
+     * @return Class生成的类对象
+     */
+    public static <T> T fromJson(Reader json, Class<T> classOfT) {
+        return gson.fromJson(json, classOfT);
+    }
+
     /**
      * json 转成 特定的 rawClass<classOfT> 的Object
      *
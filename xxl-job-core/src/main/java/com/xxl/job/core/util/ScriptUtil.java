@@ -1,10 +1,14 @@
 package com.xxl.job.core.util;
 
 import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.log.JobLogSegmentStore;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -14,10 +18,10 @@ import org.apache.commons.lang.ArrayUtils;
 
 /**
  * <ol>
- *     <li>内嵌编译器如"PythonInterpreter"无法引用扩展包，因此推荐使用java调用控制台进程方式"Runtime.getRuntime().exec()"来运行脚本(shell或python)；</li>
+ *     <li>内嵌编译器如"PythonInterpreter"无法引用扩展包，因此推荐使用java调用控制台进程方式"ProcessBuilder"来运行脚本(shell或python)；</li>
  *     <li>因为通过java调用控制台进程方式实现，需要保证目标机器PATH路径正确配置对应编译器；</li>
- *     <li>暂时脚本执行日志只能在脚本执行结束后一次性获取，无法保证实时性；因此为确保日志实时性，可改为将脚本打印的日志存储在指定的日志文件上；</li>
- *     <li>python 异常输出优先级高于标准输出，体现在Log文件中，因此推荐通过logging方式打日志保持和异常信息一致；否则用prinf日志顺序会错乱</li>
+ *     <li>脚本的标准输出、错误输出直接追加到任务日志文件，日志实时可见；</li>
+ *     <li>python 标准输出非交互时带缓冲，错误输出不带缓冲，体现在Log文件中顺序可能错乱，因此推荐通过logging方式打日志或 print(..., flush=True)</li>
  * </ol>
  *
  * @author xuxueli
@@ -44,6 +48,10 @@ public class ScriptUtil {
 
   /**
    * 脚本执行，日志文件实时输出
+   * <p>
+   * 标准输出与错误输出合并后由操作系统直接追加到日志文件，不经过Java线程拷贝；
+   * 启用分段存储时日志不是独立文件，由一个线程拷贝到分段文件.
+   * </p>
    *
    * @param command    命令
    * @param scriptFile 脚本文件
@@ -54,9 +62,9 @@ public class ScriptUtil {
   public static int execToFile(String command, String scriptFile, String logFile,
       String... params) {
 
-    Thread inputThread = null;
-    Thread errThread = null;
-    try (FileOutputStream fileOutputStream = new FileOutputStream(logFile, true)) {
+    Process process = null;
+    Thread copyThread = null;
+    try {
       // 组装command
       List<String> cmdArray = new ArrayList<>();
       cmdArray.add(command);
@@ -64,53 +72,51 @@ public class ScriptUtil {
       if (ArrayUtils.isNotEmpty(params)) {
         cmdArray.addAll(Arrays.asList(params));
       }
-      String[] cmdArrayFinal = cmdArray.toArray(new String[0]);
-
-      // 进程执行
-      final Process process = Runtime.getRuntime().exec(cmdArrayFinal);
 
-      // 日志线程
-      inputThread = new Thread(() -> {
-        try {
-          copy(process.getInputStream(), fileOutputStream, new byte[1024]);
-        } catch (IOException e) {
-          XxlJobHelper.log(e);
-        }
-      });
-      // 错误日志线程
-      errThread = new Thread(() -> {
-        try {
-          copy(process.getErrorStream(), fileOutputStream, new byte[1024]);
-        } catch (IOException e) {
-          XxlJobHelper.log(e);
-        }
-      });
-      inputThread.start();
-      errThread.start();
+      // 进程执行，错误输出合并到标准输出，保持输出顺序
+      ProcessBuilder processBuilder = new ProcessBuilder(cmdArray).redirectErrorStream(true);
+      if (!JobLogSegmentStore.getInstance().accepts(logFile)) {
+        process = processBuilder.redirectOutput(Redirect.appendTo(new File(logFile))).start();
+      } else {
+        process = processBuilder.start();
+        InputStream inputStream = process.getInputStream();
+        copyThread = new Thread(() -> {
+          try (OutputStream outputStream = XxlJobFileAppender.openLogStream(logFile)) {
+            copy(inputStream, outputStream, new byte[8192]);
+          } catch (IOException e) {
+            XxlJobHelper.log(e);
+          }
+        });
+        copyThread.start();
+      }
 
       // 如果需要，使当前线程等待，直到此进程对象表示的进程已终止。如果子进程已终止，则此方法立即返回。
       // 如果子进程尚未终止，调用线程将被阻塞，直到子进程退出,返回退出码：0，成功，1失败
       int exitValue = process.waitFor();
 
-      // log-thread join
-      // 等待线程终止
-      inputThread.join();
-      errThread.join();
+      // 等待日志拷贝完成
+      if (copyThread != null) {
+        copyThread.join();
+      }
 
       return exitValue;
+    } catch (InterruptedException e) {
+      // 任务被中断（超时、终止），结束脚本进程
+      XxlJobHelper.log(e);
+      Thread.currentThread().interrupt();
+      return -1;
     } catch (Exception e) {
       XxlJobHelper.log(e);
       return -1;
     } finally {
-      if (inputThread != null && inputThread.isAlive()) {
-        inputThread.interrupt();
+      if (process != null && process.isAlive()) {
+        process.destroyForcibly();
       }
-      if (errThread != null && errThread.isAlive()) {
-        errThread.interrupt();
+      if (copyThread != null && copyThread.isAlive()) {
+        copyThread.interrupt();
       }
     }
   }
-
   /**
    * 数据流Copy（Input自动关闭，Output不处理）
    *
@@ -9,10 +9,12 @@ import java.io.BufferedReader;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.security.cert.X509Certificate;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * XxlJob 远程工具类.
@@ -25,6 +27,18 @@ public class XxlJobRemotingUtil {
     }
 
     public static final String XXL_JOB_ACCESS_TOKEN = "XXL-JOB-ACCESS-TOKEN";
+    /**
+     * 请求实体压缩编码.
+     */
+    public static final String GZIP_ENCODING = "gzip";
+    /**
+     * 请求实体压缩的最小字节数，过小的请求实体压缩收益低.
+     */
+    public static final int GZIP_MIN_SIZE = 8 * 1024;
+    /**
+     * 对方返回的状态码无效时的返回信息前缀.
+     */
+    private static final String STATUS_FAIL_MSG = "xxl-rpc remoting fail, StatusCode(";
 
     //------------------------------------------ trust-https start ---------------------------------------------------
 
@@ -75,32 +89,33 @@ public class XxlJobRemotingUtil {
      * @see ReturnT
      */
     public static ReturnT postBody(String url, String accessToken, int timeout, Object param, Class returnArgClassOfT) {
+        return postBody(url, accessToken, timeout, param, returnArgClassOfT, false);
+    }
+
+    /**
+     * post方法调度远程api，请求实体较大时可压缩
+     *
+     * @param url               远程url
+     * @param accessToken       访问令牌
+     * @param timeout           超时时间（秒）
+     * @param param             请求实体
+     * @param returnArgClassOfT 特定的 returnArgClassOfT
+     * @param gzip              请求实体不小于 {@link #GZIP_MIN_SIZE} 时是否gzip压缩，需对方支持
+     * @return 特定的 ReturnT<returnTargClassOfT> 的Object
+     * @see ReturnT
+     */
+    public static ReturnT postBody(String url, String accessToken, int timeout, Object param, Class returnArgClassOfT,
+                                   boolean gzip) {
         HttpURLConnection connection = null;
         try {
             // connection
-            URL realUrl = new URL(url);
-            connection = (HttpURLConnection) realUrl.openConnection();
-
-            // 信任https
-            boolean useHttps = url.startsWith("https");
-            if (useHttps) {
-                HttpsURLConnection https = (HttpsURLConnection) connection;
-                trustAllHosts(https);
-            }
+            connection = openConnection(url, accessToken, timeout);
 
-            // connection设置
-            connection.setRequestMethod("POST");
-            connection.setDoOutput(true);
-            connection.setDoInput(true);
-            connection.setUseCaches(false);
-            connection.setReadTimeout(timeout * 1000);
-            connection.setConnectTimeout(3 * 1000);
-            connection.setRequestProperty("connection", "Keep-Alive");
-            connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
-            connection.setRequestProperty("Accept-Charset", "application/json;charset=UTF-8");
-
-            if (StringUtils.isNotBlank(accessToken)) {
-                connection.setRequestProperty(XXL_JOB_ACCESS_TOKEN, accessToken);
+            // 请求实体，较大时压缩
+            byte[] requestBody = param != null ? GsonTool.toJson(param).getBytes(StandardCharsets.UTF_8) : null;
+            boolean compress = gzip && requestBody != null && requestBody.length >= GZIP_MIN_SIZE;
+            if (compress) {
+                connection.setRequestProperty("Content-Encoding", GZIP_ENCODING);
             }
 
             // do connection
@@ -108,18 +123,18 @@ public class XxlJobRemotingUtil {
 
             // 写入请求实体
             // write requestBody
-            if (param != null) {
-                String requestBody = GsonTool.toJson(param);
-                try (DataOutputStream dataOutputStream = new DataOutputStream(connection.getOutputStream())) {
-                    dataOutputStream.write(requestBody.getBytes(StandardCharsets.UTF_8));
-                    dataOutputStream.flush();
+            if (requestBody != null) {
+                try (OutputStream outputStream = compress ? new GZIPOutputStream(connection.getOutputStream())
+                        : new DataOutputStream(connection.getOutputStream())) {
+                    outputStream.write(requestBody);
+                    outputStream.flush();
                 }
             }
 
             // 验证状态码
             int statusCode = connection.getResponseCode();
             if (statusCode != HttpURLConnection.HTTP_OK) {
-                return new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-rpc remoting fail, StatusCode(" + statusCode + ") invalid. for url : " + url);
+                return new ReturnT<String>(ReturnT.FAIL_CODE, STATUS_FAIL_MSG + statusCode + ") invalid. for url : " + url);
             }
             //解析返回结果
             try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
@@ -151,4 +166,98 @@ public class XxlJobRemotingUtil {
         }
     }
 
+    /**
+     * 是否因对方返回的状态码无效而失败，即请求已送达但对方未能处理（如不支持压缩的请求实体）.
+     *
+     * @param result 调用结果
+     * @return true，状态码无效，否则，false
+     */
+    public static boolean isStatusFail(ReturnT<?> result) {
+        return result != null && ReturnT.SUCCESS_CODE != result.getCode()
+                && result.getMsg() != null && result.getMsg().startsWith(STATUS_FAIL_MSG);
+    }
+
+    /**
+     * post方法打开远程流式响应（SSE），由调用方读取响应并断开连接
+     *
+     * @param url         远程url
+     * @param accessToken 访问令牌
+     * @param timeout     读取超时时间（秒），需大于对方的心跳间隔
+     * @param param       请求实体
+     * @return 连接，响应为事件流
+     * @throws IOException 连接失败，或对方未返回事件流（如拒绝），异常信息为对方的返回结果
+     */
+    public static HttpURLConnection postStream(String url, String accessToken, int timeout, Object param)
+            throws IOException {
+        HttpURLConnection connection = openConnection(url, accessToken, timeout);
+        try {
+            connection.setRequestProperty("Accept", "text/event-stream");
+            connection.connect();
+            if (param != null) {
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(GsonTool.toJson(param).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("xxl-rpc remoting fail, StatusCode(" + statusCode + ") invalid. for url : " + url);
+            }
+            String contentType = connection.getContentType();
+            if (contentType == null || !contentType.startsWith("text/event-stream")) {
+                // 未返回事件流，如不支持或拒绝
+                StringBuilder result = new StringBuilder();
+                try (BufferedReader bufferedReader = new BufferedReader(
+                        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = bufferedReader.readLine()) != null) {
+                        result.append(line);
+                    }
+                }
+                throw new IOException(result.toString());
+            }
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * 打开连接.
+     *
+     * @param url         远程url
+     * @param accessToken 访问令牌
+     * @param timeout     读取超时时间（秒）
+     * @return 连接，尚未连接
+     * @throws IOException 打开失败
+     */
+    private static HttpURLConnection openConnection(String url, String accessToken, int timeout) throws IOException {
+        URL realUrl = new URL(url);
+        HttpURLConnection connection = (HttpURLConnection) realUrl.openConnection();
+
+        // 信任https
+        boolean useHttps = url.startsWith("https");
+        if (useHttps) {
+            HttpsURLConnection https = (HttpsURLConnection) connection;
+            trustAllHosts(https);
+        }
+
+        // connection设置
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setDoInput(true);
+        connection.setUseCaches(false);
+        connection.setReadTimeout(timeout * 1000);
+        connection.setConnectTimeout(3 * 1000);
+        connection.setRequestProperty("connection", "Keep-Alive");
+        connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+        connection.setRequestProperty("Accept-Charset", "application/json;charset=UTF-8");
+
+        if (StringUtils.isNotBlank(accessToken)) {
+            connection.setRequestProperty(XXL_JOB_ACCESS_TOKEN, accessToken);
+        }
+        return connection;
+    }
+
 }
@@ -40,6 +40,24 @@ public class XxlJobConfig {
     @Value("${xxl.job.executor.logretentiondays}")
     private int logRetentionDays;
 
+    @Value("${xxl.job.executor.logstore:file}")
+    private String logStore;
+
+    @Value("${xxl.job.executor.logcallerinfo:true}")
+    private boolean logCallerInfo;
+
+    @Value("${xxl.job.executor.scriptworker:false}")
+    private boolean scriptWorker;
+
+    @Value("${xxl.job.executor.jobthreadpoolsize:0}")
+    private int jobThreadPoolSize;
+
+    @Value("${xxl.job.executor.jobqueuesize:0}")
+    private int jobQueueSize;
+
+    @Value("${xxl.job.executor.jobqueuetotalsize:0}")
+    private int jobQueueTotalSize;
+
 
     @Bean
     public XxlJobSpringExecutor xxlJobExecutor() {
@@ -53,6 +71,12 @@ public class XxlJobConfig {
         xxlJobSpringExecutor.setAccessToken(accessToken);
         xxlJobSpringExecutor.setLogPath(logPath);
         xxlJobSpringExecutor.setLogRetentionDays(logRetentionDays);
+        xxlJobSpringExecutor.setLogStore(logStore);
+        xxlJobSpringExecutor.setLogCallerInfo(logCallerInfo);
+        xxlJobSpringExecutor.setScriptWorker(scriptWorker);
+        xxlJobSpringExecutor.setJobThreadPoolSize(jobThreadPoolSize);
+        xxlJobSpringExecutor.setJobQueueSize(jobQueueSize);
+        xxlJobSpringExecutor.setJobQueueTotalSize(jobQueueTotalSize);
 
         return xxlJobSpringExecutor;
     }